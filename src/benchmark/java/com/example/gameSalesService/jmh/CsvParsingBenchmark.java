@@ -0,0 +1,66 @@
+package com.example.gameSalesService.jmh;
+
+import com.example.gameSalesService.util.GameCsvParser;
+import com.example.gameSalesService.util.GameSalesCsvGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Single-threaded parse of a generated game_sales CSV, per row. Compare with the gc profiler:
+// gc.alloc.rate.norm is bytes per row, about zero for the bare parse and one Game for toGame().
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvParsingBenchmark {
+
+    static final int ROWS = 100_000;
+
+    private Path file;
+
+    @Setup
+    public void generate() throws IOException {
+        file = Files.createTempFile("game_sales_jmh_", ".csv");
+        GameSalesCsvGenerator.generateCsvFile(file.toString(), ROWS);
+    }
+
+    @TearDown
+    public void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    // The fields the import aggregates, straight from the mutable Row
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long parse(Blackhole blackhole) throws IOException {
+        return new GameCsvParser().parse(file, row -> {
+            blackhole.consume(row.getEpochDay());
+            blackhole.consume(row.getGameNo());
+            blackhole.consume(Math.round(row.getSalePrice() * 100));
+        });
+    }
+
+    // Plus the Game entity every row becomes for the game_sales batches
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long parseToGame(Blackhole blackhole) throws IOException {
+        return new GameCsvParser().parse(file, row -> blackhole.consume(row.toGame()));
+    }
+}
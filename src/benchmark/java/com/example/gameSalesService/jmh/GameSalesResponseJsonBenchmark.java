@@ -0,0 +1,98 @@
+package com.example.gameSalesService.jmh;
+
+import com.example.gameSalesService.entity.Game;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// JSON encoding of a /getGameSales page as QueryResponseCache does it (ObjectMapper.writeValueAsBytes of
+// the response map), per page: full Game entities, and the maps of a fields=id,dateOfSale,salePrice page.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameSalesResponseJsonBenchmark {
+
+    @Param({"100", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private Map<String, Object> entityPage;
+    private Map<String, Object> fieldsPage;
+
+    @Setup
+    public void setUp() {
+        // Configured like the ObjectMapper Spring Boot gives QueryResponseCache
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        SplittableRandom random = new SplittableRandom(42);
+        List<Game> games = new ArrayList<>(size);
+        List<Map<String, Object>> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Game game = new Game();
+            game.setId((long) i + 1);
+            game.setGameNo(random.nextInt(100) + 1);
+            game.setGameName("SuperFun");
+            game.setGameCode("SG1");
+            game.setType(random.nextInt(2) + 1);
+            game.setCostPrice(random.nextInt(10000) / 100.0);
+            game.setTax(Math.round(game.getCostPrice() * 9) / 100.0);
+            game.setSalePrice(Math.round((game.getCostPrice() + game.getTax()) * 100) / 100.0);
+            game.setDateOfSale(LocalDate.of(2024, 4, 1).plusDays(random.nextInt(30)));
+            games.add(game);
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", game.getId());
+            row.put("dateOfSale", game.getDateOfSale());
+            row.put("salePrice", game.getSalePrice());
+            rows.add(row);
+        }
+        entityPage = page(games);
+        fieldsPage = page(rows);
+    }
+
+    @Benchmark
+    public byte[] entities() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(entityPage);
+    }
+
+    @Benchmark
+    public byte[] fields() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(fieldsPage);
+    }
+
+    // Same keys as the offset-mode response
+    private Map<String, Object> page(List<?> content) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("games", content);
+        response.put("currentPage", 0);
+        response.put("totalItems", 1_000_000L);
+        response.put("totalPages", (1_000_000 + size - 1) / size);
+        return response;
+    }
+}
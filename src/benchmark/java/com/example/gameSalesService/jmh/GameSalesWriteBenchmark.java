@@ -0,0 +1,142 @@
+package com.example.gameSalesService.jmh;
+
+import com.example.gameSalesService.benchmark.BenchmarkDatabase;
+import com.example.gameSalesService.entity.Game;
+import com.example.gameSalesService.entity.GameSalesAggregated;
+import com.example.gameSalesService.service.writer.GameSalesAggregatedUpserter;
+import com.example.gameSalesService.service.writer.GameSalesWriter;
+import com.example.gameSalesService.service.writer.JdbcBatchGameSalesWriter;
+import com.example.gameSalesService.service.writer.JpaGameSalesWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Writes of one import batch against an embedded H2 database in MySQL mode, per row: a game_sales batch
+// through either GameSalesWriter (load-data needs a MySQL server), and the upsert of an import's
+// aggregates. H2 numbers are only comparable with each other; allocation per row carries over to MySQL.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameSalesWriteBenchmark {
+
+    // game-sales.import.batch-size
+    static final int BATCH_SIZE = 2000;
+    // 30 days of 100 games
+    static final int AGGREGATES = 3000;
+
+    private BenchmarkDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private GameSalesAggregatedUpserter upserter;
+    private List<Game> batch;
+    private List<GameSalesAggregated> aggregates;
+    private long nextId;
+
+    @Setup
+    public void setUp() {
+        database = BenchmarkDatabase.open("game_sales_jmh");
+        jdbcTemplate = database.jdbcTemplate();
+        upserter = new GameSalesAggregatedUpserter(jdbcTemplate, database.transactionTemplate(), 1000);
+        batch = generateBatch();
+        aggregates = generateAggregates();
+    }
+
+    // Keeps the table, and so the index depth, the same size in every iteration
+    @Setup(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.execute("TRUNCATE TABLE game_sales");
+        jdbcTemplate.execute("TRUNCATE TABLE game_sales_aggregated");
+        nextId = 1;
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    // The game_sales writer under test; a separate state so only writeBatch runs once per writer
+    @State(Scope.Benchmark)
+    public static class Writer {
+
+        @Param({"jdbc", "jpa"})
+        private String writer;
+
+        private GameSalesWriter gameSalesWriter;
+
+        @Setup
+        public void setUp(GameSalesWriteBenchmark benchmark) {
+            BenchmarkDatabase database = benchmark.database;
+            gameSalesWriter = "jpa".equals(writer)
+                    ? new JpaGameSalesWriter(database.entityManagerFactory())
+                    : new JdbcBatchGameSalesWriter(benchmark.jdbcTemplate, database.transactionTemplate(), 500);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void writeBatch(Writer writer) {
+        // Every batch is new rows, as in an import
+        for (Game game : batch) {
+            game.setId(nextId++);
+        }
+        writer.gameSalesWriter.write(batch);
+    }
+
+    // After the first invocation every row is an update of an existing aggregate
+    @Benchmark
+    @OperationsPerInvocation(AGGREGATES)
+    public void upsertAggregates() {
+        upserter.upsert(aggregates);
+    }
+
+    private static List<Game> generateBatch() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Game> games = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Game game = new Game();
+            game.setGameNo(random.nextInt(100) + 1);
+            game.setGameName("SuperFun");
+            game.setGameCode("SG1");
+            game.setType(random.nextInt(2) + 1);
+            game.setCostPrice(random.nextInt(10000) / 100.0);
+            game.setTax(Math.round(game.getCostPrice() * 9) / 100.0);
+            game.setSalePrice(Math.round((game.getCostPrice() + game.getTax()) * 100) / 100.0);
+            game.setDateOfSale(LocalDate.of(2024, 4, 1).plusDays(random.nextInt(30)));
+            games.add(game);
+        }
+        return games;
+    }
+
+    private static List<GameSalesAggregated> generateAggregates() {
+        List<GameSalesAggregated> rows = new ArrayList<>(AGGREGATES);
+        for (int i = 0; i < AGGREGATES; i++) {
+            GameSalesAggregated aggregated = new GameSalesAggregated();
+            aggregated.setDateOfSale(LocalDate.of(2024, 4, 1).plusDays(i / 100));
+            aggregated.setGameNo(i % 100 + 1);
+            aggregated.setTotalGamesSold(10);
+            aggregated.setTotalSales(523.40);
+            rows.add(aggregated);
+        }
+        return rows;
+    }
+}
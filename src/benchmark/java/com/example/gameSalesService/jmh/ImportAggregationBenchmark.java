@@ -0,0 +1,112 @@
+package com.example.gameSalesService.jmh;
+
+import com.example.gameSalesService.entity.GameSalesAggregated;
+import com.example.gameSalesService.util.PriceSketchAggregator;
+import com.example.gameSalesService.util.SalesAggregator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// The per-row aggregation an import writer does for each stored batch (ImportTotals), per row,
+// on pre-parsed values so the parse itself is not measured. stringKeyMap is the ConcurrentHashMap of
+// "date-gameNo" keys the import used before SalesAggregator, kept as the baseline.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImportAggregationBenchmark {
+
+    static final int ROWS = 100_000;
+
+    // Distinct sale days; with 100 games, days x 100 is the number of (date, game_no) keys
+    @Param({"30", "365"})
+    private int days;
+
+    private int[] epochDays;
+    private int[] gameNos;
+    private int[] types;
+    private long[] priceCents;
+
+    @Setup
+    public void generate() {
+        SplittableRandom random = new SplittableRandom(42);
+        int firstDay = Math.toIntExact(LocalDate.of(2024, 4, 1).toEpochDay());
+        epochDays = new int[ROWS];
+        gameNos = new int[ROWS];
+        types = new int[ROWS];
+        priceCents = new long[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            epochDays[i] = firstDay + random.nextInt(days);
+            gameNos[i] = random.nextInt(100) + 1;
+            types[i] = random.nextInt(2) + 1;
+            priceCents[i] = random.nextInt(10900);
+        }
+    }
+
+    // Per-game totals only
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public SalesAggregator salesAggregator() {
+        SalesAggregator aggregator = new SalesAggregator();
+        for (int i = 0; i < ROWS; i++) {
+            aggregator.add(epochDays[i], gameNos[i], priceCents[i]);
+        }
+        return aggregator;
+    }
+
+    // Everything an import row feeds: per-game and per-type totals and the price sketches
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public PriceSketchAggregator importRow() {
+        SalesAggregator byGame = new SalesAggregator();
+        SalesAggregator byType = new SalesAggregator();
+        PriceSketchAggregator sketches = new PriceSketchAggregator();
+        for (int i = 0; i < ROWS; i++) {
+            byGame.add(epochDays[i], gameNos[i], priceCents[i]);
+            byType.add(epochDays[i], types[i], priceCents[i]);
+            sketches.add(epochDays[i], gameNos[i], priceCents[i]);
+        }
+        return sketches;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public Map<String, GameSalesAggregated> stringKeyMap() {
+        Map<String, GameSalesAggregated> aggregationMap = new ConcurrentHashMap<>();
+        for (int i = 0; i < ROWS; i++) {
+            LocalDate saleDate = LocalDate.ofEpochDay(epochDays[i]);
+            double salePrice = priceCents[i] / 100.0;
+            Integer gameNo = gameNos[i];
+            aggregationMap.compute(saleDate + "-" + gameNo, (key, aggregated) -> {
+                if (aggregated == null) {
+                    aggregated = new GameSalesAggregated();
+                    aggregated.setDateOfSale(saleDate);
+                    aggregated.setGameNo(gameNo);
+                    aggregated.setTotalGamesSold(0);
+                    aggregated.setTotalSales(0.0);
+                }
+                aggregated.setTotalGamesSold(aggregated.getTotalGamesSold() + 1);
+                aggregated.setTotalSales(aggregated.getTotalSales() + salePrice);
+                return aggregated;
+            });
+        }
+        return aggregationMap;
+    }
+}
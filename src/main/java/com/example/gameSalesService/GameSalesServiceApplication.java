@@ -1,27 +1,17 @@
 package com.example.gameSalesService;
 
-import com.example.gameSalesService.service.CacheWarmupService;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableCaching  // Enabling Spring Cache support
+@EnableScheduling  // Periodic saving of the cache warmup keys
 
-public class GameSalesServiceApplication implements CommandLineRunner {
-
-	@Autowired
-	private CacheWarmupService cacheWarmupService;
+public class GameSalesServiceApplication {
 
 	public static void main(String[] args) {
 		SpringApplication.run(GameSalesServiceApplication.class, args);
 	}
-
-	@Override
-	public void run(String... args) throws Exception {
-		// Pre-warm cache at application startup
-		cacheWarmupService.preWarmCache();
-	}
 }
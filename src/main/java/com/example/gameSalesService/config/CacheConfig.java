@@ -0,0 +1,44 @@
+package com.example.gameSalesService.config;
+
+import com.example.gameSalesService.service.QueryResponseCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+// Bounded Caffeine caches (W-TinyLFU eviction) in place of the never-evicting simple cache.
+// queryResponseCache is bounded by the encoded bytes it holds rather than by entries, since a cached
+// response can be anything from a single total to a page of games. Both caches expire after a TTL and
+// record hit/miss/eviction stats for /api/cache/stats; imports clear them through ImportCompletedEvent.
+@Configuration
+public class CacheConfig {
+
+    public static final String GAME_SALES_COUNT_CACHE = "gameSalesCountCache";
+    public static final String QUERY_RESPONSE_CACHE = "queryResponseCache";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${game-sales.cache.max-counts:10000}") long maxCounts,
+                                     @Value("${game-sales.cache.max-response-bytes:67108864}") long maxResponseBytes,
+                                     @Value("${game-sales.cache.ttl:10m}") Duration ttl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Only the caches below exist; a typo in a cache name fails instead of creating an unbounded cache
+        cacheManager.setCacheNames(List.of());
+        cacheManager.registerCustomCache(GAME_SALES_COUNT_CACHE, Caffeine.newBuilder()
+                .maximumSize(maxCounts)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(QUERY_RESPONSE_CACHE, Caffeine.newBuilder()
+                .maximumWeight(maxResponseBytes)
+                .weigher((key, value) -> ((QueryResponseCache.CachedResponse) value).weight())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
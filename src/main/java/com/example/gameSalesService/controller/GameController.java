@@ -1,34 +1,70 @@
 package com.example.gameSalesService.controller;
 
 import com.example.gameSalesService.entity.Game;
+import com.example.gameSalesService.entity.GameSalesRollup;
 import com.example.gameSalesService.repository.GameRepository;
-import com.example.gameSalesService.entity.GameSalesAggregated;
+import com.example.gameSalesService.repository.GameRepositoryCustom;
 import com.example.gameSalesService.repository.GameSalesAggregatedRepository;
+import com.example.gameSalesService.repository.GameSalesFilter;
+import com.example.gameSalesService.repository.GameSalesTotal;
+import com.example.gameSalesService.service.CacheWarmupService;
+import com.example.gameSalesService.service.GameSalesCountService;
+import com.example.gameSalesService.service.GameSalesExportService;
+import com.example.gameSalesService.service.ImportJobService;
+import com.example.gameSalesService.service.ImportProgress;
 import com.example.gameSalesService.service.ImportService;
+import com.example.gameSalesService.service.QueryKey;
+import com.example.gameSalesService.service.QueryMetrics;
+import com.example.gameSalesService.service.QueryResponseCache;
+import com.example.gameSalesService.service.PriceDistributionService;
+import com.example.gameSalesService.service.SalesRollupIndex;
+import com.example.gameSalesService.service.SalesSeriesService;
+import com.example.gameSalesService.service.TopGamesService;
+import com.example.gameSalesService.util.FileTransferUtils;
+import com.example.gameSalesService.util.GameSalesCursor;
+import com.example.gameSalesService.util.PriceSketch;
+import com.example.gameSalesService.util.TopGamesSelector;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 @RestController
 @RequestMapping("/api")  // Optional base path to organize the endpoints
@@ -37,155 +73,781 @@ public class GameController {
 
     private static final Logger logger = LoggerFactory.getLogger(GameController.class);
 
+    // Names under which the query endpoints register with QueryResponseCache
+    private static final String GAME_SALES_QUERY = "getGameSales";
+    private static final String TOTAL_SALES_QUERY = "getTotalSales";
+    private static final String SALES_SERIES_QUERY = "getSalesSeries";
+    private static final String TOP_GAMES_QUERY = "getTopGames";
+    private static final String PRICE_DISTRIBUTION_QUERY = "getPriceDistribution";
+
     @Autowired
     private GameRepository gameRepository;
 
     @Autowired
     private ImportService importService;  // A new service to handle importing in the background
 
+    @Autowired
+    private ImportJobService importJobService;
+
     @Autowired
     private GameSalesAggregatedRepository gameSalesAggregatedRepository;
 
+    @Autowired
+    private SalesRollupIndex salesRollupIndex;
+
+    @Autowired
+    private GameSalesCountService gameSalesCountService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private QueryResponseCache queryResponseCache;
+
+    @Autowired
+    private CacheWarmupService cacheWarmupService;
+
+    @Autowired
+    private GameSalesExportService gameSalesExportService;
+
+    // Largest page /getGameSales returns in any mode; bigger pages belong to /exportGameSales
+    @Value("${game-sales.page.max-size:10000}")
+    private int maxPageSize;
+
+    // Exports of tens of millions of rows outlast the container's default async timeout
+    @Value("${game-sales.export.timeout:1h}")
+    private Duration exportTimeout;
+
+    @Autowired
+    private SalesSeriesService salesSeriesService;
+
+    @Autowired
+    private TopGamesService topGamesService;
+
+    @Autowired
+    private PriceDistributionService priceDistributionService;
+
+    @Autowired
+    private QueryMetrics queryMetrics;
+
+    // Cached and warmed responses are computed from the parameters recorded in the key, and timed per
+    // endpoint and filter type
+    @PostConstruct
+    public void registerQueries() {
+        queryResponseCache.register(GAME_SALES_QUERY, key -> queryMetrics.time(GAME_SALES_QUERY, gameSalesFilterType(key),
+                () -> queryGameSales(key.getLocalDate("fromDate"), key.getLocalDate("toDate"), key.getDouble("salePrice"),
+                        key.getInteger("page"), key.getInteger("size"), key.get("filter"), key.getInteger("gameNo"),
+                        key.getInteger("type"), key.get("sort"), key.get("mode"), key.get("cursor"), key.get("fields"))));
+        queryResponseCache.register(TOTAL_SALES_QUERY, key -> queryMetrics.time(TOTAL_SALES_QUERY, totalSalesFilterType(key),
+                () -> queryTotalSales(key.getLocalDate("fromDate"), key.getLocalDate("toDate"), key.getInteger("gameNo"),
+                        key.get("filter"), key.get("groupBy"))));
+        queryResponseCache.register(SALES_SERIES_QUERY, key -> queryMetrics.time(SALES_SERIES_QUERY, salesSeriesFilterType(key),
+                () -> querySalesSeries(key.getLocalDate("fromDate"), key.getLocalDate("toDate"), key.get("granularity"),
+                        key.get("groupBy"), key.getInteger("gameNo"), key.getInteger("type"))));
+        queryResponseCache.register(TOP_GAMES_QUERY, key -> queryMetrics.time(TOP_GAMES_QUERY, topGamesFilterType(key),
+                () -> queryTopGames(key.getLocalDate("fromDate"), key.getLocalDate("toDate"), key.get("by"),
+                        key.getInteger("k"), Boolean.parseBoolean(key.get("ties")))));
+        queryResponseCache.register(PRICE_DISTRIBUTION_QUERY, key -> queryMetrics.time(PRICE_DISTRIBUTION_QUERY,
+                key.get("gameNo") != null ? "gameNo" : "all",
+                () -> queryPriceDistribution(key.getLocalDate("fromDate"), key.getLocalDate("toDate"),
+                        key.getInteger("gameNo"), key.get("quantiles"))));
+    }
+
     @GetMapping("/health")
     public String healthCheck() {
         return "Application is running!";
     }
 
-    @PostMapping("/import")
-    public ResponseEntity<String> importCsv(@RequestParam("file") MultipartFile file) {
+    // Hit/miss/eviction counters of every Caffeine-backed cache
+    @GetMapping("/cache/stats")
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> stats = new TreeMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null && cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+                CacheStats cacheStats = caffeine.stats();
+                Map<String, Object> entry = new HashMap<>();
+                entry.put("size", caffeine.estimatedSize());
+                entry.put("hitCount", cacheStats.hitCount());
+                entry.put("missCount", cacheStats.missCount());
+                entry.put("hitRate", cacheStats.hitRate());
+                entry.put("evictionCount", cacheStats.evictionCount());
+                entry.put("evictionWeight", cacheStats.evictionWeight());
+                caffeine.policy().eviction().ifPresent(eviction -> {
+                    eviction.weightedSize().ifPresent(weight -> entry.put("weightedSize", weight));
+                    entry.put("maximum", eviction.getMaximum());
+                });
+                stats.put(name, entry);
+            }
+        }
+        return stats;
+    }
+
+    // Outcome of the last replay of recorded queries into the response cache
+    @GetMapping("/cache/warmup")
+    public ResponseEntity<Object> getCacheWarmup() {
+        CacheWarmupService.WarmupReport report = cacheWarmupService.getLastReport();
+        if (report == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Cache warmup has not finished"));
+        }
+        return ResponseEntity.ok(report);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Map<String, Object>> importCsv(@RequestParam("file") MultipartFile file) {
         Instant start = Instant.now();  // Record start time
 
         try {
-            // Save the file temporarily for processing
+            // Move the spooled upload into the temp file; the container renames the part on disk
+            // instead of copying it through the heap
             Path tempFile = Files.createTempFile("game_sales_import_", ".csv");
-            Files.write(tempFile, file.getBytes());
+            file.transferTo(tempFile.toFile());
 
             // Call the ImportService to handle the import asynchronously
-            importService.processFileAsync(tempFile.toString(), start);  // Passing start time
+            ImportProgress job = importJobService.createJob(file.getOriginalFilename());
+            importService.processFileAsync(job, tempFile.toString(), start);  // Passing start time
 
-            return ResponseEntity.status(HttpStatus.ACCEPTED).body("File received, processing in the background...");
+            return importAccepted(job);
         } catch (Exception e) {
             logger.error("Failed to process import CSV request: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to import file");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Failed to import file"));
         }
     }
 
-    @Cacheable(value = "gameSalesCache", key = "#page + '-' + #size + '-' + #fromDate + '-' + #toDate + '-' + #salePrice + '-' + #filter")
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<Map<String, Object>> importCsvStream(HttpServletRequest request) {
+        Instant start = Instant.now();  // Record start time
+
+        try {
+            // Raw CSV body: stream the request straight onto disk, skipping multipart spooling altogether
+            Path tempFile = FileTransferUtils.copyToTempFile(request.getInputStream(), "game_sales_import_", ".csv");
+
+            ImportProgress job = importJobService.createJob(null);
+            importService.processFileAsync(job, tempFile.toString(), start);
+
+            return importAccepted(job);
+        } catch (Exception e) {
+            logger.error("Failed to process import CSV stream: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Failed to import file"));
+        }
+    }
+
+    @GetMapping("/import/{id}")
+    public ResponseEntity<Object> getImportStatus(@PathVariable String id) {
+        return importJobService.findJob(id)
+                .<ResponseEntity<Object>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Import job not found")));
+    }
+
     @GetMapping("/getGameSales")
-    public ResponseEntity<Map<String, Object>> getGameSales(
+    public ResponseEntity<?> getGameSales(
             @RequestParam(required = false) LocalDate fromDate,
             @RequestParam(required = false) LocalDate toDate,
             @RequestParam(required = false) Double salePrice,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "100") int size,
-            @RequestParam(required = false) String filter) {
+            @RequestParam(required = false) String filter,
+            @RequestParam(required = false) Integer gameNo,
+            @RequestParam(required = false) Integer type,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "offset") String mode,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
 
-        long startTime = System.currentTimeMillis();  // Start time
+        QueryKey key = QueryKey.of(GAME_SALES_QUERY, "fromDate", fromDate, "toDate", toDate, "salePrice", salePrice,
+                "page", page, "size", size, "filter", filter, "gameNo", gameNo, "type", type, "sort", sort,
+                "mode", mode, "cursor", cursor, "fields", fields);
+        return queryResponseCache.serve(key, ifNoneMatch, acceptEncoding);
+    }
 
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Game> gamePage;
-
-        if (salePrice != null && filter != null) {
-            // Handle filtering by sale price
-            if (filter.equalsIgnoreCase("greaterThan")) {
-                gamePage = gameRepository.findAllBySalePriceGreaterThan(salePrice, pageable);
-            } else if (filter.equalsIgnoreCase("lessThan")) {
-                gamePage = gameRepository.findAllBySalePriceLessThan(salePrice, pageable);
-            } else {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Invalid filter value"));
+    // Every filter given applies, combined into one query; rows come in `sort` order, or by default in
+    // the order of the index the filters use
+    private ResponseEntity<Map<String, Object>> queryGameSales(LocalDate fromDate, LocalDate toDate, Double salePrice,
+                                                               int page, int size, String filter, Integer gameNo,
+                                                               Integer type, String sort, String mode, String cursor,
+                                                               String fields) {
+        GameSalesFilter salesFilter;
+        try {
+            salesFilter = GameSalesFilter.of(fromDate, toDate, salePrice, filter, gameNo, type);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Invalid filter value"));
+        }
+        // Also keeps the cursor mode's size + 1 look-ahead from overflowing
+        if (size < 1 || size > maxPageSize) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "size must be between 1 and " + maxPageSize));
+        }
+        GameSalesCursor.Order order = sort != null ? parseSort(sort) : salesFilter.defaultOrder();
+        if (order == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Invalid sort value"));
+        }
+
+        // Without fields the rows are full entities; with them, only those columns are selected
+        List<String> fieldList = null;
+        if (fields != null) {
+            fieldList = parseFields(fields);
+            if (fieldList == null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Invalid fields value"));
             }
-        } else if (fromDate != null && toDate != null) {
-            // Handle filtering by date range
-            gamePage = gameRepository.findAllByDateOfSaleBetween(fromDate, toDate, pageable);
-        } else {
-            // Default case: return all games with pagination
-            gamePage = gameRepository.findAll(pageable);
         }
 
+        if ("cursor".equalsIgnoreCase(mode)) {
+            return getGameSalesByCursor(salesFilter, order, size, cursor, fieldList);
+        }
+        boolean withTotals = "offset".equalsIgnoreCase(mode);
+        if (!withTotals && !"slice".equalsIgnoreCase(mode)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Invalid mode value"));
+        }
+
+        Pageable pageable = PageRequest.of(page, size);
+        Slice<?> gameSlice = fieldList != null
+                ? gameRepository.findFields(fieldList, salesFilter, order, pageable)
+                : gameRepository.findSlice(salesFilter, order, pageable);
+
         // Prepare response with additional metadata
         Map<String, Object> response = new HashMap<>();
-        response.put("games", gamePage.getContent());
-        response.put("currentPage", gamePage.getNumber());
-        response.put("totalItems", gamePage.getTotalElements());
-        response.put("totalPages", gamePage.getTotalPages());
+        response.put("games", gameSlice.getContent());
+        response.put("currentPage", gameSlice.getNumber());
+        if (withTotals) {
+            // Only counted when the page alone cannot tell the total; answered from the count cache
+            Page<?> gamePage = PageableExecutionUtils.getPage(gameSlice.getContent(), pageable,
+                    () -> gameSalesCountService.count(salesFilter));
+            response.put("totalItems", gamePage.getTotalElements());
+            response.put("totalPages", gamePage.getTotalPages());
+        } else {
+            // Slice mode: no count at all, just whether another page follows
+            response.put("hasNext", gameSlice.hasNext());
+        }
+
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
 
-        logExecutionTime("Time taken for /getGameSales: {} ms", startTime);
+    // sort names the Game attribute rows are ordered by (then by id), or null if it is not one of them
+    private static GameSalesCursor.Order parseSort(String sort) {
+        return switch (sort) {
+            case "id" -> GameSalesCursor.Order.ID;
+            case "dateOfSale" -> GameSalesCursor.Order.DATE_OF_SALE;
+            case "salePrice" -> GameSalesCursor.Order.SALE_PRICE;
+            default -> null;
+        };
+    }
+
+    // Requested Game attributes without duplicates, or null if any is unknown
+    private static List<String> parseFields(String fields) {
+        List<String> fieldList = new ArrayList<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!GameRepositoryCustom.FIELDS.contains(name)) {
+                return null;
+            }
+            if (!fieldList.contains(name)) {
+                fieldList.add(name);
+            }
+        }
+        return fieldList;
+    }
+
+    // Keyset pagination: same filters and order as offset mode, but each page seeks past the previous
+    // page's last row, so page 10,000 costs the same as page 1. There is no page number or total count.
+    private ResponseEntity<Map<String, Object>> getGameSalesByCursor(GameSalesFilter salesFilter,
+                                                                     GameSalesCursor.Order order, int size,
+                                                                     String token, List<String> fieldList) {
+        // No token: the first page
+        GameSalesCursor after = null;
+        if (token != null) {
+            try {
+                after = GameSalesCursor.decode(token, order);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Invalid cursor"));
+            }
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        if (fieldList != null) {
+            GameRepositoryCustom.GameFieldsWindow window = gameRepository.findFieldsAfter(fieldList, salesFilter,
+                    order, after, size);
+            response.put("games", window.games());
+            response.put("nextCursor", window.nextCursor() != null ? window.nextCursor().encode() : null);
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        }
+
+        // One extra row tells whether another page follows
+        List<Game> games = gameRepository.findAfter(salesFilter, order, after, Limit.of(size + 1));
+
+        String nextCursor = null;
+        if (games.size() > size) {
+            games = games.subList(0, size);
+            Game last = games.get(size - 1);
+            nextCursor = switch (order) {
+                case DATE_OF_SALE -> GameSalesCursor.afterDate(last.getDateOfSale(), last.getId()).encode();
+                case SALE_PRICE -> GameSalesCursor.afterSalePrice(last.getSalePrice(), last.getId()).encode();
+                case ID -> GameSalesCursor.afterId(last.getId()).encode();
+            };
+        }
+
+        response.put("games", new ArrayList<>(games));
+        response.put("nextCursor", nextCursor);
 
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    // Streams every matching row as CSV (the import layout) or NDJSON in one chunked response, instead of
+    // paging through /getGameSales with an offset and count query per page
+    @GetMapping("/exportGameSales")
+    public ResponseEntity<StreamingResponseBody> exportGameSales(
+            @RequestParam(required = false) LocalDate fromDate,
+            @RequestParam(required = false) LocalDate toDate,
+            @RequestParam(required = false) Double salePrice,
+            @RequestParam(required = false) String filter,
+            @RequestParam(required = false) Integer gameNo,
+            @RequestParam(required = false) Integer type,
+            @RequestParam(defaultValue = "csv") String format,
+            HttpServletRequest request) {
+
+        GameSalesExportService.Format exportFormat;
+        try {
+            exportFormat = GameSalesExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return exportError("Invalid format value");
+        }
+        // A half-open date range would silently export everything
+        if ((fromDate == null) != (toDate == null)) {
+            return exportError("fromDate and toDate must be given together");
+        }
+        if (salePrice != null && !"greaterThan".equalsIgnoreCase(filter) && !"lessThan".equalsIgnoreCase(filter)) {
+            return exportError("Invalid filter value");
+        }
+
+        GameSalesFilter salesFilter = GameSalesFilter.of(fromDate, toDate, salePrice, filter, gameNo, type);
+
+        // Only this request gets the longer timeout; it applies once the handler returns and streaming starts
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportTimeout.toMillis());
+        StreamingResponseBody body = out -> gameSalesExportService.export(exportFormat, salesFilter, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"game_sales." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    // Streaming endpoints can only return a streamed body, so the usual error map is written out directly
+    private static ResponseEntity<StreamingResponseBody> exportError(String message) {
+        byte[] json = ("{\"error\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> out.write(json));
+    }
+
     @GetMapping("/getTotalSales")
-    public ResponseEntity<Object> getTotalSales(
+    public ResponseEntity<?> getTotalSales(
             @RequestParam LocalDate fromDate,
             @RequestParam LocalDate toDate,
             @RequestParam(required = false) Integer gameNo,
-            @RequestParam(defaultValue = "totalSales") String filter) {
+            @RequestParam(defaultValue = "totalSales") String filter,
+            @RequestParam(required = false) String groupBy,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
 
-        long startTime = System.currentTimeMillis();  // Start time
+        QueryKey key = QueryKey.of(TOTAL_SALES_QUERY, "fromDate", fromDate, "toDate", toDate, "gameNo", gameNo,
+                "filter", filter, "groupBy", groupBy);
+        return queryResponseCache.serve(key, ifNoneMatch, acceptEncoding);
+    }
 
+    private ResponseEntity<Object> queryTotalSales(LocalDate fromDate, LocalDate toDate, Integer gameNo, String filter,
+                                                   String groupBy) {
         Map<String, Object> result = new HashMap<>();
 
         // Check if filter is "salesCount" and gameNo is provided together
         if ("salesCount".equalsIgnoreCase(filter) && gameNo != null) {
-            logExecutionTime("Time taken for /getTotalSales: {} ms", startTime);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("error", "To get sales count, gameNo must not be included."));
         }
 
+        if (groupBy != null) {
+            // Per-game totals are only available for the whole period across all games
+            if (!"gameNo".equalsIgnoreCase(groupBy) || gameNo != null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(Map.of("error", "groupBy only supports gameNo, without a gameNo parameter."));
+            }
+            return getTotalSalesByGameNo(fromDate, toDate);
+        }
+
         // Check if the filter is "salesCount"
         if ("salesCount".equalsIgnoreCase(filter)) {
-            // Get the total games sold for the given period
-            int totalGamesSold = gameSalesAggregatedRepository
-                    .findSalesCountByDateOfSaleBetween(fromDate, toDate)
-                    .stream()
-                    .mapToInt(GameSalesAggregated::getTotalGamesSold)
-                    .sum();
+            // Get the total games sold for the given period from the rollup index, or summed by the database
+            Long totalGamesSold = salesRollupIndex.isReady()
+                    ? salesRollupIndex.sumGamesSold(fromDate, toDate)
+                    : gameSalesAggregatedRepository.sumGamesSoldByDateOfSaleBetween(fromDate, toDate);
 
             // If no data found
-            if (totalGamesSold == 0) {
-                logExecutionTime("Time taken for /getTotalSales: {} ms", startTime);
+            if (totalGamesSold == null || totalGamesSold == 0) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body("No sales count data found for the given period.");
             }
             result.put("totalGamesSold", totalGamesSold);
         } else {
-            // Get the total sales for the given period
-            double totalSales;
+            // Get the total sales for the given period from the rollup index, or summed by the database
+            Double totalSales;
 
             if (gameNo != null) {
                 // Fetch total sales for a specific game number
-                totalSales = gameSalesAggregatedRepository
-                        .findTotalSalesByDateOfSaleBetweenAndGameNo(fromDate, toDate, gameNo)
-                        .stream()
-                        .mapToDouble(GameSalesAggregated::getTotalSales)
-                        .sum();
+                totalSales = salesRollupIndex.isReady()
+                        ? salesRollupIndex.sumTotalSales(fromDate, toDate, gameNo)
+                        : gameSalesAggregatedRepository.sumTotalSalesByDateOfSaleBetweenAndGameNo(fromDate, toDate, gameNo);
             } else {
                 // Fetch total sales for all games in the given period
-                totalSales = gameSalesAggregatedRepository
-                        .findTotalSalesByDateOfSaleBetween(fromDate, toDate)
-                        .stream()
-                        .mapToDouble(GameSalesAggregated::getTotalSales)
-                        .sum();
+                totalSales = salesRollupIndex.isReady()
+                        ? salesRollupIndex.sumTotalSales(fromDate, toDate)
+                        : gameSalesAggregatedRepository.sumTotalSalesByDateOfSaleBetween(fromDate, toDate);
             }
 
             // If no data found
-            if (totalSales == 0) {
-                logExecutionTime("Time taken for /getTotalSales: {} ms", startTime);
+            if (totalSales == null || totalSales == 0) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body("No total sales data found for the given period.");
             }
 
-            BigDecimal roundedTotalSales = BigDecimal.valueOf(totalSales).setScale(2, RoundingMode.HALF_UP);
-            result.put("totalSales", roundedTotalSales.toPlainString());
+            result.put("totalSales", formatSales(totalSales));
         }
 
-        logExecutionTime("Time taken for /getTotalSales: {} ms", startTime);
-
         return ResponseEntity.ok(result);
     }
 
-    private static void logExecutionTime(String s, long startTime) {
-        long endTime = System.currentTimeMillis();  // End time
-        logger.info(s, (endTime - startTime));
+    private ResponseEntity<Object> getTotalSalesByGameNo(LocalDate fromDate, LocalDate toDate) {
+        List<GameSalesTotal> totals = salesRollupIndex.isReady()
+                ? salesRollupIndex.sumByGameNo(fromDate, toDate)
+                : gameSalesAggregatedRepository.sumByGameNo(fromDate, toDate);
+
+        // If no data found
+        if (totals.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("No total sales data found for the given period.");
+        }
+
+        List<Map<String, Object>> games = new ArrayList<>(totals.size());
+        for (GameSalesTotal total : totals) {
+            Map<String, Object> game = new HashMap<>();
+            game.put("gameNo", total.gameNo());
+            game.put("totalGamesSold", total.totalGamesSold());
+            game.put("totalSales", formatSales(total.totalSales()));
+            games.add(game);
+        }
+
+        return ResponseEntity.ok(Map.of("games", games));
+    }
+
+    @GetMapping("/getSalesSeries")
+    public ResponseEntity<?> getSalesSeries(
+            @RequestParam LocalDate fromDate,
+            @RequestParam LocalDate toDate,
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(required = false) String groupBy,
+            @RequestParam(required = false) Integer gameNo,
+            @RequestParam(required = false) Integer type,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        QueryKey key = QueryKey.of(SALES_SERIES_QUERY, "fromDate", fromDate, "toDate", toDate,
+                "granularity", granularity, "groupBy", groupBy, "gameNo", gameNo, "type", type);
+        return queryResponseCache.serve(key, ifNoneMatch, acceptEncoding);
+    }
+
+    // Games sold and sales per day, week or month over the whole period, for all games, split by gameNo
+    // or type, or for one gameNo or type. Every bucket is listed, with zeros where nothing was sold.
+    private ResponseEntity<Object> querySalesSeries(LocalDate fromDate, LocalDate toDate, String granularity,
+                                                    String groupBy, Integer gameNo, Integer type) {
+        GameSalesRollup.Granularity bucketGranularity = parseGranularity(granularity);
+        if (bucketGranularity == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Invalid granularity value"));
+        }
+        if ((groupBy != null ? 1 : 0) + (gameNo != null ? 1 : 0) + (type != null ? 1 : 0) > 1) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Only one of groupBy, gameNo and type can be given"));
+        }
+        if (fromDate.isAfter(toDate)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "fromDate must not be after toDate"));
+        }
+
+        GameSalesRollup.Dimension dimension = GameSalesRollup.Dimension.ALL;
+        Integer value = null;
+        if (groupBy != null) {
+            dimension = parseGroupBy(groupBy);
+            if (dimension == null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Invalid groupBy value"));
+            }
+        } else if (gameNo != null) {
+            dimension = GameSalesRollup.Dimension.GAME_NO;
+            value = gameNo;
+        } else if (type != null) {
+            dimension = GameSalesRollup.Dimension.TYPE;
+            value = type;
+        }
+
+        List<SalesSeriesService.Series> series;
+        try {
+            series = salesSeriesService.series(fromDate, toDate, bucketGranularity, dimension, value);
+        } catch (SalesSeriesService.TooManyPointsException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+        }
+
+        // If no data found
+        if (series.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No sales data found for the given period.");
+        }
+
+        String seriesKey = dimension == GameSalesRollup.Dimension.GAME_NO ? "gameNo"
+                : dimension == GameSalesRollup.Dimension.TYPE ? "type" : null;
+        List<Map<String, Object>> seriesList = new ArrayList<>(series.size());
+        for (SalesSeriesService.Series line : series) {
+            List<Map<String, Object>> points = new ArrayList<>(line.points().size());
+            for (SalesSeriesService.Point point : line.points()) {
+                Map<String, Object> entry = new HashMap<>();
+                entry.put("bucketStart", point.bucketStart());
+                entry.put("totalGamesSold", point.totalGamesSold());
+                entry.put("totalSales", formatSales(point.totalSales()));
+                points.add(entry);
+            }
+            Map<String, Object> entry = new HashMap<>();
+            if (seriesKey != null) {
+                entry.put(seriesKey, line.value());
+            }
+            entry.put("points", points);
+            seriesList.add(entry);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("fromDate", fromDate);
+        response.put("toDate", toDate);
+        response.put("granularity", bucketGranularity.name().toLowerCase());
+        if (groupBy != null) {
+            response.put("groupBy", seriesKey);
+        }
+        response.put("series", seriesList);
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/getTopGames")
+    public ResponseEntity<?> getTopGames(
+            @RequestParam LocalDate fromDate,
+            @RequestParam LocalDate toDate,
+            @RequestParam(defaultValue = "revenue") String by,
+            @RequestParam(required = false) Integer k,
+            @RequestParam(defaultValue = "true") boolean ties,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        QueryKey key = QueryKey.of(TOP_GAMES_QUERY, "fromDate", fromDate, "toDate", toDate, "by", by, "k", k,
+                "ties", ties);
+        return queryResponseCache.serve(key, ifNoneMatch, acceptEncoding);
+    }
+
+    // The k games with the highest revenue or units in the period, best first; with ties, every game
+    // tied with the k-th is included too
+    private ResponseEntity<Object> queryTopGames(LocalDate fromDate, LocalDate toDate, String by, Integer k,
+                                                 boolean ties) {
+        TopGamesSelector.Metric metric;
+        if ("revenue".equalsIgnoreCase(by)) {
+            metric = TopGamesSelector.Metric.REVENUE;
+        } else if ("units".equalsIgnoreCase(by)) {
+            metric = TopGamesSelector.Metric.UNITS;
+        } else {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Invalid by value"));
+        }
+
+        List<TopGamesService.RankedGame> top;
+        try {
+            top = topGamesService.top(fromDate, toDate, metric, k, ties);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+        }
+
+        // If no data found
+        if (top.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("No total sales data found for the given period.");
+        }
+
+        List<Map<String, Object>> games = new ArrayList<>(top.size());
+        for (TopGamesService.RankedGame ranked : top) {
+            Map<String, Object> game = new HashMap<>();
+            game.put("rank", ranked.rank());
+            game.put("gameNo", ranked.total().gameNo());
+            game.put("totalGamesSold", ranked.total().totalGamesSold());
+            game.put("totalSales", formatSales(ranked.total().totalSales()));
+            games.add(game);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("fromDate", fromDate);
+        response.put("toDate", toDate);
+        response.put("by", metric.name().toLowerCase());
+        response.put("games", games);
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/getPriceDistribution")
+    public ResponseEntity<?> getPriceDistribution(
+            @RequestParam LocalDate fromDate,
+            @RequestParam LocalDate toDate,
+            @RequestParam(required = false) Integer gameNo,
+            @RequestParam(defaultValue = "0.5,0.9,0.99") String quantiles,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        QueryKey key = QueryKey.of(PRICE_DISTRIBUTION_QUERY, "fromDate", fromDate, "toDate", toDate, "gameNo", gameNo,
+                "quantiles", quantiles);
+        return queryResponseCache.serve(key, ifNoneMatch, acceptEncoding);
+    }
+
+    // Sale-price quantiles and histogram of the period, for all games or one gameNo, merged from the
+    // per-day and per-month sketches. Quantiles are within PriceSketch.RELATIVE_ERROR of the exact price;
+    // count, min, max, mean and the histogram are exact.
+    private ResponseEntity<Object> queryPriceDistribution(LocalDate fromDate, LocalDate toDate, Integer gameNo,
+                                                          String quantiles) {
+        double[] quantileList = parseQuantiles(quantiles);
+        if (quantileList == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Invalid quantiles value"));
+        }
+        if (fromDate.isAfter(toDate)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "fromDate must not be after toDate"));
+        }
+
+        PriceSketch sketch = priceDistributionService.distribution(fromDate, toDate, gameNo);
+
+        // If no data found
+        if (sketch.getCount() == 0) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No sales data found for the given period.");
+        }
+
+        List<Map<String, Object>> quantileValues = new ArrayList<>(quantileList.length);
+        for (double quantile : quantileList) {
+            Map<String, Object> value = new HashMap<>();
+            value.put("quantile", quantile);
+            value.put("salePrice", formatSales(sketch.quantileCents(quantile) / 100.0));
+            quantileValues.add(value);
+        }
+        long[] counts = sketch.getHistogram();
+        List<Map<String, Object>> histogram = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            Map<String, Object> bucket = new HashMap<>();
+            bucket.put("from", formatSales(PriceSketch.HISTOGRAM_EDGES[i] / 100.0));
+            // The last bucket is open-ended
+            bucket.put("to", i + 1 < counts.length ? formatSales(PriceSketch.HISTOGRAM_EDGES[i + 1] / 100.0) : null);
+            bucket.put("count", counts[i]);
+            histogram.add(bucket);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("fromDate", fromDate);
+        response.put("toDate", toDate);
+        if (gameNo != null) {
+            response.put("gameNo", gameNo);
+        }
+        response.put("count", sketch.getCount());
+        response.put("min", formatSales(sketch.getMinCents() / 100.0));
+        response.put("max", formatSales(sketch.getMaxCents() / 100.0));
+        response.put("mean", formatSales(sketch.getSumCents() / 100.0 / sketch.getCount()));
+        response.put("quantiles", quantileValues);
+        response.put("relativeError", PriceSketch.RELATIVE_ERROR);
+        response.put("histogram", histogram);
+
+        return ResponseEntity.ok(response);
+    }
+
+    // Comma-separated quantiles within [0, 1], or null if any is not
+    private static double[] parseQuantiles(String quantiles) {
+        String[] parts = quantiles.split(",");
+        double[] values = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            try {
+                values[i] = Double.parseDouble(parts[i].trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (!(values[i] >= 0 && values[i] <= 1)) {
+                return null;
+            }
+        }
+        return values;
+    }
+
+    // Filter types of the query timers, from a fixed set so request values never become metric tags:
+    // the /getGameSales filters given, joined with "+", or "none"
+    private static String gameSalesFilterType(QueryKey key) {
+        List<String> filters = new ArrayList<>(4);
+        if (key.get("fromDate") != null || key.get("toDate") != null) {
+            filters.add("date");
+        }
+        if (key.get("salePrice") != null) {
+            filters.add("salePrice");
+        }
+        if (key.get("gameNo") != null) {
+            filters.add("gameNo");
+        }
+        if (key.get("type") != null) {
+            filters.add("type");
+        }
+        return filters.isEmpty() ? "none" : String.join("+", filters);
+    }
+
+    // totalSales or salesCount, "+gameNo" for one game and "+groupBy" for per-game totals
+    private static String totalSalesFilterType(QueryKey key) {
+        String filter = key.get("filter");
+        String type = "salesCount".equalsIgnoreCase(filter) ? "salesCount"
+                : "totalSales".equalsIgnoreCase(filter) ? "totalSales" : "invalid";
+        return type + (key.get("gameNo") != null ? "+gameNo" : "") + (key.get("groupBy") != null ? "+groupBy" : "");
+    }
+
+    // Granularity and split, e.g. day, month+gameNo
+    private static String salesSeriesFilterType(QueryKey key) {
+        GameSalesRollup.Granularity granularity = key.get("granularity") != null
+                ? parseGranularity(key.get("granularity")) : null;
+        String type = granularity != null ? granularity.name().toLowerCase() : "invalid";
+        if (key.get("groupBy") != null) {
+            GameSalesRollup.Dimension dimension = parseGroupBy(key.get("groupBy"));
+            return type + "+" + (dimension == GameSalesRollup.Dimension.GAME_NO ? "gameNo"
+                    : dimension == GameSalesRollup.Dimension.TYPE ? "type" : "invalid");
+        }
+        return type;
+    }
+
+    private static String topGamesFilterType(QueryKey key) {
+        String by = key.get("by");
+        return "revenue".equalsIgnoreCase(by) ? "revenue" : "units".equalsIgnoreCase(by) ? "units" : "invalid";
+    }
+
+    private static GameSalesRollup.Granularity parseGranularity(String granularity) {
+        return switch (granularity.toLowerCase()) {
+            case "day" -> GameSalesRollup.Granularity.DAY;
+            case "week" -> GameSalesRollup.Granularity.WEEK;
+            case "month" -> GameSalesRollup.Granularity.MONTH;
+            default -> null;
+        };
+    }
+
+    private static GameSalesRollup.Dimension parseGroupBy(String groupBy) {
+        if ("gameNo".equalsIgnoreCase(groupBy)) {
+            return GameSalesRollup.Dimension.GAME_NO;
+        }
+        return "type".equalsIgnoreCase(groupBy) ? GameSalesRollup.Dimension.TYPE : null;
+    }
+
+    private static String formatSales(double totalSales) {
+        return BigDecimal.valueOf(totalSales).setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    private static ResponseEntity<Map<String, Object>> importAccepted(ImportProgress job) {
+        String statusUrl = "/api/import/" + job.getId();
+        Map<String, Object> response = new HashMap<>();
+        response.put("jobId", job.getId());
+        response.put("status", job.getStatus());
+        response.put("statusUrl", statusUrl);
+        response.put("message", "File received, processing in the background...");
+        return ResponseEntity.status(HttpStatus.ACCEPTED).header(HttpHeaders.LOCATION, statusUrl).body(response);
     }
 }
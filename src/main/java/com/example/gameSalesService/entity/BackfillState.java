@@ -0,0 +1,35 @@
+package com.example.gameSalesService.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+// One row per read-side table that has been rebuilt from game_sales; a table without a row is rebuilt
+// from scratch at the next startup
+@Entity
+@Table(name = "backfill_state")
+public class BackfillState {
+
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+
+    @Column(name = "completed_at", nullable = false)
+    private Instant completedAt;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(Instant completedAt) {
+        this.completedAt = completedAt;
+    }
+}
@@ -5,9 +5,16 @@ import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
+// The id column makes each index match the keyset order of /getGameSales cursor pages. InnoDB appends
+// the primary key to secondary indexes anyway, so on MySQL these are the same indexes as before.
+// idx_date_price checks a price bound inside a date range without reading the rows, and idx_game_no_date
+// serves one game's sales, with or without a date range, already in (date_of_sale, id) order. type has
+// two values, so it never leads an index; it is checked on the rows the other columns select.
 @Table(name = "game_sales", indexes = {
-        @Index(name = "idx_date_of_sale", columnList = "date_of_sale"),
-        @Index(name = "idx_sale_price", columnList = "sale_price")
+        @Index(name = "idx_date_of_sale", columnList = "date_of_sale, id"),
+        @Index(name = "idx_sale_price", columnList = "sale_price, id"),
+        @Index(name = "idx_date_price", columnList = "date_of_sale, sale_price"),
+        @Index(name = "idx_game_no_date", columnList = "game_no, date_of_sale, id")
 })
 public class Game {
 
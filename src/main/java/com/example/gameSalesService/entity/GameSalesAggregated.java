@@ -4,9 +4,12 @@ import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "game_sales_aggregated", indexes = {
-        @Index(name = "idx_date_of_sale", columnList = "date_of_sale"),
-        @Index(name = "idx_game_no", columnList = "game_no")
+// One row per (date_of_sale, game_no); imports add onto existing rows. The unique key also serves
+// date range lookups, so date_of_sale needs no index of its own.
+@Table(name = "game_sales_aggregated", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_aggregated_date_game", columnNames = {"date_of_sale", "game_no"})
+}, indexes = {
+        @Index(name = "idx_aggregated_game_no", columnList = "game_no")
 })
 public class GameSalesAggregated {
 
@@ -24,7 +27,7 @@ public class GameSalesAggregated {
     @Column(name = "total_sales", nullable = false)
     private Double totalSales;
 
-    @Column(name = "game_no", nullable = true)
+    @Column(name = "game_no", nullable = false)
     private Integer gameNo;
 
     // Getters and Setters
@@ -0,0 +1,78 @@
+package com.example.gameSalesService.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+@Entity
+// Sale-price distribution (PriceSketch.toBytes()) of one day or calendar month, per game_no or, with
+// game_no 0, across all games. Sketches cannot be added together in SQL, so every import appends its own
+// rows and readers merge all rows of a bucket, like they merge the buckets of a period.
+@Table(name = "game_sales_price_sketch", indexes = {
+        @Index(name = "idx_price_sketch_bucket", columnList = "granularity, game_no, bucket_start")
+})
+public class GameSalesPriceSketch {
+
+    // The sales of every game_no; real game numbers start at 1
+    public static final int ALL_GAMES = 0;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    // DAY or MONTH
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", length = 5, nullable = false)
+    private GameSalesRollup.Granularity granularity;
+
+    @Column(name = "game_no", nullable = false)
+    private Integer gameNo;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDate bucketStart;
+
+    @Column(name = "sketch", nullable = false, length = 1048576)
+    private byte[] sketch;
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public GameSalesRollup.Granularity getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(GameSalesRollup.Granularity granularity) {
+        this.granularity = granularity;
+    }
+
+    public Integer getGameNo() {
+        return gameNo;
+    }
+
+    public void setGameNo(Integer gameNo) {
+        this.gameNo = gameNo;
+    }
+
+    public LocalDate getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDate bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public byte[] getSketch() {
+        return sketch;
+    }
+
+    public void setSketch(byte[] sketch) {
+        this.sketch = sketch;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.gameSalesService.entity;
+
+import jakarta.persistence.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+@Entity
+// Sales totals per time bucket (day, ISO week starting Monday, or calendar month), overall and per value
+// of one dimension (game_no or type). Imports add onto existing rows, like game_sales_aggregated. The
+// unique key serves one series over a period; idx_rollup_bucket serves every value of a dimension at once.
+@Table(name = "game_sales_rollup", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_rollup_bucket", columnNames = {"granularity", "dimension", "dimension_value", "bucket_start"})
+}, indexes = {
+        @Index(name = "idx_rollup_bucket", columnList = "granularity, dimension, bucket_start")
+})
+public class GameSalesRollup {
+
+    public enum Granularity {
+        DAY, WEEK, MONTH;
+
+        // First day of the bucket holding `date`
+        public LocalDate bucketStart(LocalDate date) {
+            return switch (this) {
+                case DAY -> date;
+                case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> date.withDayOfMonth(1);
+            };
+        }
+
+        // First day of the bucket after the one starting at `bucketStart`
+        public LocalDate nextBucket(LocalDate bucketStart) {
+            return switch (this) {
+                case DAY -> bucketStart.plusDays(1);
+                case WEEK -> bucketStart.plusWeeks(1);
+                case MONTH -> bucketStart.plusMonths(1);
+            };
+        }
+    }
+
+    // ALL rows carry dimension_value 0
+    public enum Dimension {
+        ALL, GAME_NO, TYPE
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", length = 5, nullable = false)
+    private Granularity granularity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dimension", length = 7, nullable = false)
+    private Dimension dimension;
+
+    @Column(name = "dimension_value", nullable = false)
+    private Integer dimensionValue;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDate bucketStart;
+
+    @Column(name = "total_games_sold", nullable = false)
+    private Long totalGamesSold;
+
+    @Column(name = "total_sales", nullable = false)
+    private Double totalSales;
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Granularity getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(Granularity granularity) {
+        this.granularity = granularity;
+    }
+
+    public Dimension getDimension() {
+        return dimension;
+    }
+
+    public void setDimension(Dimension dimension) {
+        this.dimension = dimension;
+    }
+
+    public Integer getDimensionValue() {
+        return dimensionValue;
+    }
+
+    public void setDimensionValue(Integer dimensionValue) {
+        this.dimensionValue = dimensionValue;
+    }
+
+    public LocalDate getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDate bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public Long getTotalGamesSold() {
+        return totalGamesSold;
+    }
+
+    public void setTotalGamesSold(Long totalGamesSold) {
+        this.totalGamesSold = totalGamesSold;
+    }
+
+    public Double getTotalSales() {
+        return totalSales;
+    }
+
+    public void setTotalSales(Double totalSales) {
+        this.totalSales = totalSales;
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.gameSalesService.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "import_job")
+public class ImportJob {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, COMPLETED_WITH_ERRORS, FAILED
+    }
+
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 24, nullable = false)
+    private Status status;
+
+    @Column(name = "rows_parsed", nullable = false)
+    private long rowsParsed;
+
+    @Column(name = "rows_persisted", nullable = false)
+    private long rowsPersisted;
+
+    @Column(name = "malformed_rows", nullable = false)
+    private long malformedRows;
+
+    @Column(name = "failed_batches", nullable = false)
+    private long failedBatches;
+
+    @Column(name = "failed_rows", nullable = false)
+    private long failedRows;
+
+    @Column(name = "rows_per_second", nullable = false)
+    private double rowsPerSecond;
+
+    @Column(name = "parse_millis")
+    private Long parseMillis;
+
+    @Column(name = "persist_millis")
+    private Long persistMillis;
+
+    @Column(name = "aggregate_millis")
+    private Long aggregateMillis;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public long getRowsParsed() {
+        return rowsParsed;
+    }
+
+    public void setRowsParsed(long rowsParsed) {
+        this.rowsParsed = rowsParsed;
+    }
+
+    public long getRowsPersisted() {
+        return rowsPersisted;
+    }
+
+    public void setRowsPersisted(long rowsPersisted) {
+        this.rowsPersisted = rowsPersisted;
+    }
+
+    public long getMalformedRows() {
+        return malformedRows;
+    }
+
+    public void setMalformedRows(long malformedRows) {
+        this.malformedRows = malformedRows;
+    }
+
+    public long getFailedBatches() {
+        return failedBatches;
+    }
+
+    public void setFailedBatches(long failedBatches) {
+        this.failedBatches = failedBatches;
+    }
+
+    public long getFailedRows() {
+        return failedRows;
+    }
+
+    public void setFailedRows(long failedRows) {
+        this.failedRows = failedRows;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public Long getParseMillis() {
+        return parseMillis;
+    }
+
+    public void setParseMillis(Long parseMillis) {
+        this.parseMillis = parseMillis;
+    }
+
+    public Long getPersistMillis() {
+        return persistMillis;
+    }
+
+    public void setPersistMillis(Long persistMillis) {
+        this.persistMillis = persistMillis;
+    }
+
+    public Long getAggregateMillis() {
+        return aggregateMillis;
+    }
+
+    public void setAggregateMillis(Long aggregateMillis) {
+        this.aggregateMillis = aggregateMillis;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.gameSalesService.repository;
+
+import com.example.gameSalesService.entity.BackfillState;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BackfillStateRepository extends CrudRepository<BackfillState, String> {
+}
@@ -0,0 +1,41 @@
+package com.example.gameSalesService.repository;
+
+import com.example.gameSalesService.entity.Game;
+import com.example.gameSalesService.util.GameSalesCursor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.Map;
+
+// The one query path behind /getGameSales: any combination of GameSalesFilter parts, in any of the
+// cursor orders, as offset slices or keyset pages, of whole entities or of a caller-chosen subset of
+// attributes. Projections select only those columns, and rows come back as attribute -> value maps
+// rather than managed entities.
+public interface GameRepositoryCustom {
+
+    // Attributes a projection can select, in the order of the Game columns
+    List<String> FIELDS = List.of("id", "gameNo", "gameName", "gameCode", "type", "costPrice", "tax", "salePrice", "dateOfSale");
+
+    // Slices fetch one extra row to tell whether a next page exists, and never run a count query;
+    // totals, when wanted, come from countMatching through GameSalesCountService
+    Slice<Game> findSlice(GameSalesFilter filter, GameSalesCursor.Order order, Pageable pageable);
+
+    Slice<Map<String, Object>> findFields(List<String> fields, GameSalesFilter filter, GameSalesCursor.Order order,
+                                          Pageable pageable);
+
+    // Keyset (seek) pages: each starts right after the last (sort key, id) already returned, or at the
+    // beginning when `after` is null, so the database walks the index from there instead of skipping
+    // OFFSET rows. The cursor, when given, must be in `order`.
+    List<Game> findAfter(GameSalesFilter filter, GameSalesCursor.Order order, GameSalesCursor after, Limit limit);
+
+    // At most `limit` rows, and the cursor of the next page when more follow
+    GameFieldsWindow findFieldsAfter(List<String> fields, GameSalesFilter filter, GameSalesCursor.Order order,
+                                     GameSalesCursor after, int limit);
+
+    long countMatching(GameSalesFilter filter);
+
+    record GameFieldsWindow(List<Map<String, Object>> games, GameSalesCursor nextCursor) {
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.gameSalesService.repository;
+
+import com.example.gameSalesService.entity.Game;
+import com.example.gameSalesService.util.GameSalesCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Criteria queries built from the filter's specification plus, for keyset pages, the seek past the
+// cursor. Projections are tuple queries whose select list holds exactly the requested attributes (plus
+// the keyset columns in cursor mode); tuples are plain values that Hibernate neither hydrates into
+// entities nor tracks in the persistence context.
+public class GameRepositoryCustomImpl implements GameRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    public GameRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Slice<Game> findSlice(GameSalesFilter filter, GameSalesCursor.Order order, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Game> query = cb.createQuery(Game.class);
+        Root<Game> game = query.from(Game.class);
+        query.select(game).orderBy(orderBy(cb, game, order));
+        where(query, game, cb, filter, null);
+
+        List<Game> rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        return toSlice(rows, pageable);
+    }
+
+    @Override
+    public Slice<Map<String, Object>> findFields(List<String> fields, GameSalesFilter filter, GameSalesCursor.Order order,
+                                                 Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Game> game = query.from(Game.class);
+        query.multiselect(select(game, fields)).orderBy(orderBy(cb, game, order));
+        where(query, game, cb, filter, null);
+
+        List<Tuple> rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        return toSlice(toMaps(rows, fields), pageable);
+    }
+
+    @Override
+    public List<Game> findAfter(GameSalesFilter filter, GameSalesCursor.Order order, GameSalesCursor after, Limit limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Game> query = cb.createQuery(Game.class);
+        Root<Game> game = query.from(Game.class);
+        query.select(game).orderBy(orderBy(cb, game, order));
+        where(query, game, cb, filter, after);
+
+        return entityManager.createQuery(query).setMaxResults(limit.max()).getResultList();
+    }
+
+    @Override
+    public GameFieldsWindow findFieldsAfter(List<String> fields, GameSalesFilter filter, GameSalesCursor.Order order,
+                                            GameSalesCursor after, int limit) {
+        // The next cursor is built from the last row's sort key and id, requested or not
+        Set<String> selected = new LinkedHashSet<>(fields);
+        selected.add(sortKey(order));
+        selected.add("id");
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Game> game = query.from(Game.class);
+        query.multiselect(select(game, selected)).orderBy(orderBy(cb, game, order));
+        where(query, game, cb, filter, after);
+
+        List<Tuple> rows = entityManager.createQuery(query).setMaxResults(limit + 1).getResultList();
+        GameSalesCursor nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            Tuple last = rows.get(limit - 1);
+            long lastId = last.get("id", Long.class);
+            nextCursor = switch (order) {
+                case DATE_OF_SALE -> GameSalesCursor.afterDate(last.get("dateOfSale", LocalDate.class), lastId);
+                case SALE_PRICE -> GameSalesCursor.afterSalePrice(last.get("salePrice", Double.class), lastId);
+                case ID -> GameSalesCursor.afterId(lastId);
+            };
+        }
+        return new GameFieldsWindow(toMaps(rows, fields), nextCursor);
+    }
+
+    @Override
+    public long countMatching(GameSalesFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Game> game = query.from(Game.class);
+        query.select(cb.count(game));
+        where(query, game, cb, filter, null);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static void where(CriteriaQuery<?> query, Root<Game> game, CriteriaBuilder cb, GameSalesFilter filter,
+                              GameSalesCursor after) {
+        Specification<Game> specification = filter.toSpecification();
+        if (after != null) {
+            specification = specification.and(GameSpecifications.after(after));
+        }
+        Predicate predicate = specification.toPredicate(game, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+
+    // Sort key, then id to break ties, matching the column order of the indexes on Game
+    private static List<jakarta.persistence.criteria.Order> orderBy(CriteriaBuilder cb, Root<Game> game,
+                                                                   GameSalesCursor.Order order) {
+        Path<Long> id = game.get("id");
+        return order == GameSalesCursor.Order.ID
+                ? List.of(cb.asc(id))
+                : List.of(cb.asc(game.get(sortKey(order))), cb.asc(id));
+    }
+
+    private static String sortKey(GameSalesCursor.Order order) {
+        return switch (order) {
+            case DATE_OF_SALE -> "dateOfSale";
+            case SALE_PRICE -> "salePrice";
+            case ID -> "id";
+        };
+    }
+
+    private static List<Selection<?>> select(Root<Game> game, Iterable<String> fields) {
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String field : fields) {
+            selections.add(game.get(field).alias(field));
+        }
+        return selections;
+    }
+
+    // One extra row was fetched to tell whether a next page exists
+    private static <T> Slice<T> toSlice(List<T> rows, Pageable pageable) {
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    private static List<Map<String, Object>> toMaps(List<Tuple> rows, List<String> fields) {
+        List<Map<String, Object>> maps = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            for (String field : fields) {
+                map.put(field, row.get(field));
+            }
+            maps.add(map);
+        }
+        return maps;
+    }
+}
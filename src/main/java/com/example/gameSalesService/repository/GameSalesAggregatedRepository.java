@@ -1,21 +1,43 @@
 package com.example.gameSalesService.repository;
 
 import com.example.gameSalesService.entity.GameSalesAggregated;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
 
+// Totals are summed by the database, so each query returns a single row (or one per game) instead of
+// every aggregated row in the period. SUM is null when no rows match.
 @Repository
 public interface GameSalesAggregatedRepository extends CrudRepository<GameSalesAggregated, Long> {
 
-    // Fetches the sales count for a given period.
-    List<GameSalesAggregated> findSalesCountByDateOfSaleBetween(LocalDate fromDate, LocalDate toDate);
+    // Sums the games sold in a given period.
+    @Query("SELECT SUM(a.totalGamesSold) FROM GameSalesAggregated a WHERE a.dateOfSale BETWEEN :fromDate AND :toDate")
+    Long sumGamesSoldByDateOfSaleBetween(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
 
-    // Fetches the aggregated total sales for a given period.
-    List<GameSalesAggregated> findTotalSalesByDateOfSaleBetween(LocalDate fromDate, LocalDate toDate);
+    // Sums the total sales for a given period.
+    @Query("SELECT SUM(a.totalSales) FROM GameSalesAggregated a WHERE a.dateOfSale BETWEEN :fromDate AND :toDate")
+    Double sumTotalSalesByDateOfSaleBetween(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
 
-    // Fetches the aggregated total sales for a specific game_no for a given period.
-    List<GameSalesAggregated> findTotalSalesByDateOfSaleBetweenAndGameNo(LocalDate fromDate, LocalDate toDate, Integer gameNo);
+    // Sums the total sales of a specific game_no for a given period.
+    @Query("SELECT SUM(a.totalSales) FROM GameSalesAggregated a "
+            + "WHERE a.dateOfSale BETWEEN :fromDate AND :toDate AND a.gameNo = :gameNo")
+    Double sumTotalSalesByDateOfSaleBetweenAndGameNo(@Param("fromDate") LocalDate fromDate,
+                                                     @Param("toDate") LocalDate toDate,
+                                                     @Param("gameNo") Integer gameNo);
+
+    // Sums games sold and total sales per game_no for a given period.
+    @Query("SELECT new com.example.gameSalesService.repository.GameSalesTotal(a.gameNo, SUM(a.totalGamesSold), SUM(a.totalSales)) "
+            + "FROM GameSalesAggregated a WHERE a.dateOfSale BETWEEN :fromDate AND :toDate "
+            + "GROUP BY a.gameNo ORDER BY a.gameNo")
+    List<GameSalesTotal> sumByGameNo(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    // Counts (date_of_sale, game_no) keys with more than one row; uk_aggregated_date_game rules them out,
+    // but tables from before it was added may have some.
+    @Query(value = "SELECT COUNT(*) FROM (SELECT date_of_sale, game_no FROM game_sales_aggregated "
+            + "GROUP BY date_of_sale, game_no HAVING COUNT(*) > 1) duplicates", nativeQuery = true)
+    long countDuplicateKeys();
 }
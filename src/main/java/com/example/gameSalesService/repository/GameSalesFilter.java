@@ -0,0 +1,79 @@
+package com.example.gameSalesService.repository;
+
+import com.example.gameSalesService.entity.Game;
+import com.example.gameSalesService.util.GameSalesCursor;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// The /getGameSales filters as one value. Every part that is set narrows the result, in any combination:
+// the date range (when both dates are given), a lower and/or upper sale price bound (both exclusive),
+// the game number and the type. Being a record, a filter is also the key of its cached count.
+public record GameSalesFilter(LocalDate fromDate, LocalDate toDate, Double salePriceAbove, Double salePriceBelow,
+                              Integer gameNo, Integer type) {
+
+    public static final GameSalesFilter NONE = new GameSalesFilter(null, null, null, null, null, null);
+
+    // Filter from request parameters: salePrice is a bound only together with filter=greaterThan|lessThan.
+    // Throws IllegalArgumentException for any other filter value.
+    public static GameSalesFilter of(LocalDate fromDate, LocalDate toDate, Double salePrice, String filter,
+                                     Integer gameNo, Integer type) {
+        Double above = null;
+        Double below = null;
+        if (salePrice != null && filter != null) {
+            if (filter.equalsIgnoreCase("greaterThan")) {
+                above = salePrice;
+            } else if (filter.equalsIgnoreCase("lessThan")) {
+                below = salePrice;
+            } else {
+                throw new IllegalArgumentException("Invalid filter value: " + filter);
+            }
+        }
+        return new GameSalesFilter(fromDate, toDate, above, below, gameNo, type);
+    }
+
+    public boolean hasDateRange() {
+        return fromDate != null && toDate != null;
+    }
+
+    public boolean hasPriceBound() {
+        return salePriceAbove != null || salePriceBelow != null;
+    }
+
+    // The order an index on the filtered columns already returns rows in: (date_of_sale, id) through
+    // idx_date_of_sale or idx_game_no_date, (sale_price, id) through idx_sale_price, otherwise the primary
+    // key. Pages in that order never sort the matching rows. idx_date_price is not among them: within a
+    // date it runs in sale_price order. A date range with a price bound is counted through idx_date_price,
+    // but its pages need idx_date_of_sale, checking the price on each row, to come without a sort.
+    public GameSalesCursor.Order defaultOrder() {
+        if (hasDateRange() || gameNo != null) {
+            return GameSalesCursor.Order.DATE_OF_SALE;
+        }
+        if (hasPriceBound()) {
+            return GameSalesCursor.Order.SALE_PRICE;
+        }
+        return GameSalesCursor.Order.ID;
+    }
+
+    public Specification<Game> toSpecification() {
+        List<Specification<Game>> specifications = new ArrayList<>();
+        if (hasDateRange()) {
+            specifications.add(GameSpecifications.dateOfSaleBetween(fromDate, toDate));
+        }
+        if (salePriceAbove != null) {
+            specifications.add(GameSpecifications.salePriceGreaterThan(salePriceAbove));
+        }
+        if (salePriceBelow != null) {
+            specifications.add(GameSpecifications.salePriceLessThan(salePriceBelow));
+        }
+        if (gameNo != null) {
+            specifications.add(GameSpecifications.gameNo(gameNo));
+        }
+        if (type != null) {
+            specifications.add(GameSpecifications.type(type));
+        }
+        return Specification.allOf(specifications);
+    }
+}
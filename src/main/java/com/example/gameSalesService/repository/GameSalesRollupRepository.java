@@ -0,0 +1,35 @@
+package com.example.gameSalesService.repository;
+
+import com.example.gameSalesService.entity.GameSalesRollup;
+import com.example.gameSalesService.entity.GameSalesRollup.Dimension;
+import com.example.gameSalesService.entity.GameSalesRollup.Granularity;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Rollup buckets starting within a period, ordered as series: by dimension value, then bucket start
+@Repository
+public interface GameSalesRollupRepository extends CrudRepository<GameSalesRollup, Long> {
+
+    // Every value of a dimension (ALL has only one), read through idx_rollup_bucket
+    @Query("SELECT r FROM GameSalesRollup r WHERE r.granularity = :granularity AND r.dimension = :dimension "
+            + "AND r.bucketStart BETWEEN :fromDate AND :toDate ORDER BY r.dimensionValue, r.bucketStart")
+    List<GameSalesRollup> findBuckets(@Param("granularity") Granularity granularity,
+                                      @Param("dimension") Dimension dimension,
+                                      @Param("fromDate") LocalDate fromDate,
+                                      @Param("toDate") LocalDate toDate);
+
+    // One value of a dimension, read through uk_rollup_bucket
+    @Query("SELECT r FROM GameSalesRollup r WHERE r.granularity = :granularity AND r.dimension = :dimension "
+            + "AND r.dimensionValue = :dimensionValue AND r.bucketStart BETWEEN :fromDate AND :toDate "
+            + "ORDER BY r.bucketStart")
+    List<GameSalesRollup> findBuckets(@Param("granularity") Granularity granularity,
+                                      @Param("dimension") Dimension dimension,
+                                      @Param("dimensionValue") Integer dimensionValue,
+                                      @Param("fromDate") LocalDate fromDate,
+                                      @Param("toDate") LocalDate toDate);
+}
@@ -0,0 +1,5 @@
+package com.example.gameSalesService.repository;
+
+// Games sold and sales summed over a period for one game_no
+public record GameSalesTotal(Integer gameNo, Long totalGamesSold, Double totalSales) {
+}
@@ -0,0 +1,58 @@
+package com.example.gameSalesService.repository;
+
+import com.example.gameSalesService.entity.Game;
+import com.example.gameSalesService.util.GameSalesCursor;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+// Predicates over Game that GameSalesFilter and the keyset pages are composed from
+public final class GameSpecifications {
+
+    private GameSpecifications() {
+    }
+
+    public static Specification<Game> dateOfSaleBetween(LocalDate fromDate, LocalDate toDate) {
+        return (game, query, cb) -> cb.between(game.get("dateOfSale"), fromDate, toDate);
+    }
+
+    public static Specification<Game> salePriceGreaterThan(double salePrice) {
+        return (game, query, cb) -> cb.greaterThan(game.get("salePrice"), salePrice);
+    }
+
+    public static Specification<Game> salePriceLessThan(double salePrice) {
+        return (game, query, cb) -> cb.lessThan(game.get("salePrice"), salePrice);
+    }
+
+    public static Specification<Game> gameNo(int gameNo) {
+        return (game, query, cb) -> cb.equal(game.get("gameNo"), gameNo);
+    }
+
+    public static Specification<Game> type(int type) {
+        return (game, query, cb) -> cb.equal(game.get("type"), type);
+    }
+
+    // Rows after the cursor's (sort key, id) in its order. The redundant `key >= after` bound lets
+    // optimizers that cannot turn the OR into an index range still start there.
+    public static Specification<Game> after(GameSalesCursor cursor) {
+        return (game, query, cb) -> {
+            Path<Long> id = game.get("id");
+            return switch (cursor.order()) {
+                case DATE_OF_SALE -> {
+                    Path<LocalDate> dateOfSale = game.get("dateOfSale");
+                    yield cb.and(cb.greaterThanOrEqualTo(dateOfSale, cursor.dateOfSale()),
+                            cb.or(cb.greaterThan(dateOfSale, cursor.dateOfSale()),
+                                    cb.and(cb.equal(dateOfSale, cursor.dateOfSale()), cb.greaterThan(id, cursor.id()))));
+                }
+                case SALE_PRICE -> {
+                    Path<Double> salePrice = game.get("salePrice");
+                    yield cb.and(cb.greaterThanOrEqualTo(salePrice, cursor.salePrice()),
+                            cb.or(cb.greaterThan(salePrice, cursor.salePrice()),
+                                    cb.and(cb.equal(salePrice, cursor.salePrice()), cb.greaterThan(id, cursor.id()))));
+                }
+                case ID -> cb.greaterThan(id, cursor.id());
+            };
+        };
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.gameSalesService.repository;
+
+import com.example.gameSalesService.entity.ImportJob;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ImportJobRepository extends CrudRepository<ImportJob, String> {
+
+    List<ImportJob> findByStatusIn(Collection<ImportJob.Status> statuses);
+}
@@ -0,0 +1,6 @@
+package com.example.gameSalesService.service;
+
+// Published once StartupBackfill has written rollups or price sketches, so responses read from them
+// before then are no longer served
+public record BackfillCompletedEvent() {
+}
@@ -1,29 +1,166 @@
 package com.example.gameSalesService.service;
 
-import com.example.gameSalesService.entity.Game;
-import com.example.gameSalesService.repository.GameRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Warms queryResponseCache with the queries clients actually send. HotQueryRecorder counts the keys served,
+// the hottest are written to a file periodically and on shutdown, and once the application reports ready
+// they are replayed in parallel through the same registered queries, so warmed entries have exactly the
+// keys live requests look up. Replay runs on its own threads; startup never waits for it.
 @Service
 public class CacheWarmupService {
 
+    private static final Logger logger = LoggerFactory.getLogger(CacheWarmupService.class);
+
+    private final QueryResponseCache queryResponseCache;
+    private final HotQueryRecorder hotQueryRecorder;
+    private final boolean enabled;
+    private final Path keysFile;
+    private final int maxKeys;
+    private final ExecutorService warmupPool;
+
+    private volatile WarmupReport lastReport;
+
     @Autowired
-    private GameRepository gameRepository;
+    public CacheWarmupService(QueryResponseCache queryResponseCache, HotQueryRecorder hotQueryRecorder,
+                              @Value("${game-sales.warmup.enabled:true}") boolean enabled,
+                              @Value("${game-sales.warmup.file:game-sales-warmup-keys.txt}") Path keysFile,
+                              @Value("${game-sales.warmup.max-keys:200}") int maxKeys,
+                              @Value("${game-sales.warmup.parallelism:4}") int parallelism) {
+        this.queryResponseCache = queryResponseCache;
+        this.hotQueryRecorder = hotQueryRecorder;
+        this.enabled = enabled;
+        this.keysFile = keysFile;
+        this.maxKeys = maxKeys;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.warmupPool = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "cache-warmup-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // After the other ready listeners, so the rollup index is built before totals are replayed
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onApplicationReady() {
+        if (enabled) {
+            replay();
+        }
+    }
+
+    // Replays the persisted keys; the future completes once every key has been warmed or has failed
+    public CompletableFuture<WarmupReport> replay() {
+        long startTime = System.currentTimeMillis();
+        List<QueryKey> keys = readKeys();
+        AtomicInteger warmed = new AtomicInteger();
+        AtomicInteger notCached = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
 
-    public void preWarmCache() {
-        // Pre-fetching first page
-        cachePage(0);
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(keys.size());
+        for (QueryKey key : keys) {
+            tasks.add(CompletableFuture.runAsync(() -> {
+                try {
+                    if (queryResponseCache.warm(key)) {
+                        warmed.incrementAndGet();
+                    } else {
+                        notCached.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                    logger.warn("Failed to warm {}: {}", key, e.getMessage());
+                }
+            }, warmupPool));
+        }
+
+        return CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).thenApply(done -> {
+            WarmupReport report = new WarmupReport(keys.size(), warmed.get(), notCached.get(), failed.get(),
+                    System.currentTimeMillis() - startTime, Instant.now());
+            lastReport = report;
+            logger.info("Cache warmup: {} of {} keys warmed ({} not cacheable, {} failed) in {} ms",
+                    report.warmed(), report.keys(), report.notCached(), report.failed(), report.millis());
+            return report;
+        });
+    }
+
+    // Null until the first replay finishes
+    public WarmupReport getLastReport() {
+        return lastReport;
+    }
+
+    // Saved periodically as well as on shutdown, so a crash loses at most one interval of recordings
+    @Scheduled(initialDelayString = "${game-sales.warmup.persist-interval:5m}",
+            fixedDelayString = "${game-sales.warmup.persist-interval:5m}")
+    public void persistKeys() {
+        // Nothing served since startup: keep the previous run's keys
+        if (!enabled || hotQueryRecorder.isEmpty()) {
+            return;
+        }
+        List<String> lines = hotQueryRecorder.hottest(maxKeys).stream().map(QueryKey::toString).toList();
+        try {
+            // Written next to the target and moved into place, so replay never reads a half-written file
+            Path absolute = keysFile.toAbsolutePath();
+            Files.createDirectories(absolute.getParent());
+            Path tempFile = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+            Files.write(tempFile, lines, StandardCharsets.UTF_8);
+            Files.move(tempFile, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Failed to save cache warmup keys to {}: {}", keysFile, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        persistKeys();
+        warmupPool.shutdownNow();
+    }
 
-        // Pre-fetching page 999
-        cachePage(999);
+    private List<QueryKey> readKeys() {
+        if (!Files.isRegularFile(keysFile)) {
+            return List.of();
+        }
+        List<QueryKey> keys = new ArrayList<>();
+        try {
+            for (String line : Files.readAllLines(keysFile, StandardCharsets.UTF_8)) {
+                if (keys.size() >= maxKeys) {
+                    break;
+                }
+                if (!line.isBlank()) {
+                    try {
+                        keys.add(QueryKey.parse(line.trim()));
+                    } catch (IllegalArgumentException e) {
+                        logger.warn("Skipping malformed cache warmup key: {}", line);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to read cache warmup keys from {}: {}", keysFile, e.getMessage());
+        }
+        return keys;
     }
 
-    @Cacheable("gameSalesCache")
-    public Page<Game> cachePage(int pageNumber) {
-        return gameRepository.findAll(PageRequest.of(pageNumber, 100));
+    public record WarmupReport(int keys, int warmed, int notCached, int failed, long millis, Instant finishedAt) {
     }
 }
@@ -0,0 +1,27 @@
+package com.example.gameSalesService.service;
+
+import com.example.gameSalesService.repository.GameSalesAggregatedRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// Imports upsert onto game_sales_aggregated through uk_aggregated_date_game. Schema update cannot add that
+// key while the table holds duplicate (date_of_sale, game_no) rows from older versions, and only logs the
+// failure; imports would then keep inserting rows. Startup stops instead, until the duplicates are collapsed
+// with db/collapse-aggregated-duplicates.sql.
+@Component
+public class GameSalesAggregatedCheck {
+
+    @Autowired
+    private GameSalesAggregatedRepository gameSalesAggregatedRepository;
+
+    @PostConstruct
+    public void checkNoDuplicates() {
+        long duplicates = gameSalesAggregatedRepository.countDuplicateKeys();
+        if (duplicates > 0) {
+            throw new IllegalStateException("game_sales_aggregated has " + duplicates
+                    + " duplicate (date_of_sale, game_no) keys, so uk_aggregated_date_game cannot be added; "
+                    + "run db/collapse-aggregated-duplicates.sql with the application stopped, then start it again");
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.gameSalesService.service;
+
+import com.example.gameSalesService.repository.GameRepository;
+import com.example.gameSalesService.repository.GameSalesFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+// Row counts behind the totalItems/totalPages of /getGameSales, cached per filter. A count over a wide
+// date or price range touches every matching index entry, so it is run once per filter and reused for
+// every page until an import changes game_sales.
+@Service
+public class GameSalesCountService {
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    // The filter record is the cache key: equal filters share one count
+    @Cacheable(value = "gameSalesCountCache", key = "#filter")
+    public long count(GameSalesFilter filter) {
+        return gameRepository.countMatching(filter);
+    }
+
+    // Before QueryResponseCache moves to the next data version
+    @EventListener
+    @Order(0)
+    @CacheEvict(value = "gameSalesCountCache", allEntries = true)
+    public void onImportCompleted(ImportCompletedEvent event) {
+        // Every cached count may have changed
+    }
+}
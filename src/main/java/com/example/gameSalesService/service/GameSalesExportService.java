@@ -0,0 +1,213 @@
+package com.example.gameSalesService.service;
+
+import com.example.gameSalesService.repository.GameSalesFilter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Streams game_sales rows straight from a forward-only, read-only result set to an output stream, one row
+// at a time and without entities, so memory stays flat however many rows match. MySQL Connector/J only
+// streams when the fetch size is Integer.MIN_VALUE (unless the URL sets useCursorFetch=true); any other
+// fetch size makes it buffer the whole result set in the heap first.
+@Service
+public class GameSalesExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameSalesExportService.class);
+
+    static final String CSV_HEADER = "id,game_no,game_name,game_code,type,cost_price,tax,sale_price,date_of_sale";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public GameSalesExportService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                  ObjectMapper objectMapper,
+                                  @Value("${game-sales.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager(), transactionTemplate);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    // Writes every game sale matching the filter to `out` and returns the number of rows written. Rows come
+    // in the filter's default order, the order of the index it uses, so the database never sorts.
+    public long export(Format format, GameSalesFilter filter, OutputStream out) {
+        long startTime = System.currentTimeMillis();
+
+        StringBuilder sql = new StringBuilder("SELECT id, game_no, game_name, game_code, type, cost_price, tax, sale_price, date_of_sale FROM game_sales");
+        List<Object> params = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        // Same predicates as GameSalesFilter.toSpecification(), for the same indexes
+        if (filter.hasDateRange()) {
+            conditions.add("date_of_sale BETWEEN ? AND ?");
+            params.add(Date.valueOf(filter.fromDate()));
+            params.add(Date.valueOf(filter.toDate()));
+        }
+        if (filter.salePriceAbove() != null) {
+            conditions.add("sale_price > ?");
+            params.add(filter.salePriceAbove());
+        }
+        if (filter.salePriceBelow() != null) {
+            conditions.add("sale_price < ?");
+            params.add(filter.salePriceBelow());
+        }
+        if (filter.gameNo() != null) {
+            conditions.add("game_no = ?");
+            params.add(filter.gameNo());
+        }
+        if (filter.type() != null) {
+            conditions.add("type = ?");
+            params.add(filter.type());
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(switch (filter.defaultOrder()) {
+            case DATE_OF_SALE -> " ORDER BY date_of_sale, id";
+            case SALE_PRICE -> " ORDER BY sale_price, id";
+            case ID -> " ORDER BY id";
+        });
+
+        Long rows = transactionTemplate.execute(status -> jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(streamingFetchSize(connection));
+                for (int i = 0; i < params.size(); i++) {
+                    statement.setObject(i + 1, params.get(i));
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return format == Format.CSV ? writeCsv(resultSet, out) : writeNdjson(resultSet, out);
+                } catch (IOException e) {
+                    // Usually the client went away; stop reading rows
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }));
+
+        logger.info("Exported {} game sales as {} in {} ms", rows, format, System.currentTimeMillis() - startTime);
+        return rows != null ? rows : 0;
+    }
+
+    private int streamingFetchSize(Connection connection) throws SQLException {
+        if ("MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())
+                && !connection.getMetaData().getURL().contains("useCursorFetch=true")) {
+            return Integer.MIN_VALUE;
+        }
+        return fetchSize;
+    }
+
+    // Same columns as the import CSV, prices exactly as stored. Text with a separator, quote or line break is
+    // quoted as in RFC 4180, which GameCsvParser does not read, so only rows without such text re-import
+    private static long writeCsv(ResultSet resultSet, OutputStream out) throws SQLException, IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        long rows = 0;
+        StringBuilder line = new StringBuilder(128);
+        while (resultSet.next()) {
+            line.setLength(0);
+            line.append(resultSet.getLong(1)).append(',')
+                    .append(resultSet.getInt(2)).append(',');
+            appendCsvText(line, resultSet.getString(3)).append(',');
+            appendCsvText(line, resultSet.getString(4)).append(',')
+                    .append(resultSet.getInt(5)).append(',');
+            line.append(price(resultSet, 6)).append(',');
+            line.append(price(resultSet, 7)).append(',');
+            line.append(price(resultSet, 8)).append(',')
+                    .append(resultSet.getObject(9, LocalDate.class)).append('\n');
+            writer.append(line);
+            rows++;
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private long writeNdjson(ResultSet resultSet, OutputStream out) throws SQLException, IOException {
+        long rows = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // The response stream belongs to the container
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            while (resultSet.next()) {
+                generator.writeStartObject();
+                generator.writeNumberField("id", resultSet.getLong(1));
+                generator.writeNumberField("gameNo", resultSet.getInt(2));
+                generator.writeStringField("gameName", resultSet.getString(3));
+                generator.writeStringField("gameCode", resultSet.getString(4));
+                generator.writeNumberField("type", resultSet.getInt(5));
+                generator.writeFieldName("costPrice");
+                generator.writeNumber(price(resultSet, 6));
+                generator.writeFieldName("tax");
+                generator.writeNumber(price(resultSet, 7));
+                generator.writeFieldName("salePrice");
+                generator.writeNumber(price(resultSet, 8));
+                generator.writeStringField("dateOfSale", resultSet.getObject(9, LocalDate.class).toString());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    // Quotes values containing a separator, quote or line break
+    private static StringBuilder appendCsvText(StringBuilder line, String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return line.append(value);
+        }
+        return line.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    // The shortest decimal that reads back as the stored double, never in exponent notation, so CSV and
+    // NDJSON carry the same digits and re-importing the CSV stores the same value
+    private static String price(ResultSet resultSet, int column) throws SQLException {
+        return BigDecimal.valueOf(resultSet.getDouble(column)).toPlainString();
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.gameSalesService.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Counts how often each query key is served. The table is a size-bounded Caffeine cache, so once it is
+// full a new key only displaces a tracked one when its estimated frequency is higher: one-off queries
+// (deep cursor pages, odd date ranges) do not push out the keys dashboards keep polling.
+@Component
+public class HotQueryRecorder {
+
+    private final Cache<QueryKey, LongAdder> counts;
+
+    public HotQueryRecorder(@Value("${game-sales.warmup.max-tracked-keys:10000}") long maxTrackedKeys) {
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .build();
+    }
+
+    public void record(QueryKey key) {
+        counts.get(key, k -> new LongAdder()).increment();
+    }
+
+    // Up to `limit` keys, most requested first
+    public List<QueryKey> hottest(int limit) {
+        return counts.asMap().entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<QueryKey, LongAdder> entry) -> entry.getValue().sum()).reversed())
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    public boolean isEmpty() {
+        return counts.asMap().isEmpty();
+    }
+}
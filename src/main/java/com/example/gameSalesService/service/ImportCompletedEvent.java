@@ -0,0 +1,6 @@
+package com.example.gameSalesService.service;
+
+// Published once an import has finished, successfully or not, after committing any game_sales rows,
+// so read-side state derived from game_sales and game_sales_aggregated can refresh
+public record ImportCompletedEvent(String jobId) {
+}
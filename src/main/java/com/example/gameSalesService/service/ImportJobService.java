@@ -0,0 +1,84 @@
+package com.example.gameSalesService.service;
+
+import com.example.gameSalesService.entity.ImportJob;
+import com.example.gameSalesService.repository.ImportJobRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Registry of import jobs. Running jobs are served from memory with live counters; every state
+// change is also written to the import_job table, which answers for jobs that already finished.
+// Imports do not survive a restart, so jobs the table still shows as queued or running are marked
+// failed before this instance takes new ones.
+@Service
+public class ImportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportJobService.class);
+
+    static final String INTERRUPTED_MESSAGE = "Interrupted by restart";
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    private final Map<String, ImportProgress> activeJobs = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void failInterruptedJobs() {
+        List<ImportJob> interrupted = importJobRepository.findByStatusIn(
+                List.of(ImportJob.Status.QUEUED, ImportJob.Status.RUNNING));
+        if (interrupted.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        for (ImportJob job : interrupted) {
+            job.setStatus(ImportJob.Status.FAILED);
+            job.setErrorMessage(INTERRUPTED_MESSAGE);
+            job.setFinishedAt(now);
+        }
+        importJobRepository.saveAll(interrupted);
+        logger.warn("Marked {} import jobs interrupted by a restart as failed", interrupted.size());
+    }
+
+    public ImportProgress createJob(String fileName) {
+        ImportProgress progress = new ImportProgress(UUID.randomUUID().toString(), fileName, Instant.now());
+        activeJobs.put(progress.getId(), progress);
+        save(progress);
+        return progress;
+    }
+
+    public Optional<ImportJob> findJob(String id) {
+        ImportProgress progress = activeJobs.get(id);
+        if (progress != null) {
+            return Optional.of(progress.toJob());
+        }
+        return importJobRepository.findById(id);
+    }
+
+    // Records a stage change of a running job
+    public void save(ImportProgress progress) {
+        try {
+            importJobRepository.save(progress.toJob());
+        } catch (Exception e) {
+            logger.warn("Failed to record progress of import job {}: {}", progress.getId(), e.getMessage());
+        }
+    }
+
+    // Stores the final state; the job stays in memory only if that write fails
+    public void finish(ImportProgress progress) {
+        try {
+            importJobRepository.save(progress.toJob());
+            activeJobs.remove(progress.getId());
+        } catch (Exception e) {
+            logger.error("Failed to record final state of import job {}: {}", progress.getId(), e.getMessage(), e);
+        }
+    }
+}
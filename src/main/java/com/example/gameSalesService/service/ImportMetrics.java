@@ -0,0 +1,91 @@
+package com.example.gameSalesService.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Import pipeline metrics across all imports. Rows parsed and persisted are counters, so rows per second
+// is their rate (e.g. rate(game_sales_import_rows_parsed_total[1m]) in Prometheus). Batch writes and the
+// parse, persist and aggregate stages of each import are timers; queue depth is the number of batches
+// waiting for a writer in all running imports.
+@Component
+public class ImportMetrics {
+
+    private final Counter rowsParsed;
+    private final Counter rowsPersisted;
+    private final Counter failedBatches;
+    private final Counter failedRows;
+    private final Timer batchPersist;
+    private final MeterRegistry meterRegistry;
+    private final Set<Collection<?>> queues = ConcurrentHashMap.newKeySet();
+
+    public ImportMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        rowsParsed = Counter.builder("game.sales.import.rows.parsed")
+                .description("Rows parsed from import files")
+                .register(meterRegistry);
+        rowsPersisted = Counter.builder("game.sales.import.rows.persisted")
+                .description("Rows written to game_sales")
+                .register(meterRegistry);
+        failedBatches = Counter.builder("game.sales.import.batches.failed")
+                .description("game_sales batches that could not be written")
+                .register(meterRegistry);
+        failedRows = Counter.builder("game.sales.import.rows.failed")
+                .description("Rows of the failed batches")
+                .register(meterRegistry);
+        batchPersist = Timer.builder("game.sales.import.batch.persist")
+                .description("Time to write one game_sales batch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("game.sales.import.queue.depth", queues, ImportMetrics::depth)
+                .description("Parsed batches waiting for a writer")
+                .register(meterRegistry);
+    }
+
+    public void rowsParsed(long rows) {
+        rowsParsed.increment(rows);
+    }
+
+    public void batchPersisted(long rows, long nanos) {
+        rowsPersisted.increment(rows);
+        batchPersist.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void batchFailed(long rows) {
+        failedBatches.increment();
+        failedRows.increment(rows);
+    }
+
+    // stage is parse, persist or aggregate
+    public void stageFinished(String stage, long millis) {
+        Timer.builder("game.sales.import.stage")
+                .description("Wall time of an import stage")
+                .tag("stage", stage)
+                .register(meterRegistry)
+                .record(millis, TimeUnit.MILLISECONDS);
+    }
+
+    // The queue of a running import counts towards the queue depth until it is removed
+    public void addQueue(Collection<?> queue) {
+        queues.add(queue);
+    }
+
+    public void removeQueue(Collection<?> queue) {
+        queues.remove(queue);
+    }
+
+    private static double depth(Set<Collection<?>> queues) {
+        long depth = 0;
+        for (Collection<?> queue : queues) {
+            depth += queue.size();
+        }
+        return depth;
+    }
+}
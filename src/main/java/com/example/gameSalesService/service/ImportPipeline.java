@@ -0,0 +1,214 @@
+package com.example.gameSalesService.service;
+
+import com.example.gameSalesService.entity.Game;
+import com.example.gameSalesService.service.writer.GameSalesWriter;
+import com.example.gameSalesService.util.ImportTotals;
+import com.example.gameSalesService.util.ParallelCsvParser;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Long-lived reader -> parser -> writer pipeline shared by all imports. Parser workers hand full batches
+// to writers through a bounded queue per import, so a parser that outruns the database blocks instead of
+// buffering the file in memory: at most queue-capacity + writer-threads + parse-parallelism batches exist
+// per import, whatever the file size.
+// Imports may run concurrently, so no import may wait on another: each one gets writer-threads writers
+// of its own (idle writer threads are reused by later imports), and a parser blocked on a full queue
+// lets the parse pool start another worker for the other imports' ranges.
+@Component
+public class ImportPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportPipeline.class);
+
+    // Tells a writer that its import has no more batches
+    private static final List<Game> END_OF_INPUT = List.of();
+
+    @Autowired
+    private GameSalesWriter gameSalesWriter;
+
+    @Autowired
+    private ImportMetrics importMetrics;
+
+    private final int batchSize;
+    private final int queueCapacity;
+    private final int writerThreads;
+    private final ForkJoinPool parsePool;
+    private final ExecutorService writerPool;
+
+    public ImportPipeline(@Value("${game-sales.import.batch-size:2000}") int batchSize,
+                          @Value("${game-sales.import.queue-capacity:4}") int queueCapacity,
+                          @Value("${game-sales.import.parse-parallelism:0}") int parseParallelism,
+                          @Value("${game-sales.import.writer-threads:4}") int writerThreads) {
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        this.writerThreads = writerThreads;
+        // Parsing is CPU bound, so by default one worker per core
+        this.parsePool = new ForkJoinPool(parseParallelism > 0 ? parseParallelism : Runtime.getRuntime().availableProcessors());
+        AtomicInteger threadCount = new AtomicInteger();
+        this.writerPool = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "import-writer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        parsePool.shutdownNow();
+        writerPool.shutdownNow();
+    }
+
+    // Parses and writes the file, returning once every batch has been written or has failed, with the
+    // totals of the batches that were written. If parsing fails, the writers are still awaited and
+    // IncompleteImportException carries their totals.
+    public ImportTotals run(ImportProgress job, Path file) throws IOException, InterruptedException {
+        BlockingQueue<List<Game>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        importMetrics.addQueue(queue);
+        try {
+            return parseAndWrite(job, file, queue);
+        } finally {
+            importMetrics.removeQueue(queue);
+        }
+    }
+
+    private ImportTotals parseAndWrite(ImportProgress job, Path file, BlockingQueue<List<Game>> queue)
+            throws IOException, InterruptedException {
+        List<Future<ImportTotals>> writers = new ArrayList<>(writerThreads);
+        for (int i = 0; i < writerThreads; i++) {
+            writers.add(writerPool.submit(() -> drain(queue, job)));
+        }
+
+        long parseStart = System.nanoTime();
+        Exception parseFailure = null;
+        try {
+            ParallelCsvParser.Result result = ParallelCsvParser.parse(file, parsePool, parsePool.getParallelism(), batchSize, batch -> {
+                job.rowsParsed(batch.size());
+                importMetrics.rowsParsed(batch.size());
+                put(queue, batch);
+            });
+            long parseMillis = millisSince(parseStart);
+            job.parseFinished(result.getMalformedRows(), parseMillis);
+            if (result.getMalformedRows() > 0) {
+                logger.warn("Skipped {} malformed rows in {}", result.getMalformedRows(), file);
+            }
+            importMetrics.stageFinished("parse", parseMillis);
+        } catch (IOException | RuntimeException e) {
+            // The writers still finish what was queued, and their totals must not be lost
+            parseFailure = e;
+        } finally {
+            // Writers finish the queued batches first, then stop at their end marker
+            for (int i = 0; i < writerThreads; i++) {
+                queue.put(END_OF_INPUT);
+            }
+        }
+
+        // Join every writer, even after a failure, so nothing is still writing when the import ends
+        ImportTotals totals = new ImportTotals();
+        IllegalStateException writerFailure = null;
+        for (Future<ImportTotals> writer : writers) {
+            try {
+                totals.merge(writer.get());
+            } catch (ExecutionException e) {
+                if (writerFailure == null) {
+                    writerFailure = new IllegalStateException("Import writer failed", e.getCause());
+                } else {
+                    writerFailure.addSuppressed(e.getCause());
+                }
+            }
+        }
+        if (writerFailure != null) {
+            if (parseFailure != null) {
+                writerFailure.addSuppressed(parseFailure);
+            }
+            throw writerFailure;
+        }
+        long persistMillis = millisSince(parseStart);
+        job.persistFinished(persistMillis);
+        importMetrics.stageFinished("persist", persistMillis);
+        if (parseFailure != null) {
+            throw new IncompleteImportException(parseFailure, totals);
+        }
+        return totals;
+    }
+
+    // Writes batches until the end marker, adding each one that was written to the returned totals
+    private ImportTotals drain(BlockingQueue<List<Game>> queue, ImportProgress job) {
+        ImportTotals totals = new ImportTotals();
+        try {
+            List<Game> batch;
+            while ((batch = queue.take()) != END_OF_INPUT) {
+                long start = System.nanoTime();
+                try {
+                    gameSalesWriter.write(batch);
+                    totals.add(batch);
+                    job.batchPersisted(batch.size());
+                    importMetrics.batchPersisted(batch.size(), System.nanoTime() - start);
+                } catch (Exception e) {
+                    job.batchFailed(batch.size());
+                    importMetrics.batchFailed(batch.size());
+                    logger.error("Failed to save batch: {}", e.getMessage(), e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return totals;
+    }
+
+    // Runs on a parse worker; blocking through managedBlock lets the pool compensate with another worker
+    private static void put(BlockingQueue<List<Game>> queue, List<Game> batch) {
+        try {
+            ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                @Override
+                public boolean block() throws InterruptedException {
+                    queue.put(batch);
+                    return true;
+                }
+
+                @Override
+                public boolean isReleasable() {
+                    return queue.offer(batch);
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted", e);
+        }
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    // Parsing stopped partway; every batch handed to the writers before that has been written or has
+    // failed, and the written ones are totalled so they can still be aggregated
+    public static class IncompleteImportException extends RuntimeException {
+
+        private final transient ImportTotals storedTotals;
+
+        public IncompleteImportException(Exception cause, ImportTotals storedTotals) {
+            super(cause.getMessage(), cause);
+            this.storedTotals = storedTotals;
+        }
+
+        public ImportTotals getStoredTotals() {
+            return storedTotals;
+        }
+    }
+}
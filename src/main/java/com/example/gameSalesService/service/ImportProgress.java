@@ -0,0 +1,148 @@
+package com.example.gameSalesService.service;
+
+import com.example.gameSalesService.entity.ImportJob;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Live, thread-safe counters of a running import. Parser and writer threads update it directly;
+// snapshots are taken as ImportJob entities for the status API and the import_job table.
+public class ImportProgress {
+
+    // Window over which the current throughput is measured
+    private static final long RATE_WINDOW_NANOS = 1_000_000_000L;
+
+    private final String id;
+    private final String fileName;
+    private final Instant createdAt;
+
+    private final AtomicLong rowsParsed = new AtomicLong();
+    private final AtomicLong rowsPersisted = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private final AtomicLong failedRows = new AtomicLong();
+
+    private volatile ImportJob.Status status = ImportJob.Status.QUEUED;
+    private volatile long malformedRows;
+    private volatile Long parseMillis;
+    private volatile Long persistMillis;
+    private volatile Long aggregateMillis;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String errorMessage;
+
+    private long startNanos;
+    private long rateWindowStartNanos;
+    private long rateWindowStartRows;
+    private volatile double currentRowsPerSecond;
+
+    public ImportProgress(String id, String fileName, Instant createdAt) {
+        this.id = id;
+        this.fileName = fileName;
+        this.createdAt = createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public long getRowsPersisted() {
+        return rowsPersisted.get();
+    }
+
+    public ImportJob.Status getStatus() {
+        return status;
+    }
+
+    public synchronized void start() {
+        startedAt = Instant.now();
+        startNanos = System.nanoTime();
+        rateWindowStartNanos = startNanos;
+        status = ImportJob.Status.RUNNING;
+    }
+
+    public void rowsParsed(long rows) {
+        rowsParsed.addAndGet(rows);
+    }
+
+    public void batchPersisted(long rows) {
+        long persisted = rowsPersisted.addAndGet(rows);
+        updateRate(persisted);
+    }
+
+    public void batchFailed(long rows) {
+        failedBatches.incrementAndGet();
+        failedRows.addAndGet(rows);
+    }
+
+    public void parseFinished(long malformedRows, long millis) {
+        this.malformedRows = malformedRows;
+        this.parseMillis = millis;
+    }
+
+    // Wall time from the start of parsing until the last batch was written; parsing and writing overlap
+    public void persistFinished(long millis) {
+        this.persistMillis = millis;
+    }
+
+    public void aggregateFinished(long millis) {
+        this.aggregateMillis = millis;
+    }
+
+    public synchronized void complete() {
+        finish(failedBatches.get() > 0 ? ImportJob.Status.COMPLETED_WITH_ERRORS : ImportJob.Status.COMPLETED);
+    }
+
+    public synchronized void fail(Exception e) {
+        errorMessage = e.getMessage() == null ? e.getClass().getName() : e.getMessage();
+        if (errorMessage.length() > 1000) {
+            errorMessage = errorMessage.substring(0, 1000);
+        }
+        finish(ImportJob.Status.FAILED);
+    }
+
+    public boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    public synchronized ImportJob toJob() {
+        ImportJob job = new ImportJob();
+        job.setId(id);
+        job.setFileName(fileName);
+        job.setStatus(status);
+        job.setRowsParsed(rowsParsed.get());
+        job.setRowsPersisted(rowsPersisted.get());
+        job.setMalformedRows(malformedRows);
+        job.setFailedBatches(failedBatches.get());
+        job.setFailedRows(failedRows.get());
+        job.setRowsPerSecond(currentRowsPerSecond);
+        job.setParseMillis(parseMillis);
+        job.setPersistMillis(persistMillis);
+        job.setAggregateMillis(aggregateMillis);
+        job.setCreatedAt(createdAt);
+        job.setStartedAt(startedAt);
+        job.setFinishedAt(finishedAt);
+        job.setErrorMessage(errorMessage);
+        return job;
+    }
+
+    private void finish(ImportJob.Status finalStatus) {
+        finishedAt = Instant.now();
+        status = finalStatus;
+        // Once finished, report the average over the whole import
+        long elapsedMillis = startedAt == null ? 0 : Duration.between(startedAt, finishedAt).toMillis();
+        currentRowsPerSecond = elapsedMillis == 0 ? 0 : rowsPersisted.get() * 1000.0 / elapsedMillis;
+    }
+
+    private synchronized void updateRate(long persisted) {
+        long now = System.nanoTime();
+        long elapsed = now - rateWindowStartNanos;
+        if (elapsed >= RATE_WINDOW_NANOS || rateWindowStartNanos == startNanos) {
+            currentRowsPerSecond = (persisted - rateWindowStartRows) * 1e9 / Math.max(elapsed, 1);
+        }
+        if (elapsed >= RATE_WINDOW_NANOS) {
+            rateWindowStartNanos = now;
+            rateWindowStartRows = persisted;
+        }
+    }
+}
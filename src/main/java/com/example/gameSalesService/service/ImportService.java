@@ -1,29 +1,22 @@
 package com.example.gameSalesService.service;
 
-import com.example.gameSalesService.entity.Game;
-import com.example.gameSalesService.entity.GameSalesAggregated;
-import com.example.gameSalesService.repository.GameRepository;
-import com.example.gameSalesService.repository.GameSalesAggregatedRepository;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.EntityTransaction;
+import com.example.gameSalesService.service.writer.GameSalesAggregatedUpserter;
+import com.example.gameSalesService.service.writer.GameSalesPriceSketchWriter;
+import com.example.gameSalesService.service.writer.GameSalesRollupUpserter;
+import com.example.gameSalesService.util.ImportTotals;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.scheduling.annotation.Async;
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.nio.charset.StandardCharsets;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
-import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.time.Duration;
+import java.util.concurrent.locks.Lock;
 
 @Service
 public class ImportService {
@@ -31,145 +24,103 @@ public class ImportService {
     private final Logger logger = LoggerFactory.getLogger(ImportService.class);
 
     @Autowired
-    private GameRepository gameRepository;
+    private GameSalesAggregatedUpserter gameSalesAggregatedUpserter;
 
     @Autowired
-    private GameSalesAggregatedRepository gameSalesAggregatedRepository;
+    private GameSalesRollupUpserter gameSalesRollupUpserter;
 
     @Autowired
-    private EntityManagerFactory entityManagerFactory;
+    private GameSalesPriceSketchWriter gameSalesPriceSketchWriter;
 
-    @Async
-    public void processFileAsync(String filePath, Instant start) {
-        try {
-            int batchSize = 2000;
-            ExecutorService executor = Executors.newFixedThreadPool(10);
-            List<Game> gamesBatch = new ArrayList<>();
-            Map<String, GameSalesAggregated> aggregationMap = new ConcurrentHashMap<>();
-
-            try (BufferedReader reader = new BufferedReader(new FileReader(filePath, StandardCharsets.UTF_8))) {
-                String line;
-                boolean isFirstLine = true;
-
-                while ((line = reader.readLine()) != null) {
-                    if (isFirstLine) {
-                        isFirstLine = false; // Skip header
-                        continue;
-                    }
-
-                    // Split and parse the CSV line
-                    String[] fields = line.split(",");
-                    if (fields.length != 9) {
-                        continue;
-                    }
-
-                    Game game = new Game();
-                    game.setId(Long.parseLong(fields[0]));
-                    game.setGameNo(Integer.parseInt(fields[1]));
-                    game.setGameName(fields[2]);
-                    game.setGameCode(fields[3]);
-                    game.setType(Integer.parseInt(fields[4]));
-                    game.setCostPrice(Double.parseDouble(fields[5]));
-                    game.setTax(Double.parseDouble(fields[6]));
-                    game.setSalePrice(Double.parseDouble(fields[7]));
-                    game.setDateOfSale(LocalDate.parse(fields[8]));
-
-                    gamesBatch.add(game);
-
-                    // Aggregation logic
-                    LocalDate saleDate = game.getDateOfSale();
-                    double salePrice = game.getSalePrice();
-                    Integer gameNo = game.getGameNo();
-
-                    String aggregationKey = saleDate + "-" + gameNo;  // Include both date and gameNo
-
-                    // Aggregate by date and game number
-                    aggregationMap.compute(aggregationKey, (date, aggregated) -> {
-                        if (aggregated == null) {
-                            aggregated = new GameSalesAggregated();
-                            aggregated.setDateOfSale(saleDate);
-                            aggregated.setGameNo(gameNo);  // Set game number
-                            aggregated.setTotalGamesSold(0);
-                            aggregated.setTotalSales(0.0);
-                        }
-
-                        aggregated.setTotalGamesSold(aggregated.getTotalGamesSold() + 1);
-                        aggregated.setTotalSales(aggregated.getTotalSales() + salePrice);
-
-                        return aggregated;
-                    });
-
-                    // Save the batch when batchSize is reached
-                    if (gamesBatch.size() >= batchSize) {
-                        List<Game> batchToSave = new ArrayList<>(gamesBatch);
-                        executor.submit(() -> saveBatch(batchToSave));
-                        gamesBatch.clear();
-                    }
-                }
-
-                // Submit the last batch if any records remain
-                if (!gamesBatch.isEmpty()) {
-                    executor.submit(() -> saveBatch(new ArrayList<>(gamesBatch)));
-                }
-            }
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
-            executor.shutdown();
+    @Autowired
+    private ImportPipeline importPipeline;
 
-            // Wait for all threads to complete processing
-            while (!executor.isTerminated()) {
-                Thread.sleep(10);
-            }
+    @Autowired
+    private ImportMetrics importMetrics;
+
+    @Autowired
+    private ImportJobService importJobService;
+
+    @Autowired
+    private StartupBackfill startupBackfill;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
-            // Save aggregated data after processing all records
-            saveAggregatedData(aggregationMap);
+    @Async
+    public void processFileAsync(ImportProgress job, String filePath, Instant start) {
+        // The job stays queued while a startup backfill rebuilds what this import would add onto
+        Lock importLock = startupBackfill.importLock();
+        importLock.lock();
+        try {
+            job.start();
+            importJobService.save(job);
+
+            // Parse and write through the shared bounded pipeline; returns once every batch is stored or failed
+            ImportTotals totals;
+            try {
+                totals = importPipeline.run(job, Path.of(filePath));
+            } catch (ImportPipeline.IncompleteImportException e) {
+                // The rows stored before parsing failed stay in game_sales, so they are aggregated too
+                aggregate(job, e.getStoredTotals());
+                throw e;
+            }
+            aggregate(job, totals);
 
             // Record end time and calculate duration
             Instant end = Instant.now();
             long timeElapsed = Duration.between(start, end).toMillis();
             logger.info("Time taken to import and save all records: " + timeElapsed + " ms");
+            job.complete();
 
         } catch (Exception e) {
             logger.error("Failed to process file: {}", e.getMessage(), e);
-        }
-    }
-
-    private void saveBatch(List<Game> games) {
-        EntityManager em = entityManagerFactory.createEntityManager();
-        EntityTransaction transaction = em.getTransaction();
+            job.fail(e);
+        } finally {
+            importLock.unlock();
 
-        try {
-            transaction.begin();
-            for (Game game : games) {
-                em.persist(game);
+            // Batches a failed import committed change the data as much as a completed import's do
+            if (job.getRowsPersisted() > 0) {
+                publishCompleted(job);
             }
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction.isActive()) {
-                transaction.rollback();
+            importJobService.finish(job);
+
+            // The staged upload is only needed for this import
+            try {
+                Files.deleteIfExists(Path.of(filePath));
+            } catch (IOException e) {
+                logger.warn("Failed to delete import file {}: {}", filePath, e.getMessage());
             }
-            logger.error("Failed to save batch: {}", e.getMessage(), e);
-        } finally {
-            em.close();
         }
     }
 
-    private void saveAggregatedData(Map<String, GameSalesAggregated> aggregationMap) {
-        EntityManager em = entityManagerFactory.createEntityManager();
-        EntityTransaction transaction = em.getTransaction();
-
+    private void publishCompleted(ImportProgress job) {
         try {
-            transaction.begin();
-            for (GameSalesAggregated aggregated : aggregationMap.values()) {
-                em.persist(aggregated);
-            }
-            transaction.commit();
+            eventPublisher.publishEvent(new ImportCompletedEvent(job.getId()));
         } catch (Exception e) {
-            if (transaction.isActive()) {
-                transaction.rollback();
-            }
-            logger.error("Failed to save aggregated data: {}", e.getMessage(), e);
-        } finally {
-            em.close();
+            logger.error("Failed to refresh after import {}: {}", job.getId(), e.getMessage(), e);
         }
     }
+
+    // Add the totals of the stored rows onto the aggregated and rollup rows, and their price sketches,
+    // after processing all records, in one transaction so the query endpoints never disagree. Rows of
+    // failed batches are left out, so importing a file again does not count its rows twice.
+    private void aggregate(ImportProgress job, ImportTotals totals) {
+        long aggregateStart = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            gameSalesAggregatedUpserter.upsert(totals.toAggregates());
+            gameSalesRollupUpserter.upsert(totals.toRollups());
+            gameSalesPriceSketchWriter.insert(totals.toPriceSketches());
+        });
+        long aggregateMillis = millisSince(aggregateStart);
+        job.aggregateFinished(aggregateMillis);
+        importMetrics.stageFinished("aggregate", aggregateMillis);
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
 }
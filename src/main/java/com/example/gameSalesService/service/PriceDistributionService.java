@@ -0,0 +1,115 @@
+package com.example.gameSalesService.service;
+
+import com.example.gameSalesService.entity.BackfillState;
+import com.example.gameSalesService.entity.GameSalesPriceSketch;
+import com.example.gameSalesService.entity.GameSalesRollup.Granularity;
+import com.example.gameSalesService.repository.BackfillStateRepository;
+import com.example.gameSalesService.service.writer.GameSalesPriceSketchWriter;
+import com.example.gameSalesService.util.PriceSketch;
+import com.example.gameSalesService.util.PriceSketchAggregator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+// Sale-price distribution of any period, merged from game_sales_price_sketch: calendar months that lie
+// wholly inside the period come from MONTH rows, the days before the first and after the last of them
+// from DAY rows. A year is about a dozen month sketches plus the edge days, whatever the row count.
+@Service
+public class PriceDistributionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceDistributionService.class);
+
+    private static final String SELECT_SQL = "SELECT sketch FROM game_sales_price_sketch "
+            + "WHERE granularity = ? AND game_no = ? AND bucket_start BETWEEN ? AND ?";
+
+    // The sketches' row in backfill_state
+    static final String BACKFILL = "price-sketches";
+
+    @Autowired
+    private BackfillStateRepository backfillStateRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private GameSalesPriceSketchWriter gameSalesPriceSketchWriter;
+
+    // Rebuilds game_sales_price_sketch from game_sales unless backfill_state records that this was done,
+    // one month at a time so only a month of sketches is held in memory. The table is cleared and every
+    // month refilled in the transaction that records it, so a failed backfill leaves no marker and starts
+    // over at the next startup. Imports must wait meanwhile (see StartupBackfill), or their rows could be
+    // counted twice. Returns the number of rows written.
+    public int backfill() {
+        if (backfillStateRepository.existsById(BACKFILL)) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        Integer written = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("DELETE FROM game_sales_price_sketch");
+            int rows = 0;
+            LocalDate firstDay = jdbcTemplate.queryForObject("SELECT MIN(date_of_sale) FROM game_sales", LocalDate.class);
+            if (firstDay != null) {
+                LocalDate lastDay = jdbcTemplate.queryForObject("SELECT MAX(date_of_sale) FROM game_sales", LocalDate.class);
+                for (LocalDate month = Granularity.MONTH.bucketStart(firstDay);
+                     !month.isAfter(lastDay); month = month.plusMonths(1)) {
+                    PriceSketchAggregator aggregator = new PriceSketchAggregator();
+                    jdbcTemplate.query("SELECT date_of_sale, game_no, sale_price FROM game_sales WHERE date_of_sale BETWEEN ? AND ?",
+                            rs -> {
+                                aggregator.add(Math.toIntExact(rs.getObject(1, LocalDate.class).toEpochDay()), rs.getInt(2),
+                                        Math.round(rs.getDouble(3) * 100));
+                            }, month, month.plusMonths(1).minusDays(1));
+                    List<GameSalesPriceSketch> monthRows = aggregator.toSketches();
+                    gameSalesPriceSketchWriter.insert(monthRows);
+                    rows += monthRows.size();
+                }
+            }
+            BackfillState state = new BackfillState();
+            state.setName(BACKFILL);
+            state.setCompletedAt(Instant.now());
+            backfillStateRepository.save(state);
+            return rows;
+        });
+        logger.info("Backfilled {} price sketch rows from game_sales in {} ms",
+                written, (System.nanoTime() - start) / 1_000_000);
+        return written;
+    }
+
+    // Prices sold in the period, for one game_no or, when null, all games; empty when nothing was sold
+    public PriceSketch distribution(LocalDate fromDate, LocalDate toDate, Integer gameNo) {
+        int game = gameNo != null ? gameNo : GameSalesPriceSketch.ALL_GAMES;
+        PriceSketch sketch = new PriceSketch();
+        LocalDate firstMonth = Granularity.MONTH.bucketStart(fromDate).equals(fromDate)
+                ? fromDate : Granularity.MONTH.nextBucket(Granularity.MONTH.bucketStart(fromDate));
+        // First day after the last whole month
+        LocalDate afterLastMonth = Granularity.MONTH.bucketStart(toDate.plusDays(1));
+
+        if (firstMonth.isBefore(afterLastMonth)) {
+            merge(sketch, Granularity.MONTH, game, firstMonth, afterLastMonth.minusDays(1));
+            if (fromDate.isBefore(firstMonth)) {
+                merge(sketch, Granularity.DAY, game, fromDate, firstMonth.minusDays(1));
+            }
+            if (!afterLastMonth.isAfter(toDate)) {
+                merge(sketch, Granularity.DAY, game, afterLastMonth, toDate);
+            }
+        } else {
+            merge(sketch, Granularity.DAY, game, fromDate, toDate);
+        }
+        return sketch;
+    }
+
+    private void merge(PriceSketch sketch, Granularity granularity, int gameNo, LocalDate fromDate, LocalDate toDate) {
+        jdbcTemplate.query(SELECT_SQL, rs -> {
+            sketch.merge(PriceSketch.fromBytes(rs.getBytes(1)));
+        }, granularity.name(), gameNo, fromDate, toDate);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.gameSalesService.service;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+// A cacheable query: the endpoint plus its request parameters, sorted so equal requests share one key.
+// toString() is the persisted form, e.g. getTotalSales?filter=totalSales&fromDate=2024-04-01&toDate=2024-04-30
+public record QueryKey(String endpoint, SortedMap<String, String> params) {
+
+    public QueryKey {
+        params = Collections.unmodifiableSortedMap(new TreeMap<>(params));
+    }
+
+    // Parameters are given as name, value pairs; null values are left out
+    public static QueryKey of(String endpoint, Object... namesAndValues) {
+        SortedMap<String, String> params = new TreeMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            if (namesAndValues[i + 1] != null) {
+                params.put((String) namesAndValues[i], namesAndValues[i + 1].toString());
+            }
+        }
+        return new QueryKey(endpoint, params);
+    }
+
+    // Inverse of toString(); throws IllegalArgumentException on malformed input
+    public static QueryKey parse(String value) {
+        int query = value.indexOf('?');
+        String endpoint = query < 0 ? value : value.substring(0, query);
+        if (endpoint.isBlank()) {
+            throw new IllegalArgumentException("Query key without endpoint: " + value);
+        }
+        SortedMap<String, String> params = new TreeMap<>();
+        if (query >= 0 && query < value.length() - 1) {
+            for (String pair : value.substring(query + 1).split("&")) {
+                int equals = pair.indexOf('=');
+                if (equals <= 0) {
+                    throw new IllegalArgumentException("Malformed query key parameter: " + pair);
+                }
+                params.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return new QueryKey(endpoint, params);
+    }
+
+    public String get(String name) {
+        return params.get(name);
+    }
+
+    public Integer getInteger(String name) {
+        String value = params.get(name);
+        return value != null ? Integer.valueOf(value) : null;
+    }
+
+    public Double getDouble(String name) {
+        String value = params.get(name);
+        return value != null ? Double.valueOf(value) : null;
+    }
+
+    public LocalDate getLocalDate(String name) {
+        String value = params.get(name);
+        return value != null ? LocalDate.parse(value) : null;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder key = new StringBuilder(endpoint);
+        char separator = '?';
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            key.append(separator)
+                    .append(URLEncoder.encode(param.getKey(), StandardCharsets.UTF_8))
+                    .append('=')
+                    .append(URLEncoder.encode(param.getValue(), StandardCharsets.UTF_8));
+            separator = '&';
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.gameSalesService.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Times the queries behind the cached endpoints, i.e. the work of a cache miss or a warmup, as
+// game.sales.query with a percentile histogram per endpoint, filter type and response status.
+// Every request, cache hits included, is also timed by Spring's http.server.requests.
+// Tag values must come from a small fixed set (never raw request parameters), or every distinct
+// value becomes a new time series.
+@Component
+public class QueryMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryMetrics.class);
+
+    public static final String QUERY_TIMER = "game.sales.query";
+
+    private final MeterRegistry meterRegistry;
+
+    public QueryMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T extends ResponseEntity<?>> T time(String endpoint, String filter, Supplier<T> query) {
+        long start = System.nanoTime();
+        String status = "error";
+        try {
+            T response = query.get();
+            status = Integer.toString(response.getStatusCode().value());
+            return response;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            Timer.builder(QUERY_TIMER)
+                    .description("Time to compute a query response, cache misses and warmups only")
+                    .tags("endpoint", endpoint, "filter", filter, "status", status)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            logger.debug("{} ({}) answered {} in {} ms", endpoint, filter, status, elapsed / 1_000_000);
+        }
+    }
+}
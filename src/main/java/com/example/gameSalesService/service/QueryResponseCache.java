@@ -0,0 +1,213 @@
+package com.example.gameSalesService.service;
+
+import com.example.gameSalesService.config.CacheConfig;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+// Caches successful query responses as encoded JSON bytes (plus a gzip copy for larger bodies), so a hit
+// is a byte copy rather than a Jackson pass over the entities. Every response carries a strong ETag
+// hashed from its encoded bytes, so a tag matches exactly when the client holds the bytes it would get
+// now, however the response was recomputed (after eviction, expiry or an import). A matching
+// If-None-Match on a cached response is answered with 304 without running the query.
+// Endpoints register their query under a name, so a QueryKey alone is enough to serve or warm a response.
+@Component
+public class QueryResponseCache {
+
+    // Smaller bodies are not worth compressing
+    static final int GZIP_MIN_BYTES = 1024;
+
+    private final Cache cache;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong dataVersion = new AtomicLong();
+    private final Map<String, Function<QueryKey, ? extends ResponseEntity<?>>> queries = new ConcurrentHashMap<>();
+    private final HotQueryRecorder hotQueryRecorder;
+
+    @Autowired
+    public QueryResponseCache(CacheManager cacheManager, ObjectMapper objectMapper, HotQueryRecorder hotQueryRecorder) {
+        this.cache = cacheManager.getCache(CacheConfig.QUERY_RESPONSE_CACHE);
+        this.objectMapper = objectMapper;
+        this.hotQueryRecorder = hotQueryRecorder;
+    }
+
+    public void register(String endpoint, Function<QueryKey, ? extends ResponseEntity<?>> query) {
+        queries.put(endpoint, query);
+    }
+
+    // Serves `key` from the cache or its endpoint's query. Only 200 responses are cached; anything else is
+    // returned as the query built it.
+    public ResponseEntity<?> serve(QueryKey key, String ifNoneMatch, String acceptEncoding) {
+        long version = dataVersion.get();
+        CachedResponse cached = cache.get(versionedKey(version, key), CachedResponse.class);
+        if (cached == null) {
+            ResponseEntity<?> response = query(key);
+            if (response.getStatusCode() != HttpStatus.OK) {
+                return response;
+            }
+            cached = encode(response.getBody());
+            cache.put(versionedKey(version, key), cached);
+        }
+        // Only keys that answer 200 are worth warming after a restart
+        hotQueryRecorder.record(key);
+
+        String etag = cached.etag();
+        String gzipEtag = gzipEtag(etag);
+        if (matches(ifNoneMatch, etag) || matches(ifNoneMatch, gzipEtag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(matches(ifNoneMatch, etag) ? etag : gzipEtag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        boolean gzip = cached.gzip() != null && acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(gzip ? gzipEtag : etag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(gzip ? cached.gzip() : cached.json());
+    }
+
+    // Runs the query for `key` unless its response is already cached; true if a response is cached afterwards.
+    // Warming is not a request, so it is not recorded.
+    public boolean warm(QueryKey key) {
+        long version = dataVersion.get();
+        if (cache.get(versionedKey(version, key)) != null) {
+            return true;
+        }
+        ResponseEntity<?> response = query(key);
+        if (response.getStatusCode() != HttpStatus.OK) {
+            return false;
+        }
+        cache.put(versionedKey(version, key), encode(response.getBody()));
+        return true;
+    }
+
+    public long getDataVersion() {
+        return dataVersion.get();
+    }
+
+    // Runs after the listeners that refresh read-side state, so the new version is never paired with
+    // answers computed from the old state
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onImportCompleted(ImportCompletedEvent event) {
+        dataVersion.incrementAndGet();
+        cache.clear();
+    }
+
+    @EventListener
+    public void onBackfillCompleted(BackfillCompletedEvent event) {
+        dataVersion.incrementAndGet();
+        cache.clear();
+    }
+
+    private ResponseEntity<?> query(QueryKey key) {
+        Function<QueryKey, ? extends ResponseEntity<?>> query = queries.get(key.endpoint());
+        if (query == null) {
+            throw new IllegalArgumentException("No query registered for " + key.endpoint());
+        }
+        return query.apply(key);
+    }
+
+    // The version is part of the key, so a response computed while an import finishes is never
+    // served under the next version
+    private static String versionedKey(long version, QueryKey key) {
+        return version + ":" + key;
+    }
+
+    private CachedResponse encode(Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            return new CachedResponse(etag(json), json, json.length >= GZIP_MIN_BYTES ? gzip(json) : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode response", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // First 128 bits of the SHA-256 of the JSON bytes; computed once per encoded response
+    private static String etag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // A different encoding is a different representation, so it gets its own strong tag
+    private static String gzipEtag(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            // If-None-Match uses weak comparison
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").equals("q=0");
+            }
+        }
+        return false;
+    }
+
+    public record CachedResponse(String etag, byte[] json, byte[] gzip) {
+
+        public int weight() {
+            return json.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+}
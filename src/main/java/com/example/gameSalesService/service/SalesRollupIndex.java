@@ -0,0 +1,228 @@
+package com.example.gameSalesService.service;
+
+import com.example.gameSalesService.repository.GameSalesAggregatedRepository;
+import com.example.gameSalesService.repository.GameSalesTotal;
+import com.example.gameSalesService.util.SalesAggregator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+// In-memory copy of game_sales_aggregated as prefix sums over epoch days, overall and per game_no.
+// Any period total is prefix[to + 1] - prefix[from], so /getTotalSales never reaches the database.
+// The whole index is rebuilt from the table at startup and after every import, and swapped in with
+// one volatile write; readers always see a complete snapshot. Sales are summed in cents.
+// Callers check isReady() before summing, but a rebuild may drop the index in between, so every sum
+// reads the snapshot once and answers from the database when that snapshot is not indexed.
+@Component
+public class SalesRollupIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesRollupIndex.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private GameSalesAggregatedRepository gameSalesAggregatedRepository;
+
+    @Value("${game-sales.rollup-index.enabled:true}")
+    private boolean enabled;
+
+    // Upper bound on days x games; beyond it the index is dropped and totals come from the database
+    @Value("${game-sales.rollup-index.max-cells:5000000}")
+    private long maxCells;
+
+    private volatile Snapshot snapshot = Snapshot.NONE;
+
+    // False until the first build finishes, or when disabled; callers then query the repository
+    public boolean isReady() {
+        return enabled && snapshot != Snapshot.NONE;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuildQuietly();
+    }
+
+    // Before QueryResponseCache moves to the next data version
+    @EventListener
+    @Order(0)
+    public void onImportCompleted(ImportCompletedEvent event) {
+        rebuildQuietly();
+    }
+
+    // Serialized so a rebuild that started before the latest import committed cannot replace a newer one
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        // One pass over the table, so the index reflects a single read even if an import commits meanwhile
+        SalesAggregator rows = new SalesAggregator();
+        jdbcTemplate.query("SELECT date_of_sale, game_no, total_games_sold, total_sales FROM game_sales_aggregated",
+                rs -> {
+                    rows.add(Math.toIntExact(rs.getObject(1, LocalDate.class).toEpochDay()), rs.getInt(2),
+                            rs.getLong(3), Math.round(rs.getDouble(4) * 100));
+                });
+        if (rows.size() == 0) {
+            snapshot = Snapshot.EMPTY;
+            return;
+        }
+
+        int[] span = {Integer.MAX_VALUE, Integer.MIN_VALUE};
+        TreeSet<Integer> gameNos = new TreeSet<>();
+        rows.forEach((epochDay, gameNo, gamesSold, salesCents) -> {
+            span[0] = Math.min(span[0], epochDay);
+            span[1] = Math.max(span[1], epochDay);
+            gameNos.add(gameNo);
+        });
+        long cells = (long) (span[1] - span[0] + 1) * (gameNos.size() + 1);
+        if (cells > maxCells) {
+            snapshot = Snapshot.NONE;
+            logger.warn("Sales rollup index disabled: {} cells exceed game-sales.rollup-index.max-cells={}", cells, maxCells);
+            return;
+        }
+        Snapshot next = new Snapshot(span[0], span[1], gameNos.stream().mapToInt(Integer::intValue).toArray());
+        rows.forEach(next::add);
+        next.accumulate();
+        snapshot = next;
+        logger.info("Rebuilt sales rollup index: {} days x {} games in {} ms",
+                next.days, next.gameNos.length, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Totals below mirror GameSalesAggregatedRepository, including null when the period has no sales
+
+    public Long sumGamesSold(LocalDate fromDate, LocalDate toDate) {
+        Snapshot current = snapshot;
+        if (current == Snapshot.NONE) {
+            return gameSalesAggregatedRepository.sumGamesSoldByDateOfSaleBetween(fromDate, toDate);
+        }
+        long total = current.sum(current.gamesSold, fromDate, toDate);
+        return total == 0 ? null : total;
+    }
+
+    public Double sumTotalSales(LocalDate fromDate, LocalDate toDate) {
+        Snapshot current = snapshot;
+        if (current == Snapshot.NONE) {
+            return gameSalesAggregatedRepository.sumTotalSalesByDateOfSaleBetween(fromDate, toDate);
+        }
+        return current.sum(current.gamesSold, fromDate, toDate) == 0
+                ? null : current.sum(current.salesCents, fromDate, toDate) / 100.0;
+    }
+
+    public Double sumTotalSales(LocalDate fromDate, LocalDate toDate, Integer gameNo) {
+        Snapshot current = snapshot;
+        if (current == Snapshot.NONE) {
+            return gameSalesAggregatedRepository.sumTotalSalesByDateOfSaleBetweenAndGameNo(fromDate, toDate, gameNo);
+        }
+        int game = Arrays.binarySearch(current.gameNos, gameNo);
+        if (game < 0 || current.sum(current.gameGamesSold[game], fromDate, toDate) == 0) {
+            return null;
+        }
+        return current.sum(current.gameSalesCents[game], fromDate, toDate) / 100.0;
+    }
+
+    public List<GameSalesTotal> sumByGameNo(LocalDate fromDate, LocalDate toDate) {
+        List<GameSalesTotal> totals = new ArrayList<>();
+        forEachGame(fromDate, toDate, totals::add);
+        return totals;
+    }
+
+    // Hands each game with sales in the period to `consumer`, in game_no order, without collecting them
+    public void forEachGame(LocalDate fromDate, LocalDate toDate, Consumer<GameSalesTotal> consumer) {
+        Snapshot current = snapshot;
+        if (current == Snapshot.NONE) {
+            gameSalesAggregatedRepository.sumByGameNo(fromDate, toDate).forEach(consumer);
+            return;
+        }
+        for (int game = 0; game < current.gameNos.length; game++) {
+            long gamesSold = current.sum(current.gameGamesSold[game], fromDate, toDate);
+            if (gamesSold > 0) {
+                consumer.accept(new GameSalesTotal(current.gameNos[game], gamesSold,
+                        current.sum(current.gameSalesCents[game], fromDate, toDate) / 100.0));
+            }
+        }
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // Keep serving the previous snapshot, or the repository if there is none
+            logger.error("Failed to rebuild sales rollup index: {}", e.getMessage(), e);
+        }
+    }
+
+    private static class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(0, -1, new int[0]);
+        // Not built yet, or dropped for exceeding max-cells
+        static final Snapshot NONE = new Snapshot(0, -1, new int[0]);
+
+        final long firstDay;
+        final int days;
+        final int[] gameNos;
+        // Element i + 1 holds the total of days [0, i]; element 0 is always zero
+        final long[] gamesSold;
+        final long[] salesCents;
+        final long[][] gameGamesSold;
+        final long[][] gameSalesCents;
+
+        Snapshot(long firstDay, long lastDay, int[] gameNos) {
+            this.firstDay = firstDay;
+            this.days = Math.toIntExact(lastDay - firstDay + 1);
+            this.gameNos = gameNos;
+            this.gamesSold = new long[days + 1];
+            this.salesCents = new long[days + 1];
+            this.gameGamesSold = new long[gameNos.length][days + 1];
+            this.gameSalesCents = new long[gameNos.length][days + 1];
+        }
+
+        // Daily values land in slot day + 1 and become prefix sums in accumulate()
+        void add(int epochDay, int gameNo, long count, long cents) {
+            int slot = (int) (epochDay - firstDay) + 1;
+            int game = Arrays.binarySearch(gameNos, gameNo);
+            gamesSold[slot] += count;
+            salesCents[slot] += cents;
+            gameGamesSold[game][slot] += count;
+            gameSalesCents[game][slot] += cents;
+        }
+
+        void accumulate() {
+            accumulate(gamesSold);
+            accumulate(salesCents);
+            for (int game = 0; game < gameNos.length; game++) {
+                accumulate(gameGamesSold[game]);
+                accumulate(gameSalesCents[game]);
+            }
+        }
+
+        private static void accumulate(long[] values) {
+            for (int i = 1; i < values.length; i++) {
+                values[i] += values[i - 1];
+            }
+        }
+
+        // Days outside the indexed span have no sales, so the period is clamped to it
+        long sum(long[] prefix, LocalDate fromDate, LocalDate toDate) {
+            long from = Math.max(fromDate.toEpochDay() - firstDay, 0);
+            long to = Math.min(toDate.toEpochDay() - firstDay, days - 1);
+            if (from > to) {
+                return 0;
+            }
+            return prefix[(int) to + 1] - prefix[(int) from];
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.gameSalesService.service;
+
+import com.example.gameSalesService.entity.BackfillState;
+import com.example.gameSalesService.entity.GameSalesRollup;
+import com.example.gameSalesService.entity.GameSalesRollup.Dimension;
+import com.example.gameSalesService.entity.GameSalesRollup.Granularity;
+import com.example.gameSalesService.repository.BackfillStateRepository;
+import com.example.gameSalesService.repository.GameSalesRollupRepository;
+import com.example.gameSalesService.service.writer.GameSalesRollupUpserter;
+import com.example.gameSalesService.util.SalesAggregator;
+import com.example.gameSalesService.util.SalesRollupBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Bucketed sales series read from game_sales_rollup. Buckets that lie wholly inside the period come from
+// rows of the requested granularity; a week or month cut by fromDate or toDate is summed from its DAY
+// rows inside the period, so every series adds up to /getTotalSales for the same period.
+@Service
+public class SalesSeriesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesSeriesService.class);
+
+    // The rollups' row in backfill_state
+    static final String BACKFILL = "sales-rollups";
+
+    @Autowired
+    private GameSalesRollupRepository gameSalesRollupRepository;
+
+    @Autowired
+    private GameSalesRollupUpserter gameSalesRollupUpserter;
+
+    @Autowired
+    private BackfillStateRepository backfillStateRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Upper bound on buckets x series in one response
+    @Value("${game-sales.series.max-points:100000}")
+    private long maxPoints;
+
+    // A bucket's totals; the first and last bucket only count the days inside the requested period
+    public record Point(LocalDate bucketStart, long totalGamesSold, double totalSales) {
+    }
+
+    // The points of one dimension value (0 for ALL), one per bucket including empty ones
+    public record Series(int value, List<Point> points) {
+    }
+
+    // Thrown when a request would return more than game-sales.series.max-points points
+    public static class TooManyPointsException extends RuntimeException {
+        public TooManyPointsException(long points, long maxPoints) {
+            super("Series would have " + points + " points, more than the maximum of " + maxPoints
+                    + "; use a coarser granularity or a shorter period");
+        }
+    }
+
+    // Rebuilds game_sales_rollup from game_sales unless backfill_state records that this was done. The
+    // table is cleared and refilled in the same transaction that records it, so a failed backfill leaves
+    // no marker and starts over at the next startup. Imports must wait meanwhile (see StartupBackfill),
+    // or their rows could be counted twice. Returns the number of rollup rows written.
+    public int backfill() {
+        if (backfillStateRepository.existsById(BACKFILL)) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        Integer written = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("DELETE FROM game_sales_rollup");
+            SalesAggregator byGame = new SalesAggregator();
+            SalesAggregator byType = new SalesAggregator();
+            jdbcTemplate.query("SELECT date_of_sale, game_no, type, COUNT(*), SUM(sale_price) FROM game_sales "
+                    + "GROUP BY date_of_sale, game_no, type", rs -> {
+                int epochDay = Math.toIntExact(rs.getObject(1, LocalDate.class).toEpochDay());
+                long salesCents = Math.round(rs.getDouble(5) * 100);
+                byGame.add(epochDay, rs.getInt(2), rs.getLong(4), salesCents);
+                byType.add(epochDay, rs.getInt(3), rs.getLong(4), salesCents);
+            });
+            List<GameSalesRollup> rows = byGame.size() == 0 ? List.of() : SalesRollupBuilder.of(byGame, byType).toRollups();
+            gameSalesRollupUpserter.upsert(rows);
+            BackfillState state = new BackfillState();
+            state.setName(BACKFILL);
+            state.setCompletedAt(Instant.now());
+            backfillStateRepository.save(state);
+            return rows.size();
+        });
+        logger.info("Backfilled {} sales rollup rows from game_sales in {} ms",
+                written, (System.nanoTime() - start) / 1_000_000);
+        return written;
+    }
+
+    // Number of buckets of `granularity` touching the period
+    public static long bucketCount(LocalDate fromDate, LocalDate toDate, Granularity granularity) {
+        LocalDate first = granularity.bucketStart(fromDate);
+        LocalDate last = granularity.bucketStart(toDate);
+        return switch (granularity) {
+            case DAY -> ChronoUnit.DAYS.between(first, last) + 1;
+            case WEEK -> ChronoUnit.WEEKS.between(first, last) + 1;
+            case MONTH -> ChronoUnit.MONTHS.between(first, last) + 1;
+        };
+    }
+
+    // Series of the whole period, one per value of `dimension` with sales in it, or only the one for
+    // `value` when given. Empty when nothing was sold.
+    public List<Series> series(LocalDate fromDate, LocalDate toDate, Granularity granularity,
+                               Dimension dimension, Integer value) {
+        long buckets = bucketCount(fromDate, toDate, granularity);
+        if (buckets > maxPoints) {
+            throw new TooManyPointsException(buckets, maxPoints);
+        }
+
+        // Value -> bucket start -> {games sold, sales in cents}
+        Map<Integer, TreeMap<LocalDate, long[]>> totals = new TreeMap<>();
+        LocalDate firstFull = granularity.bucketStart(fromDate).equals(fromDate)
+                ? fromDate : granularity.nextBucket(granularity.bucketStart(fromDate));
+        LocalDate lastStart = granularity.bucketStart(toDate);
+        LocalDate lastFull = granularity.nextBucket(lastStart).minusDays(1).equals(toDate)
+                ? lastStart : lastStart.minusDays(1);
+
+        if (!firstFull.isAfter(lastFull)) {
+            add(totals, granularity, read(granularity, dimension, value, firstFull, lastFull));
+        }
+        // Days of the cut buckets at either end; one bucket can be cut at both
+        if (firstFull.isAfter(fromDate)) {
+            LocalDate edgeEnd = firstFull.minusDays(1).isAfter(toDate) ? toDate : firstFull.minusDays(1);
+            add(totals, granularity, read(Granularity.DAY, dimension, value, fromDate, edgeEnd));
+        }
+        if (lastFull.isBefore(lastStart) && !lastStart.isBefore(firstFull)) {
+            add(totals, granularity, read(Granularity.DAY, dimension, value, lastStart, toDate));
+        }
+
+        if (totals.size() * buckets > maxPoints) {
+            throw new TooManyPointsException(totals.size() * buckets, maxPoints);
+        }
+        List<Series> series = new ArrayList<>(totals.size());
+        for (Map.Entry<Integer, TreeMap<LocalDate, long[]>> entry : totals.entrySet()) {
+            List<Point> points = new ArrayList<>((int) buckets);
+            for (LocalDate bucket = granularity.bucketStart(fromDate); !bucket.isAfter(toDate);
+                 bucket = granularity.nextBucket(bucket)) {
+                long[] sums = entry.getValue().getOrDefault(bucket, new long[2]);
+                points.add(new Point(bucket, sums[0], sums[1] / 100.0));
+            }
+            series.add(new Series(entry.getKey(), points));
+        }
+        return series;
+    }
+
+    private List<GameSalesRollup> read(Granularity granularity, Dimension dimension, Integer value,
+                                       LocalDate fromDate, LocalDate toDate) {
+        return value == null
+                ? gameSalesRollupRepository.findBuckets(granularity, dimension, fromDate, toDate)
+                : gameSalesRollupRepository.findBuckets(granularity, dimension, value, fromDate, toDate);
+    }
+
+    // Adds rollup rows to the bucket of `granularity` holding their bucket start
+    private static void add(Map<Integer, TreeMap<LocalDate, long[]>> totals, Granularity granularity,
+                            List<GameSalesRollup> rows) {
+        for (GameSalesRollup row : rows) {
+            long[] sums = totals.computeIfAbsent(row.getDimensionValue(), key -> new TreeMap<>())
+                    .computeIfAbsent(granularity.bucketStart(row.getBucketStart()), key -> new long[2]);
+            sums[0] += row.getTotalGamesSold();
+            sums[1] += Math.round(row.getTotalSales() * 100);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.gameSalesService.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Rollups and price sketches only exist for data imported since they were added, so they are rebuilt
+// from game_sales once. That runs on a thread of its own after startup, so a large game_sales does not
+// hold up the application. A backfill reads game_sales and then replaces the derived table, so an import
+// committing in between would be counted twice; imports take the shared side of the lock and wait while
+// a backfill holds the exclusive side.
+@Component
+public class StartupBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupBackfill.class);
+
+    @Autowired
+    private SalesSeriesService salesSeriesService;
+
+    @Autowired
+    private PriceDistributionService priceDistributionService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${game-sales.backfill.enabled:true}")
+    private boolean enabled;
+
+    // Fair, so imports queued behind a backfill cannot starve it
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(true);
+    private final ExecutorService backfillPool = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "startup-backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public void onApplicationReady() {
+        if (enabled) {
+            start();
+        }
+    }
+
+    // Runs both backfills on the backfill thread; the future completes once they have finished or failed
+    public CompletableFuture<Void> start() {
+        return CompletableFuture.runAsync(this::run, backfillPool);
+    }
+
+    // Held by an import from before it starts until its totals are committed
+    public Lock importLock() {
+        return lock.readLock();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        backfillPool.shutdownNow();
+    }
+
+    private void run() {
+        int rows = 0;
+        lock.writeLock().lock();
+        try {
+            try {
+                rows += salesSeriesService.backfill();
+            } catch (RuntimeException e) {
+                logger.warn("Failed to backfill sales rollups: {}", e.getMessage(), e);
+            }
+            try {
+                rows += priceDistributionService.backfill();
+            } catch (RuntimeException e) {
+                logger.warn("Failed to backfill price sketches: {}", e.getMessage(), e);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // Series and distributions cached before the backfill finished may be missing sales
+        if (rows > 0) {
+            eventPublisher.publishEvent(new BackfillCompletedEvent());
+        }
+    }
+}
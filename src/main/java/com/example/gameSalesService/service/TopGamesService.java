@@ -0,0 +1,58 @@
+package com.example.gameSalesService.service;
+
+import com.example.gameSalesService.repository.GameSalesAggregatedRepository;
+import com.example.gameSalesService.repository.GameSalesTotal;
+import com.example.gameSalesService.util.TopGamesSelector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Best-selling games of a period by revenue or units. Per-game totals come from SalesRollupIndex when it
+// is ready (one prefix-sum lookup per game), or from one GROUP BY game_no query otherwise, and stream
+// through a TopGamesSelector, so no more than k games plus ties are ever held or sorted.
+@Service
+public class TopGamesService {
+
+    @Autowired
+    private SalesRollupIndex salesRollupIndex;
+
+    @Autowired
+    private GameSalesAggregatedRepository gameSalesAggregatedRepository;
+
+    @Value("${game-sales.top-games.default-k:10}")
+    private int defaultK;
+
+    @Value("${game-sales.top-games.max-k:100}")
+    private int maxK;
+
+    // Games tied on the metric share a rank, and the next rank skips past them (1, 2, 2, 4)
+    public record RankedGame(int rank, GameSalesTotal total) {
+    }
+
+    // k defaults to game-sales.top-games.default-k; throws IllegalArgumentException outside 1..max-k
+    public List<RankedGame> top(LocalDate fromDate, LocalDate toDate, TopGamesSelector.Metric metric, Integer k,
+                                boolean withTies) {
+        int limit = k != null ? k : defaultK;
+        if (limit < 1 || limit > maxK) {
+            throw new IllegalArgumentException("k must be between 1 and " + maxK);
+        }
+        TopGamesSelector selector = new TopGamesSelector(metric, limit, withTies);
+        if (salesRollupIndex.isReady()) {
+            salesRollupIndex.forEachGame(fromDate, toDate, selector::offer);
+        } else {
+            gameSalesAggregatedRepository.sumByGameNo(fromDate, toDate).forEach(selector::offer);
+        }
+
+        List<GameSalesTotal> top = selector.result();
+        List<RankedGame> ranked = new ArrayList<>(top.size());
+        for (int i = 0; i < top.size(); i++) {
+            boolean tied = i > 0 && metric.value(top.get(i)) == metric.value(top.get(i - 1));
+            ranked.add(new RankedGame(tied ? ranked.get(i - 1).rank() : i + 1, top.get(i)));
+        }
+        return ranked;
+    }
+}
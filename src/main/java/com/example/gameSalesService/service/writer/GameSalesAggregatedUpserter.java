@@ -0,0 +1,52 @@
+package com.example.gameSalesService.service.writer;
+
+import com.example.gameSalesService.entity.GameSalesAggregated;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Adds an import's per-day totals onto game_sales_aggregated, keyed by the unique (date_of_sale, game_no).
+// Existing rows are incremented in place, so the table holds one row per day and game however many files
+// are imported. Rows are written in key order so concurrent imports lock them in the same order.
+@Component
+public class GameSalesAggregatedUpserter {
+
+    static final String UPSERT_SQL = "INSERT INTO game_sales_aggregated (date_of_sale, game_no, total_games_sold, total_sales) "
+            + "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE "
+            + "total_games_sold = total_games_sold + VALUES(total_games_sold), "
+            + "total_sales = total_sales + VALUES(total_sales)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public GameSalesAggregatedUpserter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                       @Value("${game-sales.import.aggregate-batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    // All aggregates of one import are applied in a single transaction, so a failed import adds nothing
+    public void upsert(List<GameSalesAggregated> aggregates) {
+        if (aggregates.isEmpty()) {
+            return;
+        }
+        List<GameSalesAggregated> ordered = new ArrayList<>(aggregates);
+        ordered.sort(Comparator.comparing(GameSalesAggregated::getDateOfSale)
+                .thenComparing(GameSalesAggregated::getGameNo));
+
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(UPSERT_SQL, ordered, batchSize, (ps, aggregated) -> {
+                    ps.setObject(1, aggregated.getDateOfSale());
+                    ps.setInt(2, aggregated.getGameNo());
+                    ps.setInt(3, aggregated.getTotalGamesSold());
+                    ps.setDouble(4, aggregated.getTotalSales());
+                }));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.gameSalesService.service.writer;
+
+import com.example.gameSalesService.entity.GameSalesPriceSketch;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// Appends an import's day and month price sketches to game_sales_price_sketch. Nothing is updated in
+// place, so concurrent imports never wait on each other's rows.
+@Component
+public class GameSalesPriceSketchWriter {
+
+    static final String INSERT_SQL = "INSERT INTO game_sales_price_sketch (granularity, game_no, bucket_start, sketch) "
+            + "VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public GameSalesPriceSketchWriter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                      @Value("${game-sales.import.aggregate-batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    // Joins the caller's transaction if there is one
+    public void insert(List<GameSalesPriceSketch> sketches) {
+        if (sketches.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_SQL, sketches, batchSize, (ps, sketch) -> {
+                    ps.setString(1, sketch.getGranularity().name());
+                    ps.setInt(2, sketch.getGameNo());
+                    ps.setObject(3, sketch.getBucketStart());
+                    ps.setBytes(4, sketch.getSketch());
+                }));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.gameSalesService.service.writer;
+
+import com.example.gameSalesService.entity.GameSalesRollup;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Adds an import's day, week and month totals onto game_sales_rollup, keyed by the unique
+// (granularity, dimension, dimension_value, bucket_start). Works like GameSalesAggregatedUpserter:
+// rows are incremented in place and written in key order so concurrent imports lock them in the same order.
+@Component
+public class GameSalesRollupUpserter {
+
+    static final String UPSERT_SQL = "INSERT INTO game_sales_rollup "
+            + "(granularity, dimension, dimension_value, bucket_start, total_games_sold, total_sales) "
+            + "VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE "
+            + "total_games_sold = total_games_sold + VALUES(total_games_sold), "
+            + "total_sales = total_sales + VALUES(total_sales)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public GameSalesRollupUpserter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                   @Value("${game-sales.import.aggregate-batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    // Joins the caller's transaction if there is one, so an import can apply its aggregates and rollups together
+    public void upsert(List<GameSalesRollup> rollups) {
+        if (rollups.isEmpty()) {
+            return;
+        }
+        List<GameSalesRollup> ordered = new ArrayList<>(rollups);
+        ordered.sort(Comparator.comparing(GameSalesRollup::getGranularity)
+                .thenComparing(GameSalesRollup::getDimension)
+                .thenComparing(GameSalesRollup::getDimensionValue)
+                .thenComparing(GameSalesRollup::getBucketStart));
+
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(UPSERT_SQL, ordered, batchSize, (ps, rollup) -> {
+                    ps.setString(1, rollup.getGranularity().name());
+                    ps.setString(2, rollup.getDimension().name());
+                    ps.setInt(3, rollup.getDimensionValue());
+                    ps.setObject(4, rollup.getBucketStart());
+                    ps.setLong(5, rollup.getTotalGamesSold());
+                    ps.setDouble(6, rollup.getTotalSales());
+                }));
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.gameSalesService.service.writer;
+
+import com.example.gameSalesService.entity.Game;
+
+import java.util.List;
+
+// Persists a batch of parsed game_sales rows. The implementation is chosen with the
+// game-sales.import.writer property (jdbc, load-data or jpa).
+public interface GameSalesWriter {
+
+    // Writes the batch in its own transaction; throws if the batch could not be stored
+    void write(List<Game> games);
+}
@@ -0,0 +1,86 @@
+package com.example.gameSalesService.service.writer;
+
+import com.example.gameSalesService.entity.Game;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Writes rows with multi-row INSERT statements sent as one JDBC batch, skipping the persistence
+// context and dirty checking entirely. This works the same with or without rewriteBatchedStatements.
+@Component
+@ConditionalOnProperty(name = "game-sales.import.writer", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcBatchGameSalesWriter implements GameSalesWriter {
+
+    static final String COLUMNS = "id, game_no, game_name, game_code, type, cost_price, tax, sale_price, date_of_sale";
+    private static final int COLUMN_COUNT = 9;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int rowsPerStatement;
+    private final String fullStatementSql;
+
+    public JdbcBatchGameSalesWriter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                    @Value("${game-sales.import.jdbc.rows-per-statement:500}") int rowsPerStatement) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.rowsPerStatement = rowsPerStatement;
+        this.fullStatementSql = insertSql(rowsPerStatement);
+    }
+
+    @Override
+    public void write(List<Game> games) {
+        if (games.isEmpty()) {
+            return;
+        }
+        int fullStatements = games.size() / rowsPerStatement;
+        int tail = games.size() % rowsPerStatement;
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (fullStatements > 0) {
+                List<List<Game>> chunks = new ArrayList<>(fullStatements);
+                for (int i = 0; i < fullStatements; i++) {
+                    chunks.add(games.subList(i * rowsPerStatement, (i + 1) * rowsPerStatement));
+                }
+                jdbcTemplate.batchUpdate(fullStatementSql, chunks, fullStatements,
+                        JdbcBatchGameSalesWriter::bind);
+            }
+            if (tail > 0) {
+                jdbcTemplate.update(insertSql(tail), ps -> bind(ps, games.subList(games.size() - tail, games.size())));
+            }
+        });
+    }
+
+    private static void bind(PreparedStatement ps, List<Game> games) throws SQLException {
+        int index = 1;
+        for (Game game : games) {
+            ps.setLong(index++, game.getId());
+            ps.setInt(index++, game.getGameNo());
+            ps.setString(index++, game.getGameName());
+            ps.setString(index++, game.getGameCode());
+            ps.setInt(index++, game.getType());
+            ps.setDouble(index++, game.getCostPrice());
+            ps.setDouble(index++, game.getTax());
+            ps.setDouble(index++, game.getSalePrice());
+            ps.setObject(index++, game.getDateOfSale());
+        }
+    }
+
+    static String insertSql(int rows) {
+        String values = "(" + "?,".repeat(COLUMN_COUNT - 1) + "?)";
+        StringBuilder sql = new StringBuilder("INSERT INTO game_sales (" + COLUMNS + ") VALUES ");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(',');
+            }
+            sql.append(values);
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.gameSalesService.service.writer;
+
+import com.example.gameSalesService.entity.Game;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// The original import path: every row goes through EntityManager.persist
+@Component
+@ConditionalOnProperty(name = "game-sales.import.writer", havingValue = "jpa")
+public class JpaGameSalesWriter implements GameSalesWriter {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public JpaGameSalesWriter(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void write(List<Game> games) {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        EntityTransaction transaction = em.getTransaction();
+
+        try {
+            transaction.begin();
+            for (Game game : games) {
+                em.persist(game);
+            }
+            transaction.commit();
+        } catch (RuntimeException e) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+}
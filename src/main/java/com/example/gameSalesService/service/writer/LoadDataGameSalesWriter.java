@@ -0,0 +1,138 @@
+package com.example.gameSalesService.service.writer;
+
+import com.example.gameSalesService.entity.Game;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+import java.util.List;
+
+// Streams each batch to MySQL with LOAD DATA LOCAL INFILE, the fastest bulk path the server offers.
+// Needs allowLoadLocalInfile=true on the JDBC URL and local_infile=ON on the server. With any other
+// driver the batches go through the multi-row JDBC writer instead.
+// LOAD DATA LOCAL downgrades duplicate keys and bad values to warnings and skips or mangles those rows, so
+// a batch only counts as written when every row was inserted without a warning; otherwise it is rolled
+// back and fails like a batch of the JDBC writer would.
+@Component
+@ConditionalOnProperty(name = "game-sales.import.writer", havingValue = "load-data")
+public class LoadDataGameSalesWriter implements GameSalesWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadDataGameSalesWriter.class);
+
+    private static final String LOAD_DATA_SQL = "LOAD DATA LOCAL INFILE 'game_sales.csv' INTO TABLE game_sales "
+            + "CHARACTER SET utf8mb4 FIELDS TERMINATED BY ',' LINES TERMINATED BY '\\n' ("
+            + JdbcBatchGameSalesWriter.COLUMNS + ")";
+
+    // Connector/J is a runtime dependency, so its statement extension is looked up reflectively
+    private static final Class<?> MYSQL_STATEMENT = loadClass("com.mysql.cj.jdbc.JdbcStatement");
+    private static final Method SET_LOCAL_INFILE_INPUT_STREAM = MYSQL_STATEMENT == null ? null
+            : findMethod(MYSQL_STATEMENT, "setLocalInfileInputStream", InputStream.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcBatchGameSalesWriter fallback;
+    private volatile boolean fallbackLogged;
+
+    public LoadDataGameSalesWriter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                   @Value("${game-sales.import.jdbc.rows-per-statement:500}") int rowsPerStatement) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.fallback = new JdbcBatchGameSalesWriter(jdbcTemplate, transactionTemplate, rowsPerStatement);
+    }
+
+    @Override
+    public void write(List<Game> games) {
+        if (games.isEmpty()) {
+            return;
+        }
+        byte[] csv = encode(games);
+        boolean loaded = Boolean.TRUE.equals(transactionTemplate.execute(status -> jdbcTemplate.execute((Statement statement) -> {
+            if (SET_LOCAL_INFILE_INPUT_STREAM == null || !statement.isWrapperFor(MYSQL_STATEMENT)) {
+                return false;
+            }
+            try {
+                SET_LOCAL_INFILE_INPUT_STREAM.invoke(statement.unwrap(MYSQL_STATEMENT), new ByteArrayInputStream(csv));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Unable to attach LOAD DATA input stream", e);
+            }
+            statement.execute(LOAD_DATA_SQL);
+            int inserted = statement.getUpdateCount();
+            SQLWarning warning = statement.getWarnings();
+            if (inserted != games.size() || warning != null) {
+                throw new IllegalStateException("LOAD DATA inserted " + inserted + " of " + games.size() + " rows"
+                        + (warning != null ? ": " + warning.getMessage() : ""));
+            }
+            return true;
+        })));
+
+        if (!loaded) {
+            if (!fallbackLogged) {
+                fallbackLogged = true;
+                logger.warn("LOAD DATA LOCAL INFILE is not supported by the current JDBC driver, using batched inserts");
+            }
+            fallback.write(games);
+        }
+    }
+
+    static byte[] encode(List<Game> games) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(games.size() * 64);
+        StringBuilder line = new StringBuilder(96);
+        for (Game game : games) {
+            line.setLength(0);
+            line.append(game.getId()).append(',')
+                    .append(game.getGameNo()).append(',');
+            appendEscaped(line, game.getGameName()).append(',');
+            appendEscaped(line, game.getGameCode()).append(',')
+                    .append(game.getType()).append(',')
+                    .append(game.getCostPrice()).append(',')
+                    .append(game.getTax()).append(',')
+                    .append(game.getSalePrice()).append(',')
+                    .append(game.getDateOfSale()).append('\n');
+            out.writeBytes(line.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+
+    // LOAD DATA's default ESCAPED BY '\\': the escape character itself, the separators and line breaks
+    private static StringBuilder appendEscaped(StringBuilder line, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> line.append("\\\\");
+                case ',' -> line.append("\\,");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> line.append(c);
+            }
+        }
+        return line;
+    }
+
+    private static Class<?> loadClass(String name) {
+        try {
+            return Class.forName(name, false, LoadDataGameSalesWriter.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static Method findMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            return type.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.gameSalesService.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public final class FileTransferUtils {
+
+    // Upper bound handed to a single transferFrom call; the JDK moves the data through a small reusable buffer
+    private static final long TRANSFER_CHUNK = 8L * 1024 * 1024;
+
+    private FileTransferUtils() {
+    }
+
+    // Creates a temp file and streams the input into it, so the upload never has to fit in the heap
+    public static Path copyToTempFile(InputStream in, String prefix, String suffix) throws IOException {
+        Path tempFile = Files.createTempFile(prefix, suffix);
+        try {
+            transferTo(in, tempFile);
+            return tempFile;
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    // Copies the stream to the target with NIO channel transfer and returns the number of bytes written
+    public static long transferTo(InputStream in, Path target) throws IOException {
+        try (ReadableByteChannel source = Channels.newChannel(in);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = 0;
+            long transferred;
+            // A blocking source only returns 0 once it is exhausted
+            while ((transferred = out.transferFrom(source, position, TRANSFER_CHUNK)) > 0) {
+                position += transferred;
+            }
+            return position;
+        }
+    }
+}
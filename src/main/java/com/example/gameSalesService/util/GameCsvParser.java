@@ -0,0 +1,462 @@
+package com.example.gameSalesService.util;
+
+import com.example.gameSalesService.entity.Game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+// Parses game_sales CSV rows straight from a memory-mapped file. Numbers, prices and dates are decoded
+// from the bytes, repeated names and dates come from small caches, and every row is delivered through the
+// same mutable Row instance, so a parsed row allocates nothing beyond the occasional cache miss.
+// An instance keeps per-thread caches and is not thread-safe; use one parser per worker.
+public class GameCsvParser {
+
+    // A single mapping is limited to 2GB; larger inputs are parsed as several newline-aligned windows
+    static final long MAX_MAPPING_SIZE = 1L << 30;
+
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+
+    // Beyond 15 digits the mantissa may not be exact as a double, so such values go through Double.parseDouble
+    private static final int MAX_FAST_DECIMAL_DIGITS = 15;
+
+    private static final int STRING_CACHE_SIZE = 256;
+    private static final int STRING_CACHE_PROBES = 4;
+    private static final int DATE_CACHE_SIZE = 1024;
+
+    // Stackless, shared signal for a row that cannot be parsed; it never escapes this class
+    private static final MalformedRowException MALFORMED = new MalformedRowException();
+
+    @FunctionalInterface
+    public interface RowHandler {
+        void onRow(Row row);
+    }
+
+    private final Row row = new Row();
+
+    private final byte[][] stringCacheKeys = new byte[STRING_CACHE_SIZE][];
+    private final String[] stringCacheValues = new String[STRING_CACHE_SIZE];
+
+    private final int[] dateCacheKeys = new int[DATE_CACHE_SIZE];
+    private final LocalDate[] dateCacheValues = new LocalDate[DATE_CACHE_SIZE];
+    private final int[] dateCacheEpochDays = new int[DATE_CACHE_SIZE];
+
+    private ByteBuffer buffer;
+    private int pos;
+    private int lineEnd;
+
+    private long rowsParsed;
+    private long malformedRows;
+
+    // Parses the whole file on the calling thread and returns the number of rows delivered
+    public long parse(Path file, RowHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long before = rowsParsed;
+            long start = 0;
+            while (start < size) {
+                long end = start + MAX_MAPPING_SIZE >= size ? size : nextLineStart(channel, start + MAX_MAPPING_SIZE);
+                parse(channel, start, end, handler);
+                start = end;
+            }
+            return rowsParsed - before;
+        }
+    }
+
+    // Parses the rows in [start, end); start must be the beginning of a line and end either a line start or EOF
+    public long parse(FileChannel channel, long start, long end, RowHandler handler) throws IOException {
+        if (end - start > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Range too large to map: " + (end - start) + " bytes");
+        }
+        if (end <= start) {
+            return 0;
+        }
+        long before = rowsParsed;
+        parse(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start), start == 0, handler);
+        return rowsParsed - before;
+    }
+
+    // Returns the offset just past the first newline at or after position, or the file size if there is none
+    public static long nextLineStart(FileChannel channel, long position) throws IOException {
+        long size = channel.size();
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long offset = position;
+        while (offset < size) {
+            probe.clear();
+            int read = channel.read(probe, offset);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return size;
+    }
+
+    public long getRowsParsed() {
+        return rowsParsed;
+    }
+
+    public long getMalformedRows() {
+        return malformedRows;
+    }
+
+    private void parse(ByteBuffer buf, boolean mayStartWithHeader, RowHandler handler) {
+        this.buffer = buf;
+        int limit = buf.limit();
+        int lineStart = 0;
+
+        while (lineStart < limit) {
+            int newline = indexOfNewline(buf, lineStart, limit);
+            int next = newline < 0 ? limit : newline + 1;
+            lineEnd = newline < 0 ? limit : newline;
+            if (lineEnd > lineStart && buf.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+
+            // Blank lines and the header (the only line that does not start with a digit) are skipped silently
+            boolean header = mayStartWithHeader && lineStart == 0 && !isDigit(buf.get(0));
+            if (lineEnd > lineStart && !header) {
+                pos = lineStart;
+                if (parseRow()) {
+                    rowsParsed++;
+                    handler.onRow(row);
+                } else {
+                    malformedRows++;
+                }
+            }
+            lineStart = next;
+        }
+        this.buffer = null;
+    }
+
+    private boolean parseRow() {
+        try {
+            row.id = readLong();
+            expectComma();
+            row.gameNo = readInt();
+            expectComma();
+            row.gameName = readString();
+            expectComma();
+            row.gameCode = readString();
+            expectComma();
+            row.type = readInt();
+            expectComma();
+            row.costPrice = readDecimal();
+            expectComma();
+            row.tax = readDecimal();
+            expectComma();
+            row.salePrice = readDecimal();
+            // A sale cannot have a negative price, and the price sketches cannot hold one
+            if (row.salePrice < 0) {
+                throw MALFORMED;
+            }
+            expectComma();
+            readDate();
+            return true;
+        } catch (MalformedRowException e) {
+            return false;
+        }
+    }
+
+    private void expectComma() {
+        if (pos >= lineEnd || buffer.get(pos) != ',') {
+            throw MALFORMED;
+        }
+        pos++;
+    }
+
+    private long readLong() {
+        boolean negative = pos < lineEnd && buffer.get(pos) == '-';
+        if (negative) {
+            pos++;
+        }
+        int start = pos;
+        long value = 0;
+        while (pos < lineEnd) {
+            byte b = buffer.get(pos);
+            if (!isDigit(b)) {
+                break;
+            }
+            // 18 digits always fit in a long
+            if (pos - start >= 18) {
+                throw MALFORMED;
+            }
+            value = value * 10 + (b - '0');
+            pos++;
+        }
+        if (pos == start) {
+            throw MALFORMED;
+        }
+        return negative ? -value : value;
+    }
+
+    private int readInt() {
+        long value = readLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw MALFORMED;
+        }
+        return (int) value;
+    }
+
+    private double readDecimal() {
+        int fieldStart = pos;
+        boolean negative = pos < lineEnd && buffer.get(pos) == '-';
+        if (negative) {
+            pos++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        while (pos < lineEnd) {
+            byte b = buffer.get(pos);
+            if (isDigit(b)) {
+                if (++digits > MAX_FAST_DECIMAL_DIGITS) {
+                    return readDecimalSlow(fieldStart);
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (b == '.' && scale < 0) {
+                scale = 0;
+            } else if (b == ',') {
+                break;
+            } else {
+                // Exponents, signs and other notations are rare enough to leave to the JDK
+                return readDecimalSlow(fieldStart);
+            }
+            pos++;
+        }
+        if (digits == 0) {
+            throw MALFORMED;
+        }
+        if (scale < 0) {
+            scale = 0;
+        }
+        // Both operands are exact doubles, so the single division is correctly rounded like Double.parseDouble
+        double value = mantissa / POW10[scale];
+        return negative ? -value : value;
+    }
+
+    private double readDecimalSlow(int fieldStart) {
+        pos = fieldStart;
+        while (pos < lineEnd && buffer.get(pos) != ',') {
+            pos++;
+        }
+        byte[] bytes = new byte[pos - fieldStart];
+        buffer.get(fieldStart, bytes);
+        try {
+            return Double.parseDouble(new String(bytes, StandardCharsets.ISO_8859_1));
+        } catch (NumberFormatException e) {
+            throw MALFORMED;
+        }
+    }
+
+    private String readString() {
+        int start = pos;
+        int hash = 0x811c9dc5;
+        while (pos < lineEnd) {
+            byte b = buffer.get(pos);
+            if (b == ',') {
+                break;
+            }
+            hash = (hash ^ b) * 0x01000193;
+            pos++;
+        }
+        int length = pos - start;
+        if (length == 0) {
+            throw MALFORMED;
+        }
+
+        // Short linear probe so a couple of colliding names do not keep evicting each other
+        int home = (hash ^ (hash >>> 16)) & (STRING_CACHE_SIZE - 1);
+        int free = -1;
+        for (int i = 0; i < STRING_CACHE_PROBES; i++) {
+            int slot = (home + i) & (STRING_CACHE_SIZE - 1);
+            byte[] cached = stringCacheKeys[slot];
+            if (cached == null) {
+                free = slot;
+                break;
+            }
+            if (cached.length == length && sameBytes(cached, start)) {
+                return stringCacheValues[slot];
+            }
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(start, bytes);
+        String value = new String(bytes, StandardCharsets.UTF_8);
+        int slot = free >= 0 ? free : home;
+        stringCacheKeys[slot] = bytes;
+        stringCacheValues[slot] = value;
+        return value;
+    }
+
+    private boolean sameBytes(byte[] cached, int start) {
+        for (int i = 0; i < cached.length; i++) {
+            if (cached[i] != buffer.get(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Reads an ISO yyyy-MM-dd date; a trailing time part (e.g. 2024-04-01T10:00:00) is accepted and ignored
+    private void readDate() {
+        if (lineEnd - pos < 10 || buffer.get(pos + 4) != '-' || buffer.get(pos + 7) != '-') {
+            throw MALFORMED;
+        }
+        int year = digits(pos, 4);
+        int month = digits(pos + 5, 2);
+        int day = digits(pos + 8, 2);
+        pos += 10;
+        if (pos < lineEnd) {
+            byte separator = buffer.get(pos);
+            if (separator != 'T' && separator != ' ') {
+                throw MALFORMED;
+            }
+            for (int i = pos; i < lineEnd; i++) {
+                if (buffer.get(i) == ',') {
+                    throw MALFORMED;
+                }
+            }
+            pos = lineEnd;
+        }
+
+        int key = year * 10000 + month * 100 + day;
+        int slot = (key * 0x9E3779B1 >>> 22) & (DATE_CACHE_SIZE - 1);
+        LocalDate date = dateCacheValues[slot];
+        if (date == null || dateCacheKeys[slot] != key) {
+            try {
+                date = LocalDate.of(year, month, day);
+            } catch (DateTimeException e) {
+                throw MALFORMED;
+            }
+            dateCacheKeys[slot] = key;
+            dateCacheValues[slot] = date;
+            dateCacheEpochDays[slot] = (int) date.toEpochDay();
+        }
+        row.dateOfSale = date;
+        row.epochDay = dateCacheEpochDays[slot];
+    }
+
+    private int digits(int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            byte b = buffer.get(i);
+            if (!isDigit(b)) {
+                throw MALFORMED;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static int indexOfNewline(ByteBuffer buf, int from, int limit) {
+        for (int i = from; i < limit; i++) {
+            if (buf.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // The current row; its values are overwritten by the next row, so copy out anything that must outlive the callback
+    public static final class Row {
+
+        private long id;
+        private int gameNo;
+        private String gameName;
+        private String gameCode;
+        private int type;
+        private double costPrice;
+        private double tax;
+        private double salePrice;
+        private LocalDate dateOfSale;
+        private int epochDay;
+
+        private Row() {
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public int getGameNo() {
+            return gameNo;
+        }
+
+        public String getGameName() {
+            return gameName;
+        }
+
+        public String getGameCode() {
+            return gameCode;
+        }
+
+        public int getType() {
+            return type;
+        }
+
+        public double getCostPrice() {
+            return costPrice;
+        }
+
+        public double getTax() {
+            return tax;
+        }
+
+        public double getSalePrice() {
+            return salePrice;
+        }
+
+        public LocalDate getDateOfSale() {
+            return dateOfSale;
+        }
+
+        public int getEpochDay() {
+            return epochDay;
+        }
+
+        public Game toGame() {
+            Game game = new Game();
+            game.setId(id);
+            game.setGameNo(gameNo);
+            game.setGameName(gameName);
+            game.setGameCode(gameCode);
+            game.setType(type);
+            game.setCostPrice(costPrice);
+            game.setTax(tax);
+            game.setSalePrice(salePrice);
+            game.setDateOfSale(dateOfSale);
+            return game;
+        }
+
+        @Override
+        public String toString() {
+            return "Row" + Arrays.asList(id, gameNo, gameName, gameCode, type, costPrice, tax, salePrice, dateOfSale);
+        }
+    }
+
+    private static final class MalformedRowException extends RuntimeException {
+        MalformedRowException() {
+            super("Malformed CSV row", null, false, false);
+        }
+    }
+}
@@ -3,50 +3,277 @@ package com.example.gameSalesService.util;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.FileWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
-import java.util.Random;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
 
+// Writes game_sales CSV files of any size. Rows are generated in blocks of BLOCK_ROWS on `threads` workers,
+// encoded straight to bytes (names, codes and dates are pre-encoded, numbers written digit by digit) and
+// written in order through one FileChannel. Every block draws from its own SplittableRandom seeded from
+// the seed and the block number, so a seed always produces the same file, whatever the thread count.
+// With gzip each block is compressed on its worker as a separate gzip member; the concatenated members
+// are one valid gzip file (gunzip and GZIPInputStream read them all).
 public class GameSalesCsvGenerator {
 
     private static final Logger logger = LoggerFactory.getLogger(GameSalesCsvGenerator.class);
 
     public static final int RECORD_COUNT = 1_000_000;
 
-    public static void main(String[] args) {
-        generateCsvFile("src/main/resources/game_sales_records.csv", RECORD_COUNT);
+    static final int BLOCK_ROWS = 1 << 16;
+
+    private static final byte[] HEADER =
+            "id,game_no,game_name,game_code,type,cost_price,tax,sale_price,date_of_sale\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[][] GAME_NAMES = ascii("SuperFun", "MegaGame", "BattleQuest", "SkyWarrior", "MysticLand",
+            "RacingPro", "PuzzleMaster", "ArcadeChamp", "DungeonExplorer", "HeroSaga");
+    private static final byte[][] GAME_CODES = ascii("SG1", "MG2", "BQ3", "SW4", "ML5", "RP6", "PM7", "AC8", "DE9", "HS0");
+    // Longest row but its date: 19-digit id, 10-digit game_no, the longest name, a code, the type, prices
+    // of at most 6 characters (109.00) and 9 separators
+    private static final int MAX_ROW_BYTES_WITHOUT_DATE = 19 + 10 + 15 + 3 + 1 + 3 * 6 + 9;
+
+    // What to generate. Defaults: seed 42, sales spread evenly over the 30 days from 2024-04-01 and over
+    // games 1 to 100, one thread per core, plain CSV. skew is the Zipf exponent of game_no popularity:
+    // 0 is uniform, around 1 makes game 1 the best seller, game 2 half as popular, game 3 a third, and so on.
+    public record Options(long seed, LocalDate firstDay, int days, int games, double skew, int threads, boolean gzip) {
+
+        public Options {
+            if (days < 1 || games < 1 || threads < 1 || skew < 0) {
+                throw new IllegalArgumentException("days, games and threads must be positive and skew not negative");
+            }
+        }
+
+        public static Options defaults() {
+            return new Options(42, LocalDate.of(2024, 4, 1), 30, 100, 0, Runtime.getRuntime().availableProcessors(), false);
+        }
+
+        public Options withSeed(long seed) {
+            return new Options(seed, firstDay, days, games, skew, threads, gzip);
+        }
+
+        public Options withDates(LocalDate firstDay, int days) {
+            return new Options(seed, firstDay, days, games, skew, threads, gzip);
+        }
+
+        public Options withGames(int games, double skew) {
+            return new Options(seed, firstDay, days, games, skew, threads, gzip);
+        }
+
+        public Options withThreads(int threads) {
+            return new Options(seed, firstDay, days, games, skew, threads, gzip);
+        }
+
+        public Options withGzip(boolean gzip) {
+            return new Options(seed, firstDay, days, games, skew, threads, gzip);
+        }
     }
 
+    // Usage: GameSalesCsvGenerator [file] [rows] [seed=42] [from=2024-04-01] [days=30] [games=100] [skew=0]
+    //   [threads=cores] [gzip=false]
+    public static void main(String[] args) throws IOException {
+        String file = args.length > 0 ? args[0] : "src/main/resources/game_sales_records.csv";
+        long rows = args.length > 1 ? Long.parseLong(args[1]) : RECORD_COUNT;
+        Options options = Options.defaults();
+        for (int i = 2; i < args.length; i++) {
+            String[] option = args[i].split("=", 2);
+            if (option.length != 2) {
+                throw new IllegalArgumentException("Expected name=value: " + args[i]);
+            }
+            options = switch (option[0]) {
+                case "seed" -> options.withSeed(Long.parseLong(option[1]));
+                case "from" -> options.withDates(LocalDate.parse(option[1]), options.days());
+                case "days" -> options.withDates(options.firstDay(), Integer.parseInt(option[1]));
+                case "games" -> options.withGames(Integer.parseInt(option[1]), options.skew());
+                case "skew" -> options.withGames(options.games(), Double.parseDouble(option[1]));
+                case "threads" -> options.withThreads(Integer.parseInt(option[1]));
+                case "gzip" -> options.withGzip(Boolean.parseBoolean(option[1]));
+                default -> throw new IllegalArgumentException("Unknown option: " + option[0]);
+            };
+        }
+        generate(Path.of(file), rows, options);
+    }
+
+    // recordCount rows with the default options
     public static void generateCsvFile(String filePath, int recordCount) {
-        String[] gameNames = {"SuperFun", "MegaGame", "BattleQuest", "SkyWarrior", "MysticLand", "RacingPro", "PuzzleMaster", "ArcadeChamp", "DungeonExplorer", "HeroSaga"};
-        String[] gameCodes = {"SG1", "MG2", "BQ3", "SW4", "ML5", "RP6", "PM7", "AC8", "DE9", "HS0"};
-        Random random = new Random();
-
-        try (FileWriter writer = new FileWriter(filePath)) {
-            // Write the CSV header
-            writer.append("id,game_no,game_name,game_code,type,cost_price,tax,sale_price,date_of_sale\n");
-
-            for (int i = 1; i <= recordCount; i++) {
-                int gameNo = random.nextInt(100) + 1;
-                String gameName = gameNames[random.nextInt(gameNames.length)];
-                String gameCode = gameCodes[random.nextInt(gameCodes.length)];
-                int type = random.nextBoolean() ? 1 : 2;
-                double costPrice = Math.round((random.nextDouble() * 100) * 100.0) / 100.0; // Cost price not more than 100, rounded to 2 decimal places
-                double tax = Math.round((costPrice * 0.09) * 100.0) / 100.0; // 9% tax
-                double salePrice = Math.round((costPrice + tax) * 100.0) / 100.0; // Sale price inclusive of tax
-                // Generate a random date between April 1st and April 30th of the current year
-                LocalDate dateOfSale = LocalDate.of(2024, 4, 1).plusDays(random.nextInt(30));
-
-                // Write each record to CSV
-                writer.append(String.format("%d,%d,%s,%s,%d,%.2f,%.2f,%.2f,%s\n",
-                        i, gameNo, gameName, gameCode, type, costPrice, tax, salePrice, dateOfSale));
+        try {
+            generate(Path.of(filePath), recordCount, Options.defaults());
+        } catch (IOException e) {
+            logger.error("Error occurred while writing the CSV file: {}", e.getMessage(), e);
+        }
+    }
+
+    // Writes a header and `rows` rows with ids 1 to rows, replacing the file if it exists
+    public static void generate(Path file, long rows, Options options) throws IOException {
+        long start = System.nanoTime();
+        double[] gameCdf = options.skew() > 0 ? zipfCdf(options.games(), options.skew()) : null;
+        byte[][] dates = new byte[options.days()][];
+        for (int day = 0; day < dates.length; day++) {
+            dates[day] = options.firstDay().plusDays(day).toString().getBytes(StandardCharsets.US_ASCII);
+        }
+
+        long blocks = Math.max(1, (rows + BLOCK_ROWS - 1) / BLOCK_ROWS);
+        ExecutorService executor = Executors.newFixedThreadPool(options.threads());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            // Blocks are written in order; at most two per thread are generated ahead of the writes
+            Deque<Future<byte[]>> pending = new ArrayDeque<>();
+            long next = 0;
+            while (next < blocks || !pending.isEmpty()) {
+                while (next < blocks && pending.size() < 2 * options.threads()) {
+                    long block = next++;
+                    pending.add(executor.submit(() -> block(block, rows, options, gameCdf, dates)));
+                }
+                ByteBuffer bytes = ByteBuffer.wrap(await(pending.poll()));
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
             }
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+        logger.info("CSV file created successfully at {}: {} rows in {} ms ({} rows/s)",
+                file, rows, elapsed / 1_000_000, Math.round(rows / (elapsed / 1e9)));
+    }
 
-            logger.info("CSV file created successfully at {}", filePath);
+    // The encoded (and, with gzip, compressed) rows of one block; block 0 starts with the header
+    private static byte[] block(long block, long rows, Options options, double[] gameCdf, byte[][] dates) {
+        long firstId = block * BLOCK_ROWS + 1;
+        int count = (int) Math.min(BLOCK_ROWS, rows - firstId + 1);
+        SplittableRandom random = new SplittableRandom(options.seed() ^ (block * 0x9E3779B97F4A7C15L));
+        byte[] out = new byte[HEADER.length + count * (MAX_ROW_BYTES_WITHOUT_DATE + dates[dates.length - 1].length)];
+        int pos = 0;
+        if (block == 0) {
+            System.arraycopy(HEADER, 0, out, 0, HEADER.length);
+            pos = HEADER.length;
+        }
+        for (int i = 0; i < count; i++) {
+            int gameNo = gameCdf != null ? zipf(gameCdf, random) : random.nextInt(options.games()) + 1;
+            byte[] gameName = GAME_NAMES[random.nextInt(GAME_NAMES.length)];
+            byte[] gameCode = GAME_CODES[random.nextInt(GAME_CODES.length)];
+            int type = random.nextBoolean() ? 1 : 2;
+            // Cost price up to 100.00, 9% tax, sale price inclusive of tax, all in whole cents
+            long costCents = Math.round(random.nextDouble() * 10_000);
+            long taxCents = (costCents * 9 + 50) / 100;
+            byte[] date = dates[random.nextInt(dates.length)];
 
+            pos = writeLong(out, pos, firstId + i);
+            out[pos++] = ',';
+            pos = writeLong(out, pos, gameNo);
+            out[pos++] = ',';
+            System.arraycopy(gameName, 0, out, pos, gameName.length);
+            pos += gameName.length;
+            out[pos++] = ',';
+            System.arraycopy(gameCode, 0, out, pos, gameCode.length);
+            pos += gameCode.length;
+            out[pos++] = ',';
+            out[pos++] = (byte) ('0' + type);
+            out[pos++] = ',';
+            pos = writeCents(out, pos, costCents);
+            out[pos++] = ',';
+            pos = writeCents(out, pos, taxCents);
+            out[pos++] = ',';
+            pos = writeCents(out, pos, costCents + taxCents);
+            out[pos++] = ',';
+            System.arraycopy(date, 0, out, pos, date.length);
+            pos += date.length;
+            out[pos++] = '\n';
+        }
+        if (!options.gzip()) {
+            return Arrays.copyOf(out, pos);
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(pos / 3);
+        try (GZIPOutputStream gzip = new FastGzipOutputStream(compressed)) {
+            gzip.write(out, 0, pos);
         } catch (IOException e) {
-            logger.error("Error occurred while writing the CSV file: {}", e.getMessage(), e);
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    // Cumulative probabilities of games 1 to games with weights 1 / k^skew
+    private static double[] zipfCdf(int games, double skew) {
+        double[] cdf = new double[games];
+        double sum = 0;
+        for (int k = 1; k <= games; k++) {
+            sum += 1 / Math.pow(k, skew);
+            cdf[k - 1] = sum;
+        }
+        for (int k = 0; k < games; k++) {
+            cdf[k] /= sum;
+        }
+        return cdf;
+    }
+
+    private static int zipf(double[] cdf, SplittableRandom random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cdf.length - 1) + 1;
+    }
+
+    private static int writeLong(byte[] out, int pos, long value) {
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = pos + digits - 1; i >= pos; i--) {
+            out[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + digits;
+    }
+
+    // Cents as a decimal with two places, e.g. 705 as 7.05
+    private static int writeCents(byte[] out, int pos, long cents) {
+        pos = writeLong(out, pos, cents / 100);
+        out[pos++] = '.';
+        out[pos++] = (byte) ('0' + cents % 100 / 10);
+        out[pos++] = (byte) ('0' + cents % 10);
+        return pos;
+    }
+
+    private static byte[] await(Future<byte[]> block) throws IOException {
+        try {
+            return block.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while generating rows", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw new IOException("Failed to generate rows", e.getCause());
+        }
+    }
+
+    // Deflate's fastest level: generating is CPU-bound and these files are regenerated, not archived
+    private static class FastGzipOutputStream extends GZIPOutputStream {
+
+        FastGzipOutputStream(OutputStream out) throws IOException {
+            super(out, 64 * 1024);
+            def.setLevel(Deflater.BEST_SPEED);
+        }
+    }
+
+    private static byte[][] ascii(String... values) {
+        byte[][] bytes = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = values[i].getBytes(StandardCharsets.US_ASCII);
         }
+        return bytes;
     }
 }
@@ -0,0 +1,67 @@
+package com.example.gameSalesService.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+// Continuation token for keyset pagination of /getGameSales: the sort key of the last row returned,
+// plus the id that breaks ties. Clients treat it as opaque; the order tag rejects a token that is
+// replayed against a different filter.
+public record GameSalesCursor(Order order, String sortValue, long id) {
+
+    public enum Order {
+        ID, DATE_OF_SALE, SALE_PRICE
+    }
+
+    public static GameSalesCursor afterDate(LocalDate dateOfSale, long id) {
+        return new GameSalesCursor(Order.DATE_OF_SALE, dateOfSale.toString(), id);
+    }
+
+    public static GameSalesCursor afterSalePrice(double salePrice, long id) {
+        return new GameSalesCursor(Order.SALE_PRICE, Double.toString(salePrice), id);
+    }
+
+    public static GameSalesCursor afterId(long id) {
+        return new GameSalesCursor(Order.ID, "", id);
+    }
+
+    public LocalDate dateOfSale() {
+        return LocalDate.parse(sortValue);
+    }
+
+    public double salePrice() {
+        return Double.parseDouble(sortValue);
+    }
+
+    public String encode() {
+        String raw = order.name() + ':' + sortValue + ':' + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Throws IllegalArgumentException for a token that was not produced by encode() for this order
+    public static GameSalesCursor decode(String token, Order expected) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+        String[] parts = raw.split(":", -1);
+        if (parts.length != 3 || !parts[0].equals(expected.name())) {
+            throw new IllegalArgumentException("Cursor does not match the requested filter");
+        }
+        try {
+            GameSalesCursor cursor = new GameSalesCursor(expected, parts[1], Long.parseLong(parts[2]));
+            // Validate the sort value up front rather than failing inside the query
+            switch (expected) {
+                case DATE_OF_SALE -> cursor.dateOfSale();
+                case SALE_PRICE -> cursor.salePrice();
+                default -> {
+                }
+            }
+            return cursor;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
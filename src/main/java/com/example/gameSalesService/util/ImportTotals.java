@@ -0,0 +1,60 @@
+package com.example.gameSalesService.util;
+
+import com.example.gameSalesService.entity.Game;
+import com.example.gameSalesService.entity.GameSalesAggregated;
+import com.example.gameSalesService.entity.GameSalesPriceSketch;
+import com.example.gameSalesService.entity.GameSalesRollup;
+
+import java.util.List;
+
+// Totals and price sketches of the game_sales rows an import has stored. Each import writer adds the
+// batches it committed to its own instance, so rows of a failed batch (e.g. duplicate ids of a file
+// imported twice) never reach the aggregates; the writers' instances are merged when the import ends.
+// Not thread-safe.
+public class ImportTotals {
+
+    private final SalesAggregator aggregator = new SalesAggregator();
+    // Keyed by (date_of_sale, type) instead of game_no, for the per-type rollups
+    private final SalesAggregator typeAggregator = new SalesAggregator();
+    private final PriceSketchAggregator priceSketches = new PriceSketchAggregator();
+    private long rows;
+
+    public void add(List<Game> batch) {
+        for (Game game : batch) {
+            int epochDay = Math.toIntExact(game.getDateOfSale().toEpochDay());
+            // Exact for prices with at most two decimals; finer ones are rounded to the cent
+            long salePriceCents = Math.round(game.getSalePrice() * 100);
+            aggregator.add(epochDay, game.getGameNo(), salePriceCents);
+            typeAggregator.add(epochDay, game.getType(), salePriceCents);
+            priceSketches.add(epochDay, game.getGameNo(), salePriceCents);
+        }
+        rows += batch.size();
+    }
+
+    public ImportTotals merge(ImportTotals other) {
+        aggregator.merge(other.aggregator);
+        typeAggregator.merge(other.typeAggregator);
+        priceSketches.merge(other.priceSketches);
+        rows += other.rows;
+        return this;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    // One aggregate per (date_of_sale, game_no) stored
+    public List<GameSalesAggregated> toAggregates() {
+        return aggregator.toAggregates();
+    }
+
+    // Day, week and month totals, overall, per game_no and per type
+    public List<GameSalesRollup> toRollups() {
+        return SalesRollupBuilder.of(aggregator, typeAggregator).toRollups();
+    }
+
+    // Sale-price sketches per day and month, per game_no and for all games
+    public List<GameSalesPriceSketch> toPriceSketches() {
+        return priceSketches.toSketches();
+    }
+}
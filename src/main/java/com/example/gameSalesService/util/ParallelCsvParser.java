@@ -0,0 +1,143 @@
+package com.example.gameSalesService.util;
+
+import com.example.gameSalesService.entity.Game;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+// Splits a CSV file into newline-aligned byte ranges and parses them in parallel on a fork-join pool.
+// Each range gets its own GameCsvParser, whose counts are merged as the tasks join.
+public class ParallelCsvParser {
+
+    // Small ranges are not worth a task of their own
+    static final long MIN_RANGE_SIZE = 4L * 1024 * 1024;
+
+    private ParallelCsvParser() {
+    }
+
+    // Parses the file in up to `parts` ranges; full batches of `batchSize` games are handed to batchConsumer
+    // from the worker threads, so the consumer must be thread-safe
+    public static Result parse(Path file, ForkJoinPool pool, int parts, int batchSize,
+                               Consumer<List<Game>> batchConsumer) throws IOException {
+        return parse(file, pool, parts, MIN_RANGE_SIZE, batchSize, batchConsumer);
+    }
+
+    static Result parse(Path file, ForkJoinPool pool, int parts, long minRangeSize, int batchSize,
+                        Consumer<List<Game>> batchConsumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] boundaries = split(channel, parts, minRangeSize);
+            try {
+                return pool.invoke(new RangeTask(channel, boundaries, 0, boundaries.length - 1, batchSize, batchConsumer));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    // Returns range boundaries (first 0, last the file size) where every inner boundary starts a line
+    public static long[] split(FileChannel channel, int parts) throws IOException {
+        return split(channel, parts, MIN_RANGE_SIZE);
+    }
+
+    static long[] split(FileChannel channel, int parts, long minRangeSize) throws IOException {
+        long size = channel.size();
+        long minParts = (size + GameCsvParser.MAX_MAPPING_SIZE - 1) / GameCsvParser.MAX_MAPPING_SIZE;
+        long maxParts = Math.max(1, size / minRangeSize);
+        int count = (int) Math.max(minParts, Math.min(Math.max(1, parts), maxParts));
+
+        List<Long> boundaries = new ArrayList<>(count + 1);
+        boundaries.add(0L);
+        for (int i = 1; i < count; i++) {
+            long boundary = GameCsvParser.nextLineStart(channel, size / count * i);
+            if (boundary > boundaries.get(boundaries.size() - 1) && boundary < size) {
+                boundaries.add(boundary);
+            }
+        }
+        boundaries.add(size);
+        return boundaries.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static class RangeTask extends RecursiveTask<Result> {
+
+        private final FileChannel channel;
+        private final long[] boundaries;
+        private final int from;
+        private final int to;
+        private final int batchSize;
+        private final Consumer<List<Game>> batchConsumer;
+
+        RangeTask(FileChannel channel, long[] boundaries, int from, int to, int batchSize,
+                  Consumer<List<Game>> batchConsumer) {
+            this.channel = channel;
+            this.boundaries = boundaries;
+            this.from = from;
+            this.to = to;
+            this.batchSize = batchSize;
+            this.batchConsumer = batchConsumer;
+        }
+
+        @Override
+        protected Result compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                RangeTask left = new RangeTask(channel, boundaries, from, middle, batchSize, batchConsumer);
+                RangeTask right = new RangeTask(channel, boundaries, middle, to, batchSize, batchConsumer);
+                left.fork();
+                Result result = right.compute();
+                return left.join().merge(result);
+            }
+            return parseRange(boundaries[from], boundaries[to]);
+        }
+
+        private Result parseRange(long start, long end) {
+            Result result = new Result();
+            List<Game> batch = new ArrayList<>(batchSize);
+            GameCsvParser parser = new GameCsvParser();
+            try {
+                parser.parse(channel, start, end, row -> {
+                    batch.add(row.toGame());
+                    if (batch.size() >= batchSize) {
+                        batchConsumer.accept(new ArrayList<>(batch));
+                        batch.clear();
+                    }
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (!batch.isEmpty()) {
+                batchConsumer.accept(new ArrayList<>(batch));
+            }
+            result.rowsParsed = parser.getRowsParsed();
+            result.malformedRows = parser.getMalformedRows();
+            return result;
+        }
+    }
+
+    public static class Result {
+
+        private long rowsParsed;
+        private long malformedRows;
+
+        Result merge(Result other) {
+            rowsParsed += other.rowsParsed;
+            malformedRows += other.malformedRows;
+            return this;
+        }
+
+        public long getRowsParsed() {
+            return rowsParsed;
+        }
+
+        public long getMalformedRows() {
+            return malformedRows;
+        }
+    }
+}
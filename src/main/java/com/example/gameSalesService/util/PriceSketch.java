@@ -0,0 +1,243 @@
+package com.example.gameSalesService.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Mergeable summary of sale prices (in cents): exact count, sum, min and max, a fixed-bucket histogram,
+// and a quantile sketch with logarithmic buckets (as in DDSketch). A price c > 0 falls into bucket
+// ceil(log(c) / log(GAMMA)) and is estimated back as the bucket's midpoint 2 * GAMMA^i / (GAMMA + 1), so
+// every quantile is within RELATIVE_ERROR of the exact price at that rank, whatever the data and however
+// many sketches were merged. Merging is adding bucket counts, so it is exact and order-independent.
+// Buckets are kept sparse (sorted indexes and counts) since a day of one game touches few of them.
+// Not thread-safe.
+public class PriceSketch {
+
+    public static final double RELATIVE_ERROR = 0.01;
+    private static final double GAMMA = (1 + RELATIVE_ERROR) / (1 - RELATIVE_ERROR);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    // Histogram bucket i counts prices in [HISTOGRAM_EDGES[i], HISTOGRAM_EDGES[i + 1]); the last is open-ended
+    public static final long[] HISTOGRAM_EDGES = {0, 1000, 2000, 3000, 4000, 5000, 6000, 7000, 8000, 9000, 10000};
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private long count;
+    private long sumCents;
+    private long minCents = Long.MAX_VALUE;
+    private long maxCents = Long.MIN_VALUE;
+    // Prices of zero cents have no logarithm
+    private long zeroCount;
+    private int[] indexes = new int[8];
+    private long[] counts = new long[8];
+    private int size;
+    private final long[] histogram = new long[HISTOGRAM_EDGES.length];
+
+    public void add(long priceCents) {
+        if (priceCents < 0) {
+            throw new IllegalArgumentException("Negative price: " + priceCents);
+        }
+        count++;
+        sumCents += priceCents;
+        minCents = Math.min(minCents, priceCents);
+        maxCents = Math.max(maxCents, priceCents);
+        histogram[histogramBucket(priceCents)]++;
+        if (priceCents == 0) {
+            zeroCount++;
+        } else {
+            addToBucket((int) Math.ceil(Math.log(priceCents) / LOG_GAMMA), 1);
+        }
+    }
+
+    public PriceSketch merge(PriceSketch other) {
+        if (other.count == 0) {
+            return this;
+        }
+        count += other.count;
+        sumCents += other.sumCents;
+        minCents = Math.min(minCents, other.minCents);
+        maxCents = Math.max(maxCents, other.maxCents);
+        zeroCount += other.zeroCount;
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] += other.histogram[i];
+        }
+        // Linear merge of the two sorted bucket lists
+        int[] mergedIndexes = new int[size + other.size];
+        long[] mergedCounts = new long[size + other.size];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && indexes[i] < other.indexes[j])) {
+                mergedIndexes[k] = indexes[i];
+                mergedCounts[k++] = counts[i++];
+            } else if (i == size || other.indexes[j] < indexes[i]) {
+                mergedIndexes[k] = other.indexes[j];
+                mergedCounts[k++] = other.counts[j++];
+            } else {
+                mergedIndexes[k] = indexes[i];
+                mergedCounts[k++] = counts[i++] + other.counts[j++];
+            }
+        }
+        indexes = mergedIndexes;
+        counts = mergedCounts;
+        size = k;
+        return this;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSumCents() {
+        return sumCents;
+    }
+
+    // Exact extremes; only meaningful when count > 0
+    public long getMinCents() {
+        return minCents;
+    }
+
+    public long getMaxCents() {
+        return maxCents;
+    }
+
+    public long[] getHistogram() {
+        return histogram.clone();
+    }
+
+    // Price at rank floor(q * (count - 1)) of the sorted prices, within RELATIVE_ERROR of the exact one
+    // (exact for q = 0 and 1). Throws IllegalStateException when empty.
+    public double quantileCents(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be within [0, 1]: " + q);
+        }
+        if (count == 0) {
+            throw new IllegalStateException("Empty sketch");
+        }
+        long rank = (long) Math.floor(q * (count - 1));
+        // The extremes are known exactly
+        if (rank == 0) {
+            return minCents;
+        }
+        if (rank == count - 1) {
+            return maxCents;
+        }
+        if (rank < zeroCount) {
+            return 0;
+        }
+        long seen = zeroCount;
+        for (int i = 0; i < size; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                double estimate = 2 * Math.pow(GAMMA, indexes[i]) / (GAMMA + 1);
+                return Math.max(minCents, Math.min(maxCents, estimate));
+            }
+        }
+        return maxCents;
+    }
+
+    // Compact binary form: a version byte and var-longs, bucket indexes delta-encoded
+    public byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32 + size * 3);
+        out.write(FORMAT_VERSION);
+        writeVarLong(out, count);
+        if (count == 0) {
+            return out.toByteArray();
+        }
+        writeVarLong(out, sumCents);
+        writeVarLong(out, minCents);
+        writeVarLong(out, maxCents);
+        writeVarLong(out, zeroCount);
+        for (long bucket : histogram) {
+            writeVarLong(out, bucket);
+        }
+        writeVarLong(out, size);
+        int previous = 0;
+        for (int i = 0; i < size; i++) {
+            // Prices of one cent or more have indexes >= 0, so the sorted deltas are never negative
+            writeVarLong(out, indexes[i] - previous);
+            writeVarLong(out, counts[i]);
+            previous = indexes[i];
+        }
+        return out.toByteArray();
+    }
+
+    // Inverse of toBytes(); throws IllegalArgumentException on data it did not write
+    public static PriceSketch fromBytes(byte[] bytes) {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        PriceSketch sketch = new PriceSketch();
+        try {
+            if (in.get() != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unknown price sketch format");
+            }
+            sketch.count = readVarLong(in);
+            if (sketch.count == 0) {
+                return sketch;
+            }
+            sketch.sumCents = readVarLong(in);
+            sketch.minCents = readVarLong(in);
+            sketch.maxCents = readVarLong(in);
+            sketch.zeroCount = readVarLong(in);
+            for (int i = 0; i < sketch.histogram.length; i++) {
+                sketch.histogram[i] = readVarLong(in);
+            }
+            int size = Math.toIntExact(readVarLong(in));
+            sketch.indexes = new int[Math.max(size, 1)];
+            sketch.counts = new long[Math.max(size, 1)];
+            int previous = 0;
+            for (int i = 0; i < size; i++) {
+                previous += Math.toIntExact(readVarLong(in));
+                sketch.indexes[i] = previous;
+                sketch.counts[i] = readVarLong(in);
+            }
+            sketch.size = size;
+        } catch (RuntimeException e) {
+            throw e instanceof IllegalArgumentException ? e : new IllegalArgumentException("Malformed price sketch", e);
+        }
+        return sketch;
+    }
+
+    private static int histogramBucket(long priceCents) {
+        int bucket = Arrays.binarySearch(HISTOGRAM_EDGES, priceCents);
+        return bucket >= 0 ? bucket : -bucket - 2;
+    }
+
+    private void addToBucket(int index, long increment) {
+        int position = Arrays.binarySearch(indexes, 0, size, index);
+        if (position >= 0) {
+            counts[position] += increment;
+            return;
+        }
+        position = -position - 1;
+        if (size == indexes.length) {
+            indexes = Arrays.copyOf(indexes, Math.max(8, size * 2));
+            counts = Arrays.copyOf(counts, Math.max(8, size * 2));
+        }
+        System.arraycopy(indexes, position, indexes, position + 1, size - position);
+        System.arraycopy(counts, position, counts, position + 1, size - position);
+        indexes[position] = index;
+        counts[position] = increment;
+        size++;
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed var-long");
+    }
+}
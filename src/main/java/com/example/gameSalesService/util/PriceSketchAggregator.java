@@ -0,0 +1,68 @@
+package com.example.gameSalesService.util;
+
+import com.example.gameSalesService.entity.GameSalesPriceSketch;
+import com.example.gameSalesService.entity.GameSalesRollup.Granularity;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// One PriceSketch per (date_of_sale, game_no), filled row by row from the batches an import stored.
+// Like SalesAggregator, each import writer fills its own instance and they are merged at the end.
+// Not thread-safe.
+public class PriceSketchAggregator {
+
+    private final Map<Long, PriceSketch> sketches = new HashMap<>();
+
+    public void add(int epochDay, int gameNo, long salePriceCents) {
+        sketches.computeIfAbsent(key(epochDay, gameNo), key -> new PriceSketch()).add(salePriceCents);
+    }
+
+    public PriceSketchAggregator merge(PriceSketchAggregator other) {
+        other.sketches.forEach((key, sketch) -> sketches.merge(key, sketch, PriceSketch::merge));
+        return this;
+    }
+
+    public int size() {
+        return sketches.size();
+    }
+
+    // Day and month rows per game_no and for all games; sketches are merged into new ones, so this
+    // aggregator is left as it was
+    public List<GameSalesPriceSketch> toSketches() {
+        Map<Bucket, PriceSketch> buckets = new HashMap<>();
+        for (Map.Entry<Long, PriceSketch> entry : sketches.entrySet()) {
+            LocalDate day = LocalDate.ofEpochDay(entry.getKey() >> 32);
+            int gameNo = (int) (long) entry.getKey();
+            LocalDate month = Granularity.MONTH.bucketStart(day);
+            for (Bucket bucket : new Bucket[]{
+                    new Bucket(Granularity.DAY, gameNo, day),
+                    new Bucket(Granularity.DAY, GameSalesPriceSketch.ALL_GAMES, day),
+                    new Bucket(Granularity.MONTH, gameNo, month),
+                    new Bucket(Granularity.MONTH, GameSalesPriceSketch.ALL_GAMES, month)}) {
+                buckets.computeIfAbsent(bucket, key -> new PriceSketch()).merge(entry.getValue());
+            }
+        }
+
+        List<GameSalesPriceSketch> rows = new ArrayList<>(buckets.size());
+        for (Map.Entry<Bucket, PriceSketch> entry : buckets.entrySet()) {
+            GameSalesPriceSketch row = new GameSalesPriceSketch();
+            row.setGranularity(entry.getKey().granularity());
+            row.setGameNo(entry.getKey().gameNo());
+            row.setBucketStart(entry.getKey().bucketStart());
+            row.setSketch(entry.getValue().toBytes());
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // Epoch day in the high half, so negative days and game numbers both round-trip
+    private static long key(int epochDay, int gameNo) {
+        return ((long) epochDay << 32) | (gameNo & 0xFFFFFFFFL);
+    }
+
+    private record Bucket(Granularity granularity, int gameNo, LocalDate bucketStart) {
+    }
+}
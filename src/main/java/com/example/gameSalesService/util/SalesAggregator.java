@@ -0,0 +1,149 @@
+package com.example.gameSalesService.util;
+
+import com.example.gameSalesService.entity.GameSalesAggregated;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Sales count and total per (date_of_sale, game_no), kept in primitive arrays keyed by the packed
+// (epoch day, game number) pair. Adding a row is a hash probe and two array increments, with no
+// allocation. Each import writer fills its own instance (through ImportTotals) from the batches it
+// stored; the writers' instances are merged when the import ends.
+// Totals are kept in cents so merging in any order gives identical results. Not thread-safe.
+public class SalesAggregator {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 4096;
+
+    private long[] keys;
+    private long[] gamesSold;
+    private long[] salesCents;
+    private int size;
+
+    public SalesAggregator() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    public void add(int epochDay, int gameNo, long salePriceCents) {
+        add(key(epochDay, gameNo), 1, salePriceCents);
+    }
+
+    // Adds totals that were already summed elsewhere, e.g. rows of game_sales_aggregated
+    public void add(int epochDay, int gameNo, long gamesSold, long salesCents) {
+        add(key(epochDay, gameNo), gamesSold, salesCents);
+    }
+
+    public SalesAggregator merge(SalesAggregator other) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.keys[i] != EMPTY) {
+                add(other.keys[i], other.gamesSold[i], other.salesCents[i]);
+            }
+        }
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long totalGamesSold() {
+        long total = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                total += gamesSold[i];
+            }
+        }
+        return total;
+    }
+
+    public void forEach(Consumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                consumer.accept(epochDay(keys[i]), gameNo(keys[i]), gamesSold[i], salesCents[i]);
+            }
+        }
+    }
+
+    // One aggregate per (date_of_sale, game_no) seen
+    public List<GameSalesAggregated> toAggregates() {
+        List<GameSalesAggregated> aggregates = new ArrayList<>(size);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == EMPTY) {
+                continue;
+            }
+            GameSalesAggregated aggregated = new GameSalesAggregated();
+            aggregated.setDateOfSale(LocalDate.ofEpochDay(epochDay(keys[i])));
+            aggregated.setGameNo(gameNo(keys[i]));
+            aggregated.setTotalGamesSold(Math.toIntExact(gamesSold[i]));
+            aggregated.setTotalSales(salesCents[i] / 100.0);
+            aggregates.add(aggregated);
+        }
+        return aggregates;
+    }
+
+    public interface Consumer {
+        void accept(int epochDay, int gameNo, long gamesSold, long salesCents);
+    }
+
+    static long key(int epochDay, int gameNo) {
+        return ((long) epochDay << 32) | (gameNo & 0xFFFFFFFFL);
+    }
+
+    static int epochDay(long key) {
+        return (int) (key >> 32);
+    }
+
+    static int gameNo(long key) {
+        return (int) key;
+    }
+
+    private void add(long key, long count, long cents) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (true) {
+            long existing = keys[slot];
+            if (existing == key) {
+                gamesSold[slot] += count;
+                salesCents[slot] += cents;
+                return;
+            }
+            if (existing == EMPTY) {
+                keys[slot] = key;
+                gamesSold[slot] = count;
+                salesCents[slot] = cents;
+                if (++size * 2 > keys.length) {
+                    resize();
+                }
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        long[] oldGamesSold = gamesSold;
+        long[] oldSalesCents = salesCents;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                add(oldKeys[i], oldGamesSold[i], oldSalesCents[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        gamesSold = new long[capacity];
+        salesCents = new long[capacity];
+        size = 0;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.gameSalesService.util;
+
+import com.example.gameSalesService.entity.GameSalesRollup;
+import com.example.gameSalesService.entity.GameSalesRollup.Dimension;
+import com.example.gameSalesService.entity.GameSalesRollup.Granularity;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Rolls per-day totals up into game_sales_rollup rows: every day is added to its day, week and month
+// bucket, overall and under its game_no or type. Games and types are added separately, from per-game
+// and per-type daily totals, so only the game totals count towards ALL. Sales are summed in cents.
+// Not thread-safe.
+public class SalesRollupBuilder {
+
+    private static final Granularity[] GRANULARITIES = Granularity.values();
+
+    private final Map<Key, long[]> totals = new HashMap<>();
+
+    // Rollups of an import: per-(day, game_no) and per-(day, type) totals
+    public static SalesRollupBuilder of(SalesAggregator byGame, SalesAggregator byType) {
+        SalesRollupBuilder builder = new SalesRollupBuilder();
+        byGame.forEach(builder::addGame);
+        byType.forEach(builder::addType);
+        return builder;
+    }
+
+    public void addGame(int epochDay, int gameNo, long gamesSold, long salesCents) {
+        LocalDate day = LocalDate.ofEpochDay(epochDay);
+        add(day, Dimension.ALL, 0, gamesSold, salesCents);
+        add(day, Dimension.GAME_NO, gameNo, gamesSold, salesCents);
+    }
+
+    public void addType(int epochDay, int type, long gamesSold, long salesCents) {
+        add(LocalDate.ofEpochDay(epochDay), Dimension.TYPE, type, gamesSold, salesCents);
+    }
+
+    public int size() {
+        return totals.size();
+    }
+
+    public List<GameSalesRollup> toRollups() {
+        List<GameSalesRollup> rollups = new ArrayList<>(totals.size());
+        for (Map.Entry<Key, long[]> entry : totals.entrySet()) {
+            Key key = entry.getKey();
+            GameSalesRollup rollup = new GameSalesRollup();
+            rollup.setGranularity(key.granularity());
+            rollup.setDimension(key.dimension());
+            rollup.setDimensionValue(key.value());
+            rollup.setBucketStart(key.bucketStart());
+            rollup.setTotalGamesSold(entry.getValue()[0]);
+            rollup.setTotalSales(entry.getValue()[1] / 100.0);
+            rollups.add(rollup);
+        }
+        return rollups;
+    }
+
+    private void add(LocalDate day, Dimension dimension, int value, long gamesSold, long salesCents) {
+        for (Granularity granularity : GRANULARITIES) {
+            long[] sums = totals.computeIfAbsent(new Key(granularity, dimension, value, granularity.bucketStart(day)),
+                    key -> new long[2]);
+            sums[0] += gamesSold;
+            sums[1] += salesCents;
+        }
+    }
+
+    private record Key(Granularity granularity, Dimension dimension, int value, LocalDate bucketStart) {
+    }
+}
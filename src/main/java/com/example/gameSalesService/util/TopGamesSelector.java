@@ -0,0 +1,78 @@
+package com.example.gameSalesService.util;
+
+import com.example.gameSalesService.repository.GameSalesTotal;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Picks the k best-selling games from per-game totals offered one at a time, holding at most k games
+// (plus those tied with the k-th) in a min-heap, so a pass over n games costs O(n log k). Revenue is
+// compared in cents so equal sales tie exactly. Without ties, the lower game_no wins a tie at the cut.
+// Not thread-safe.
+public class TopGamesSelector {
+
+    public enum Metric {
+        REVENUE, UNITS;
+
+        public long value(GameSalesTotal total) {
+            return this == UNITS ? total.totalGamesSold() : Math.round(total.totalSales() * 100);
+        }
+    }
+
+    private final Metric metric;
+    private final int k;
+    private final boolean withTies;
+    // Worst game on top: lowest value, then highest game_no
+    private final PriorityQueue<GameSalesTotal> heap;
+    // Games outside the heap that tie with its worst game; only kept withTies
+    private final List<GameSalesTotal> ties = new ArrayList<>();
+    private final Comparator<GameSalesTotal> ranking;
+
+    public TopGamesSelector(Metric metric, int k, boolean withTies) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be positive: " + k);
+        }
+        this.metric = metric;
+        this.k = k;
+        this.withTies = withTies;
+        // Best first: highest value, then lowest game_no
+        this.ranking = Comparator.comparingLong(metric::value).reversed()
+                .thenComparing(GameSalesTotal::gameNo);
+        this.heap = new PriorityQueue<>(k + 1, ranking.reversed());
+    }
+
+    // Games that sold nothing in the period are skipped
+    public void offer(GameSalesTotal total) {
+        if (total.totalGamesSold() == null || total.totalGamesSold() == 0) {
+            return;
+        }
+        if (heap.size() < k) {
+            heap.add(total);
+            return;
+        }
+        long value = metric.value(total);
+        long worst = metric.value(heap.peek());
+        if (value > worst || (value == worst && !withTies && total.gameNo() < heap.peek().gameNo())) {
+            heap.add(total);
+            GameSalesTotal evicted = heap.poll();
+            if (withTies && metric.value(heap.peek()) == worst) {
+                ties.add(evicted);
+            } else {
+                ties.clear();
+            }
+        } else if (value == worst && withTies) {
+            ties.add(total);
+        }
+    }
+
+    // Best first; more than k games only when several tie at the k-th place
+    public List<GameSalesTotal> result() {
+        List<GameSalesTotal> top = new ArrayList<>(heap.size() + ties.size());
+        top.addAll(heap);
+        top.addAll(ties);
+        top.sort(ranking);
+        return top;
+    }
+}
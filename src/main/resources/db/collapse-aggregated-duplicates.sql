@@ -0,0 +1,23 @@
+-- Collapses duplicate (date_of_sale, game_no) rows of game_sales_aggregated, left by versions that inserted a
+-- row per import, into the row with the lowest id. Queries summed the duplicates, so totals do not change.
+-- Run once against MySQL with the application stopped; the next start adds uk_aggregated_date_game.
+START TRANSACTION;
+
+CREATE TEMPORARY TABLE aggregated_duplicates AS
+SELECT MIN(id) AS keep_id, date_of_sale, game_no,
+       SUM(total_games_sold) AS total_games_sold, SUM(total_sales) AS total_sales
+FROM game_sales_aggregated
+GROUP BY date_of_sale, game_no
+HAVING COUNT(*) > 1;
+
+UPDATE game_sales_aggregated a
+JOIN aggregated_duplicates d ON a.id = d.keep_id
+SET a.total_games_sold = d.total_games_sold, a.total_sales = d.total_sales;
+
+DELETE a FROM game_sales_aggregated a
+JOIN aggregated_duplicates d ON a.date_of_sale = d.date_of_sale AND a.game_no = d.game_no
+WHERE a.id <> d.keep_id;
+
+COMMIT;
+
+DROP TEMPORARY TABLE aggregated_duplicates;
@@ -0,0 +1,82 @@
+package com.example.gameSalesService.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+// An in-memory H2 database in MySQL mode with the schema created from the entities, for the benchmarks
+// that run without a Spring context. Connections do not auto-commit and JPA batches inserts, both as
+// configured in application.properties. Shared by the main-method benchmarks and the JMH ones.
+public final class BenchmarkDatabase implements AutoCloseable {
+
+    private final HikariDataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
+
+    private BenchmarkDatabase(HikariDataSource dataSource) {
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory));
+    }
+
+    // A database of its own per name, so benchmarks never see each other's rows
+    public static BenchmarkDatabase open(String name) {
+        return open(name, "");
+    }
+
+    // urlOptions are appended to the JDBC URL, e.g. ";LAZY_QUERY_EXECUTION=1"
+    public static BenchmarkDatabase open(String name, String urlOptions) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1" + urlOptions);
+        dataSource.setUsername("sa");
+        dataSource.setAutoCommit(false);
+        try {
+            return new BenchmarkDatabase(dataSource);
+        } catch (RuntimeException e) {
+            dataSource.close();
+            throw e;
+        }
+    }
+
+    public HikariDataSource dataSource() {
+        return dataSource;
+    }
+
+    public EntityManagerFactory entityManagerFactory() {
+        return entityManagerFactory;
+    }
+
+    public TransactionTemplate transactionTemplate() {
+        return transactionTemplate;
+    }
+
+    public JdbcTemplate jdbcTemplate() {
+        return new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void close() {
+        entityManagerFactory.close();
+        dataSource.close();
+    }
+
+    private static EntityManagerFactory entityManagerFactory(HikariDataSource dataSource) {
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan("com.example.gameSalesService.entity");
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        // Same batching settings as application.properties
+        factory.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "create",
+                "hibernate.jdbc.batch_size", "5000",
+                "hibernate.order_inserts", "true"));
+        factory.afterPropertiesSet();
+        return factory.getObject();
+    }
+}
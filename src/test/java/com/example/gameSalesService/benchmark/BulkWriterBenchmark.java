@@ -0,0 +1,84 @@
+package com.example.gameSalesService.benchmark;
+
+import com.example.gameSalesService.entity.Game;
+import com.example.gameSalesService.service.writer.GameSalesWriter;
+import com.example.gameSalesService.service.writer.JdbcBatchGameSalesWriter;
+import com.example.gameSalesService.service.writer.JpaGameSalesWriter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Times the game_sales writers against an embedded H2 database in MySQL mode.
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+//   -Dexec.mainClass=com.example.gameSalesService.benchmark.BulkWriterBenchmark -Dexec.args="200000"
+public class BulkWriterBenchmark {
+
+    private static final int BATCH_SIZE = 2000;
+    private static final int ITERATIONS = 3;
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        List<List<Game>> batches = generateBatches(rows);
+
+        try (BenchmarkDatabase database = BenchmarkDatabase.open("bulk_writer_bench")) {
+            JdbcTemplate jdbcTemplate = database.jdbcTemplate();
+            TransactionTemplate transactionTemplate = database.transactionTemplate();
+
+            GameSalesWriter jpa = new JpaGameSalesWriter(database.entityManagerFactory());
+            GameSalesWriter jdbc = new JdbcBatchGameSalesWriter(jdbcTemplate, transactionTemplate, 500);
+
+            for (int i = 0; i < ITERATIONS; i++) {
+                boolean warmup = i < ITERATIONS - 1;
+                run("jpa (EntityManager.persist)", jpa, batches, rows, jdbcTemplate, warmup);
+                run("jdbc (multi-row batch)", jdbc, batches, rows, jdbcTemplate, warmup);
+            }
+            System.out.println("load-data needs MySQL Connector/J and a MySQL server; on H2 it falls back to the jdbc writer");
+        }
+    }
+
+    private static void run(String name, GameSalesWriter writer, List<List<Game>> batches, int rows,
+                            JdbcTemplate jdbcTemplate, boolean warmup) {
+        jdbcTemplate.execute("TRUNCATE TABLE game_sales");
+        long start = System.nanoTime();
+        for (List<Game> batch : batches) {
+            writer.write(batch);
+        }
+        long elapsed = System.nanoTime() - start;
+        if (!warmup) {
+            System.out.printf("%-30s %,10d rows  %,8d ms  %,12.0f rows/s%n",
+                    name, rows, elapsed / 1_000_000, rows / (elapsed / 1e9));
+        }
+    }
+
+
+    private static List<List<Game>> generateBatches(int rows) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<List<Game>> batches = new ArrayList<>();
+        List<Game> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 1; i <= rows; i++) {
+            Game game = new Game();
+            game.setId((long) i);
+            game.setGameNo(random.nextInt(100) + 1);
+            game.setGameName("SuperFun");
+            game.setGameCode("SG1");
+            game.setType(random.nextInt(2) + 1);
+            game.setCostPrice(random.nextInt(10000) / 100.0);
+            game.setTax(Math.round(game.getCostPrice() * 9) / 100.0);
+            game.setSalePrice(Math.round((game.getCostPrice() + game.getTax()) * 100) / 100.0);
+            game.setDateOfSale(LocalDate.of(2024, 4, 1).plusDays(random.nextInt(30)));
+            batch.add(game);
+            if (batch.size() == BATCH_SIZE) {
+                batches.add(batch);
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.gameSalesService.benchmark;
+
+import com.example.gameSalesService.entity.Game;
+import com.example.gameSalesService.entity.GameSalesAggregated;
+import com.example.gameSalesService.util.GameCsvParser;
+import com.example.gameSalesService.util.GameSalesCsvGenerator;
+import com.example.gameSalesService.util.ParallelCsvParser;
+import com.example.gameSalesService.util.SalesAggregator;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+// Compares the original BufferedReader/split import loop with GameCsvParser and ParallelCsvParser on a generated file.
+// Run from the IDE or with: mvn test-compile exec:java -Dexec.classpathScope=test
+//   -Dexec.mainClass=com.example.gameSalesService.benchmark.CsvParseBenchmark -Dexec.args="1000000"
+public class CsvParseBenchmark {
+
+    private static final int ITERATIONS = 5;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Keeps the JIT from discarding the parsed values
+    private static long sink;
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path file = Files.createTempFile("game_sales_bench_", ".csv");
+        try {
+            GameSalesCsvGenerator.generateCsvFile(file.toString(), rows);
+
+            for (int i = 0; i < ITERATIONS; i++) {
+                boolean warmup = i < ITERATIONS - 1;
+                report("readLine + split", rows, warmup, () -> legacyLoop(file));
+                report("GameCsvParser -> Game", rows, warmup, () -> new GameCsvParser().parse(file, row -> sink += row.toGame().getId()));
+                report("GameCsvParser only", rows, warmup, () -> new GameCsvParser().parse(file, row -> sink += Math.round(row.getSalePrice() * 100)));
+                report("+ String-key map", rows, warmup, () -> stringKeyAggregation(file));
+                report("+ SalesAggregator", rows, warmup, () -> {
+                    SalesAggregator aggregator = new SalesAggregator();
+                    long parsed = new GameCsvParser().parse(file, row ->
+                            aggregator.add(row.getEpochDay(), row.getGameNo(), Math.round(row.getSalePrice() * 100)));
+                    sink += aggregator.size();
+                    return parsed;
+                });
+            }
+
+            // Range-split parse, including aggregation and Game batches, at increasing parallelism.
+            // Allocation is measured on the calling thread only, so it is not meaningful for these rows.
+            for (int threads = 1; threads <= Runtime.getRuntime().availableProcessors(); threads *= 2) {
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                int parts = threads;
+                try {
+                    for (int i = 0; i < ITERATIONS; i++) {
+                        report("ParallelCsvParser x" + threads, rows, i < ITERATIONS - 1, () -> ParallelCsvParser
+                                .parse(file, pool, parts, 2000, batch -> sink += batch.size()).getRowsParsed());
+                    }
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // The loop ImportService used before GameCsvParser
+    private static long legacyLoop(Path file) throws Exception {
+        long count = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(file.toFile(), StandardCharsets.UTF_8))) {
+            String line = reader.readLine(); // Skip header
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",");
+                if (fields.length != 9) {
+                    continue;
+                }
+                Game game = new Game();
+                game.setId(Long.parseLong(fields[0]));
+                game.setGameNo(Integer.parseInt(fields[1]));
+                game.setGameName(fields[2]);
+                game.setGameCode(fields[3]);
+                game.setType(Integer.parseInt(fields[4]));
+                game.setCostPrice(Double.parseDouble(fields[5]));
+                game.setTax(Double.parseDouble(fields[6]));
+                game.setSalePrice(Double.parseDouble(fields[7]));
+                game.setDateOfSale(LocalDate.parse(fields[8]));
+                sink += game.getId();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // The aggregation ImportService used before SalesAggregator
+    private static long stringKeyAggregation(Path file) throws Exception {
+        Map<String, GameSalesAggregated> aggregationMap = new ConcurrentHashMap<>();
+        long parsed = new GameCsvParser().parse(file, row -> {
+            LocalDate saleDate = row.getDateOfSale();
+            double salePrice = row.getSalePrice();
+            Integer gameNo = row.getGameNo();
+            aggregationMap.compute(saleDate + "-" + gameNo, (key, aggregated) -> {
+                if (aggregated == null) {
+                    aggregated = new GameSalesAggregated();
+                    aggregated.setDateOfSale(saleDate);
+                    aggregated.setGameNo(gameNo);
+                    aggregated.setTotalGamesSold(0);
+                    aggregated.setTotalSales(0.0);
+                }
+                aggregated.setTotalGamesSold(aggregated.getTotalGamesSold() + 1);
+                aggregated.setTotalSales(aggregated.getTotalSales() + salePrice);
+                return aggregated;
+            });
+        });
+        sink += aggregationMap.size();
+        return parsed;
+    }
+
+    private static void report(String name, int rows, boolean warmup, ParseRun run) throws Exception {
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        long parsed = run.parse();
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        if (warmup) {
+            return;
+        }
+        System.out.printf("%-24s %,12d rows  %,14.0f rows/s  %,10.1f bytes/row  %,8.1f MB/s allocated%n",
+                name, parsed, parsed / (elapsed / 1e9), (double) allocated / rows,
+                allocated / 1048576.0 / (elapsed / 1e9));
+    }
+
+    @FunctionalInterface
+    private interface ParseRun {
+        long parse() throws Exception;
+    }
+}
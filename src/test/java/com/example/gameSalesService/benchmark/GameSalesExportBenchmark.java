@@ -0,0 +1,176 @@
+package com.example.gameSalesService.benchmark;
+
+import com.example.gameSalesService.entity.Game;
+import com.example.gameSalesService.repository.GameRepository;
+import com.example.gameSalesService.repository.GameRepositoryCustomImpl;
+import com.example.gameSalesService.repository.GameSalesFilter;
+import com.example.gameSalesService.service.GameSalesExportService;
+import com.example.gameSalesService.service.writer.JdbcBatchGameSalesWriter;
+import com.example.gameSalesService.util.GameSalesCursor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Exports a month of game_sales from an embedded H2 database in MySQL mode, comparing the streaming
+// export (CSV and NDJSON) with fetching the same rows as 100-row cursor pages of entities. Besides the
+// time it reports how far the live heap (sampled after a forced GC every 100 ms, which slows every mode
+// alike) rose above its starting point while the rows were read. LAZY_QUERY_EXECUTION makes H2 stream
+// results the way MySQL does with the export's fetch size, instead of materializing them first.
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+//   -Dexec.mainClass=com.example.gameSalesService.benchmark.GameSalesExportBenchmark -Dexec.args="400000"
+public class GameSalesExportBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+    private static final LocalDate FROM = LocalDate.of(2024, 4, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 4, 30);
+    private static final GameSalesFilter APRIL = new GameSalesFilter(FROM, TO, null, null, null, null);
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 400_000;
+
+        try (BenchmarkDatabase database = BenchmarkDatabase.open("export_bench", ";LAZY_QUERY_EXECUTION=1")) {
+            TransactionTemplate transactionTemplate = database.transactionTemplate();
+            JdbcTemplate jdbcTemplate = database.jdbcTemplate();
+            load(new JdbcBatchGameSalesWriter(jdbcTemplate, transactionTemplate, 500), rows);
+            EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(database.entityManagerFactory());
+            GameRepository repository = new JpaRepositoryFactory(entityManager).getRepository(GameRepository.class,
+                    RepositoryComposition.RepositoryFragments.just(new GameRepositoryCustomImpl(entityManager)));
+            GameSalesExportService exportService = new GameSalesExportService(jdbcTemplate, transactionTemplate,
+                    new ObjectMapper(), 1000);
+            System.out.printf("game_sales: %,d rows, exporting %s..%s%n", rows, FROM, TO);
+
+            for (int round = 0; round < 2; round++) {
+                // First round warms up
+                boolean print = round == 1;
+                for (GameSalesExportService.Format format : GameSalesExportService.Format.values()) {
+                    CountingOutputStream out = new CountingOutputStream();
+                    report(print, "export " + format, () -> exportService.export(format, APRIL, out),
+                            out::getCount);
+                }
+                report(print, "cursor pages", () -> {
+                    long exported = 0;
+                    GameSalesCursor after = null;
+                    List<Game> page;
+                    do {
+                        page = repository.findAfter(APRIL, GameSalesCursor.Order.DATE_OF_SALE, after, Limit.of(PAGE_SIZE));
+                        if (!page.isEmpty()) {
+                            Game last = page.get(page.size() - 1);
+                            after = GameSalesCursor.afterDate(last.getDateOfSale(), last.getId());
+                        }
+                        exported += page.size();
+                    } while (page.size() == PAGE_SIZE);
+                    return exported;
+                }, () -> 0);
+            }
+        }
+    }
+
+    private static void report(boolean print, String mode, LongSupplier export, LongSupplier bytes) throws InterruptedException {
+        HeapSampler sampler = new HeapSampler();
+        sampler.start();
+        long start = System.nanoTime();
+        long exported = export.getAsLong();
+        long nanos = System.nanoTime() - start;
+        sampler.finish();
+        if (print) {
+            System.out.printf("%-14s %,10d rows  %8.0f ms  %,12.0f rows/s  %,6d MB written  peak live heap +%,5d MB%n", mode,
+                    exported, nanos / 1e6, exported / (nanos / 1e9), bytes.getAsLong() >> 20, sampler.getPeakMegabytes());
+        }
+    }
+
+    // Polls the live heap while an export runs
+    private static class HeapSampler extends Thread {
+
+        private final long baseline;
+        private final AtomicLong peak = new AtomicLong();
+        private volatile boolean running = true;
+
+        HeapSampler() {
+            System.gc();
+            baseline = usedHeap();
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                System.gc();
+                peak.accumulateAndGet(usedHeap() - baseline, Math::max);
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        void finish() throws InterruptedException {
+            running = false;
+            join();
+        }
+
+        long getPeakMegabytes() {
+            return peak.get() >> 20;
+        }
+
+        private static long usedHeap() {
+            Runtime runtime = Runtime.getRuntime();
+            return runtime.totalMemory() - runtime.freeMemory();
+        }
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+
+    private static void load(JdbcBatchGameSalesWriter writer, int rows) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Game> batch = new ArrayList<>(5000);
+        for (int i = 1; i <= rows; i++) {
+            Game game = new Game();
+            game.setId((long) i);
+            game.setGameNo(random.nextInt(100) + 1);
+            game.setGameName("SuperFun");
+            game.setGameCode("SG1");
+            game.setType(random.nextInt(2) + 1);
+            game.setCostPrice(random.nextInt(10000) / 100.0);
+            game.setTax(Math.round(game.getCostPrice() * 9) / 100.0);
+            game.setSalePrice(Math.round((game.getCostPrice() + game.getTax()) * 100) / 100.0);
+            game.setDateOfSale(FROM.plusDays(random.nextInt(30)));
+            batch.add(game);
+            if (batch.size() == 5000) {
+                writer.write(batch);
+                batch.clear();
+            }
+        }
+        writer.write(batch);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.gameSalesService.benchmark;
+
+import com.example.gameSalesService.entity.Game;
+import com.example.gameSalesService.repository.GameRepository;
+import com.example.gameSalesService.repository.GameRepositoryCustomImpl;
+import com.example.gameSalesService.repository.GameSalesFilter;
+import com.example.gameSalesService.service.writer.JdbcBatchGameSalesWriter;
+import com.example.gameSalesService.util.GameSalesCursor;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+// Compares /getGameSales page latency at increasing depth for OFFSET paging with and without the count
+// query, keyset (cursor) paging and slices projected onto four columns (fields=), on an embedded H2
+// database in MySQL mode. Offset pages slow down linearly with depth; a cursor page seeks straight to
+// its first row.
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+//   -Dexec.mainClass=com.example.gameSalesService.benchmark.GameSalesPagingBenchmark -Dexec.args="1000000"
+public class GameSalesPagingBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+    private static final int ITERATIONS = 20;
+    private static final LocalDate FROM = LocalDate.of(2024, 4, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 4, 30);
+    private static final GameSalesFilter APRIL = new GameSalesFilter(FROM, TO, null, null, null, null);
+    private static final GameSalesCursor.Order BY_DATE = GameSalesCursor.Order.DATE_OF_SALE;
+    // The columns most /getGameSales consumers read, as fields=id,gameNo,salePrice,dateOfSale
+    private static final List<String> FIELDS = List.of("id", "gameNo", "salePrice", "dateOfSale");
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        try (BenchmarkDatabase database = BenchmarkDatabase.open("paging_bench")) {
+            TransactionTemplate transactionTemplate = database.transactionTemplate();
+            JdbcBatchGameSalesWriter writer = new JdbcBatchGameSalesWriter(database.jdbcTemplate(), transactionTemplate, 500);
+            load(writer, rows);
+            EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(database.entityManagerFactory());
+            GameRepository repository = new JpaRepositoryFactory(entityManager).getRepository(GameRepository.class,
+                    RepositoryComposition.RepositoryFragments.just(new GameRepositoryCustomImpl(entityManager)));
+            System.out.printf("game_sales: %,d rows, page size %d%n", rows, PAGE_SIZE);
+
+            for (int page : new int[]{0, 999, rows / PAGE_SIZE / 2, rows / PAGE_SIZE - 1}) {
+                // Position of the row just before the page, as a client holding the cursor would have it
+                Game beforeById = page == 0 ? null
+                        : repository.findAll(PageRequest.of(page * PAGE_SIZE - 1, 1)).getContent().get(0);
+                GameSalesCursor afterId = beforeById == null ? null : GameSalesCursor.afterId(beforeById.getId());
+                report("all rows", page, "offset+count", () ->
+                        repository.findAll(PageRequest.of(page, PAGE_SIZE)).getContent());
+                report("all rows", page, "slice", () ->
+                        repository.findSlice(GameSalesFilter.NONE, GameSalesCursor.Order.ID, PageRequest.of(page, PAGE_SIZE)).getContent());
+                report("all rows", page, "cursor", () ->
+                        repository.findAfter(GameSalesFilter.NONE, GameSalesCursor.Order.ID, afterId, Limit.of(PAGE_SIZE + 1)));
+
+                Game beforeByDate = page == 0 ? null
+                        : repository.findAfter(APRIL, BY_DATE, null, Limit.of(page * PAGE_SIZE)).get(page * PAGE_SIZE - 1);
+                GameSalesCursor afterDate = beforeByDate == null ? null
+                        : GameSalesCursor.afterDate(beforeByDate.getDateOfSale(), beforeByDate.getId());
+                report("date range", page, "offset+count", () -> {
+                    repository.countMatching(APRIL);
+                    return repository.findSlice(APRIL, BY_DATE, PageRequest.of(page, PAGE_SIZE)).getContent();
+                });
+                report("date range", page, "slice", () ->
+                        repository.findSlice(APRIL, BY_DATE, PageRequest.of(page, PAGE_SIZE)).getContent());
+                report("date range", page, "slice fields", () ->
+                        repository.findFields(FIELDS, APRIL, BY_DATE, PageRequest.of(page, PAGE_SIZE)).getContent());
+                report("date range", page, "cursor", () ->
+                        repository.findAfter(APRIL, BY_DATE, afterDate, Limit.of(PAGE_SIZE + 1)));
+            }
+        }
+    }
+
+    private static void report(String query, int page, String mode, Supplier<List<?>> fetch) {
+        long[] nanos = new long[ITERATIONS];
+        int returned = 0;
+        // First half warms up
+        for (int i = 0; i < ITERATIONS * 2; i++) {
+            long start = System.nanoTime();
+            returned = fetch.get().size();
+            if (i >= ITERATIONS) {
+                nanos[i - ITERATIONS] = System.nanoTime() - start;
+            }
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-10s page %,7d  %-12s p50 %9.2f ms  p90 %9.2f ms  (%d rows)%n", query, page, mode,
+                nanos[ITERATIONS / 2] / 1e6, nanos[ITERATIONS * 9 / 10] / 1e6, returned);
+    }
+
+    private static void load(JdbcBatchGameSalesWriter writer, int rows) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Game> batch = new ArrayList<>(5000);
+        for (int i = 1; i <= rows; i++) {
+            Game game = new Game();
+            game.setId((long) i);
+            game.setGameNo(random.nextInt(100) + 1);
+            game.setGameName("SuperFun");
+            game.setGameCode("SG1");
+            game.setType(random.nextInt(2) + 1);
+            game.setCostPrice(random.nextInt(10000) / 100.0);
+            game.setTax(Math.round(game.getCostPrice() * 9) / 100.0);
+            game.setSalePrice(Math.round((game.getCostPrice() + game.getTax()) * 100) / 100.0);
+            game.setDateOfSale(FROM.plusDays(random.nextInt(30)));
+            batch.add(game);
+            if (batch.size() == 5000) {
+                writer.write(batch);
+                batch.clear();
+            }
+        }
+        writer.write(batch);
+    }
+}
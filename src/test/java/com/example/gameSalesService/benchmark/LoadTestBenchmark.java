@@ -0,0 +1,255 @@
+package com.example.gameSalesService.benchmark;
+
+import com.example.gameSalesService.GameSalesServiceApplication;
+import com.example.gameSalesService.util.GameSalesCsvGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// End-to-end load test on one box: generates a CSV, boots the whole service on the embedded H2 database
+// of the test profile, times POST /api/import until the job completes, then has `threads` clients send a
+// mix of /getGameSales (first pages, deep offset pages) and /getTotalSales requests with random periods
+// for `seconds` after a warmup. Prints import throughput and per-request-type throughput and latency
+// percentiles, and writes each latency histogram as an .hgrm percentile file to target/load-test so
+// runs of different builds can be compared (e.g. with HdrHistogram's plotter).
+// Clients are closed-loop: each sends its next request when the last one returns, so throughput is what
+// the service sustains at that concurrency and the percentiles are those of the requests actually sent.
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+//   -Dexec.mainClass=com.example.gameSalesService.benchmark.LoadTestBenchmark -Dexec.args="1000000 16 60"
+public class LoadTestBenchmark {
+
+    private static final int WARMUP_SECONDS = 10;
+    private static final int PAGE_SIZE = 100;
+    // GameSalesCsvGenerator sells in April 2024
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 4, 1);
+    private static final int DAYS = 30;
+    // Latencies up to a minute, at three significant digits
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final Path REPORT_DIR = Path.of("target", "load-test");
+
+    // Request types and their share of the traffic, in percent
+    private enum Scenario {
+        GAME_SALES_FIRST_PAGES(50),
+        GAME_SALES_DEEP_PAGE(20),
+        TOTAL_SALES(30);
+
+        private final int weight;
+
+        Scenario(int weight) {
+            this.weight = weight;
+        }
+
+        static Scenario pick(SplittableRandom random) {
+            int roll = random.nextInt(100);
+            for (Scenario scenario : values()) {
+                roll -= scenario.weight;
+                if (roll < 0) {
+                    return scenario;
+                }
+            }
+            return TOTAL_SALES;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+
+        Path file = Files.createTempFile("game_sales_load_", ".csv");
+        ConfigurableApplicationContext context = null;
+        try {
+            GameSalesCsvGenerator.generateCsvFile(file.toString(), rows);
+
+            context = new SpringApplicationBuilder(GameSalesServiceApplication.class)
+                    .profiles("test")
+                    // A random port, and no replay of queries recorded by earlier runs
+                    .properties("server.port=0", "game-sales.warmup.enabled=false")
+                    .run();
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api";
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+
+            timeImport(client, baseUrl, file, rows);
+            Files.deleteIfExists(file);
+
+            // Warmup traffic is discarded, then the measured run starts from fresh histograms
+            // with other random requests, so the measured run does not replay the warmup into the cache
+            drive(client, baseUrl, rows, threads, WARMUP_SECONDS, 0);
+            Result result = drive(client, baseUrl, rows, threads, seconds, threads);
+            report(result, threads, seconds);
+        } finally {
+            Files.deleteIfExists(file);
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static void timeImport(HttpClient client, String baseUrl, Path file, int rows) throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<String> accepted = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/import"))
+                .header("Content-Type", "text/csv")
+                .POST(HttpRequest.BodyPublishers.ofFile(file))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (accepted.statusCode() != 202) {
+            throw new IllegalStateException("Import was not accepted: " + accepted.statusCode() + " " + accepted.body());
+        }
+        long uploaded = System.nanoTime();
+        ObjectMapper objectMapper = new ObjectMapper();
+        String statusUrl = baseUrl + "/import/" + objectMapper.readTree(accepted.body()).get("jobId").asText();
+
+        JsonNode job;
+        do {
+            Thread.sleep(100);
+            job = objectMapper.readTree(client.send(HttpRequest.newBuilder(URI.create(statusUrl)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString()).body());
+        } while ("QUEUED".equals(job.get("status").asText()) || "RUNNING".equals(job.get("status").asText()));
+        long elapsed = System.nanoTime() - start;
+
+        if (!"COMPLETED".equals(job.get("status").asText())) {
+            throw new IllegalStateException("Import finished as " + job);
+        }
+        System.out.printf("%nimport %,d rows: upload %,d ms, total %,d ms, %,.0f rows/s%n",
+                rows, (uploaded - start) / 1_000_000, elapsed / 1_000_000, rows / (elapsed / 1e9));
+    }
+
+    private static Result drive(HttpClient client, String baseUrl, int rows, int threads, int seconds,
+                                int firstSeed) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Result>> clients = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                SplittableRandom random = new SplittableRandom(firstSeed + i);
+                clients.add(executor.submit(() -> runClient(client, baseUrl, rows, random, deadline)));
+            }
+            Result total = new Result();
+            for (Future<Result> result : clients) {
+                total.add(result.get());
+            }
+            return total;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // One client's requests until the deadline, each recorded under its scenario
+    private static Result runClient(HttpClient client, String baseUrl, int rows, SplittableRandom random,
+                                    long deadline) throws IOException, InterruptedException {
+        Result result = new Result();
+        while (System.nanoTime() < deadline) {
+            Scenario scenario = Scenario.pick(random);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path(scenario, rows, random)))
+                    .timeout(Duration.ofMinutes(1))
+                    .GET()
+                    .build();
+            long start = System.nanoTime();
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            long micros = (System.nanoTime() - start) / 1000;
+            result.histograms[scenario.ordinal()].recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+            if (response.statusCode() != 200) {
+                result.errors.incrementAndGet(scenario.ordinal());
+            }
+        }
+        return result;
+    }
+
+    // A request of the scenario over a random period of the generated month
+    private static String path(Scenario scenario, int rows, SplittableRandom random) {
+        LocalDate fromDate = FIRST_DAY.plusDays(random.nextInt(DAYS));
+        LocalDate toDate = fromDate.plusDays(random.nextInt(DAYS - (int) (fromDate.toEpochDay() - FIRST_DAY.toEpochDay())));
+        String period = "fromDate=" + fromDate + "&toDate=" + toDate;
+        return switch (scenario) {
+            case GAME_SALES_FIRST_PAGES -> "/getGameSales?" + period + "&page=" + random.nextInt(10) + "&size=" + PAGE_SIZE;
+            // Anywhere in the whole table, about 10000 pages deep for a million rows
+            case GAME_SALES_DEEP_PAGE -> "/getGameSales?page=" + random.nextInt(Math.max(1, rows / PAGE_SIZE))
+                    + "&size=" + PAGE_SIZE;
+            // Games sold or sales of all games, or sales of one game (salesCount takes no gameNo)
+            case TOTAL_SALES -> "/getTotalSales?" + period + switch (random.nextInt(3)) {
+                case 0 -> "&filter=salesCount";
+                case 1 -> "&filter=totalSales";
+                default -> "&filter=totalSales&gameNo=" + (random.nextInt(100) + 1);
+            };
+        };
+    }
+
+    private static void report(Result result, int threads, int seconds) throws IOException {
+        Files.createDirectories(REPORT_DIR);
+        Histogram all = new Histogram(MAX_LATENCY_MICROS, 3);
+        System.out.printf("%n%d clients, %d s%n", threads, seconds);
+        System.out.printf("%-24s %10s %10s %9s %9s %9s %9s %9s %7s%n",
+                "request", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "p999 ms", "max ms", "errors");
+        for (Scenario scenario : Scenario.values()) {
+            Histogram histogram = result.histograms[scenario.ordinal()];
+            all.add(histogram);
+            print(scenario.name().toLowerCase(), histogram, seconds, result.errors.get(scenario.ordinal()));
+            write(histogram, scenario.name().toLowerCase());
+        }
+        long errors = 0;
+        for (int i = 0; i < result.errors.length(); i++) {
+            errors += result.errors.get(i);
+        }
+        print("all", all, seconds, errors);
+        write(all, "all");
+        System.out.println("Percentile distributions written to " + REPORT_DIR.toAbsolutePath());
+    }
+
+    private static void print(String name, Histogram histogram, int seconds, long errors) {
+        System.out.printf("%-24s %,10d %,10.0f %9.2f %9.2f %9.2f %9.2f %9.2f %,7d%n",
+                name, histogram.getTotalCount(), histogram.getTotalCount() / (double) seconds,
+                histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(90) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0, histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0, errors);
+    }
+
+    // Percentile distribution in milliseconds, the format HdrHistogram's plotter reads
+    private static void write(Histogram histogram, String name) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(REPORT_DIR.resolve(name + ".hgrm")))) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    // Latencies in microseconds and non-200 responses, per scenario
+    private static class Result {
+
+        private final Histogram[] histograms = new Histogram[Scenario.values().length];
+        private final AtomicLongArray errors = new AtomicLongArray(Scenario.values().length);
+
+        Result() {
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i] = new Histogram(MAX_LATENCY_MICROS, 3);
+            }
+        }
+
+        void add(Result other) {
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i].add(other.histograms[i]);
+                errors.addAndGet(i, other.errors.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.gameSalesService.benchmark;
+
+import com.example.gameSalesService.entity.GameSalesPriceSketch;
+import com.example.gameSalesService.service.PriceDistributionService;
+import com.example.gameSalesService.service.writer.GameSalesPriceSketchWriter;
+import com.example.gameSalesService.util.PriceSketchAggregator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.LongSupplier;
+
+// Measures /getPriceDistribution merges over an embedded H2 database in MySQL mode holding day and month
+// price sketches for every game, built from `rowsPerDay` random sales a day, as an import would write them.
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+//   -Dexec.mainClass=com.example.gameSalesService.benchmark.PriceDistributionBenchmark -Dexec.args="3 100 3000"
+public class PriceDistributionBenchmark {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+    private static final int ITERATIONS = 50;
+
+    public static void main(String[] args) {
+        int years = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int rowsPerDay = args.length > 2 ? Integer.parseInt(args[2]) : 3000;
+        LocalDate lastDay = FIRST_DAY.plusYears(years).minusDays(1);
+
+        try (BenchmarkDatabase database = BenchmarkDatabase.open("price_distribution_bench")) {
+            JdbcTemplate jdbcTemplate = database.jdbcTemplate();
+            TransactionTemplate transactionTemplate = database.transactionTemplate();
+            GameSalesPriceSketchWriter writer = new GameSalesPriceSketchWriter(jdbcTemplate, transactionTemplate, 1000);
+
+            long loadStart = System.nanoTime();
+            int rows = load(writer, lastDay, games, rowsPerDay);
+            System.out.printf("game_sales_price_sketch: %,d rows (%d years x %d games, %,d sales a day) in %,d ms%n",
+                    rows, years, games, rowsPerDay, (System.nanoTime() - loadStart) / 1_000_000);
+
+            PriceDistributionService service = new PriceDistributionService();
+            ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+
+            List<LocalDate[]> periods = List.of(
+                    new LocalDate[]{lastDay.minusDays(6), lastDay},
+                    new LocalDate[]{lastDay.minusMonths(1).plusDays(1).minusDays(10), lastDay.minusDays(10)},
+                    new LocalDate[]{lastDay.minusYears(1).plusDays(15), lastDay.minusDays(15)},
+                    new LocalDate[]{FIRST_DAY, lastDay});
+            for (LocalDate[] period : periods) {
+                String label = period[0] + ".." + period[1];
+                report(label, "all games", () -> service.distribution(period[0], period[1], null).getCount());
+                report(label, "one game", () -> service.distribution(period[0], period[1], 1).getCount());
+            }
+        }
+    }
+
+    // One aggregator per month, the way the import and the backfill write them
+    private static int load(GameSalesPriceSketchWriter writer, LocalDate lastDay, int games, int rowsPerDay) {
+        SplittableRandom random = new SplittableRandom(42);
+        int rows = 0;
+        for (LocalDate month = FIRST_DAY; !month.isAfter(lastDay); month = month.plusMonths(1)) {
+            PriceSketchAggregator aggregator = new PriceSketchAggregator();
+            for (LocalDate day = month; day.getMonth() == month.getMonth() && !day.isAfter(lastDay); day = day.plusDays(1)) {
+                for (int i = 0; i < rowsPerDay; i++) {
+                    aggregator.add((int) day.toEpochDay(), random.nextInt(1, games + 1), random.nextInt(1, 10900));
+                }
+            }
+            List<GameSalesPriceSketch> sketches = aggregator.toSketches();
+            writer.insert(sketches);
+            rows += sketches.size();
+        }
+        return rows;
+    }
+
+    private static void report(String period, String name, LongSupplier query) {
+        long[] nanos = new long[ITERATIONS];
+        long sink = 0;
+        // First half warms up the JIT and H2 caches
+        for (int i = 0; i < ITERATIONS * 2; i++) {
+            long start = System.nanoTime();
+            sink += query.getAsLong();
+            if (i >= ITERATIONS) {
+                nanos[i - ITERATIONS] = System.nanoTime() - start;
+            }
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-24s %-10s p50 %9.4f ms  p90 %9.4f ms  (%s)%n", period, name,
+                nanos[ITERATIONS / 2] / 1e6, nanos[ITERATIONS * 9 / 10] / 1e6, sink > 0 ? "ok" : "empty");
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.gameSalesService.benchmark;
+
+import com.example.gameSalesService.entity.GameSalesAggregated;
+import com.example.gameSalesService.repository.GameSalesAggregatedRepository;
+import com.example.gameSalesService.repository.GameSalesTotal;
+import com.example.gameSalesService.service.SalesRollupIndex;
+import com.example.gameSalesService.service.writer.GameSalesAggregatedUpserter;
+import com.example.gameSalesService.util.TopGamesSelector;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+
+// Compares /getTotalSales latency for loading aggregated entities and summing them in Java, a
+// database-side SUM and the in-memory SalesRollupIndex, and of a top-10 pick over either, over an embedded H2 database in MySQL mode holding several years of
+// daily aggregates for every game.
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+//   -Dexec.mainClass=com.example.gameSalesService.benchmark.TotalSalesQueryBenchmark -Dexec.args="5 100"
+public class TotalSalesQueryBenchmark {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+    private static final int ITERATIONS = 50;
+
+    public static void main(String[] args) {
+        int years = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        LocalDate lastDay = FIRST_DAY.plusYears(years).minusDays(1);
+
+        try (BenchmarkDatabase database = BenchmarkDatabase.open("total_sales_bench")) {
+            EntityManager em = SharedEntityManagerCreator.createSharedEntityManager(database.entityManagerFactory());
+            TransactionTemplate transactionTemplate = database.transactionTemplate();
+            GameSalesAggregatedUpserter upserter =
+                    new GameSalesAggregatedUpserter(database.jdbcTemplate(), transactionTemplate, 1000);
+            GameSalesAggregatedRepository repository =
+                    new JpaRepositoryFactory(em).getRepository(GameSalesAggregatedRepository.class);
+
+            int rows = load(upserter, lastDay, games);
+            System.out.printf("game_sales_aggregated: %,d rows (%d years x %d games)%n", rows, years, games);
+
+            SalesRollupIndex index = new SalesRollupIndex();
+            ReflectionTestUtils.setField(index, "jdbcTemplate", database.jdbcTemplate());
+            ReflectionTestUtils.setField(index, "gameSalesAggregatedRepository", repository);
+            ReflectionTestUtils.setField(index, "enabled", true);
+            ReflectionTestUtils.setField(index, "maxCells", Long.MAX_VALUE);
+            long buildStart = System.nanoTime();
+            index.rebuild();
+            System.out.printf("rollup index built in %,d ms%n", (System.nanoTime() - buildStart) / 1_000_000);
+
+            List<LocalDate[]> periods = List.of(
+                    new LocalDate[]{lastDay.minusMonths(1).plusDays(1), lastDay},
+                    new LocalDate[]{lastDay.minusYears(1).plusDays(1), lastDay},
+                    new LocalDate[]{FIRST_DAY, lastDay});
+            for (LocalDate[] period : periods) {
+                LocalDate from = period[0];
+                LocalDate to = period[1];
+                String label = from + ".." + to;
+                report(label, "entities + stream sum", () -> em
+                        .createQuery("SELECT a FROM GameSalesAggregated a WHERE a.dateOfSale BETWEEN :fromDate AND :toDate",
+                                GameSalesAggregated.class)
+                        .setParameter("fromDate", from)
+                        .setParameter("toDate", to)
+                        .getResultList()
+                        .stream()
+                        .mapToDouble(GameSalesAggregated::getTotalSales)
+                        .sum());
+                report(label, "SUM query", () -> repository.sumTotalSalesByDateOfSaleBetween(from, to));
+                report(label, "SUM query, one game", () -> repository.sumTotalSalesByDateOfSaleBetweenAndGameNo(from, to, 1));
+                report(label, "SUM ... GROUP BY game_no", () -> repository.sumByGameNo(from, to).size());
+                report(label, "rollup index", () -> index.sumTotalSales(from, to));
+                report(label, "rollup index, one game", () -> index.sumTotalSales(from, to, 1));
+                report(label, "rollup index, per game", () -> index.sumByGameNo(from, to).size());
+                report(label, "top 10 by revenue, index", () -> topTen(from, to, index::forEachGame));
+                report(label, "top 10 by revenue, SUM", () -> topTen(from, to,
+                        (fromDate, toDate, consumer) -> repository.sumByGameNo(fromDate, toDate).forEach(consumer)));
+            }
+        }
+    }
+
+    // The selection TopGamesService runs over per-game totals from either source
+    private static double topTen(LocalDate from, LocalDate to, GameTotals totals) {
+        TopGamesSelector selector = new TopGamesSelector(TopGamesSelector.Metric.REVENUE, 10, true);
+        totals.forEachGame(from, to, selector::offer);
+        return selector.result().size();
+    }
+
+    private interface GameTotals {
+        void forEachGame(LocalDate from, LocalDate to, Consumer<GameSalesTotal> consumer);
+    }
+
+    private static int load(GameSalesAggregatedUpserter upserter, LocalDate lastDay, int games) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<GameSalesAggregated> aggregates = new ArrayList<>();
+        for (LocalDate day = FIRST_DAY; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            for (int gameNo = 1; gameNo <= games; gameNo++) {
+                GameSalesAggregated aggregated = new GameSalesAggregated();
+                aggregated.setDateOfSale(day);
+                aggregated.setGameNo(gameNo);
+                aggregated.setTotalGamesSold(random.nextInt(1, 500));
+                aggregated.setTotalSales(aggregated.getTotalGamesSold() * random.nextInt(100, 10000) / 100.0);
+                aggregates.add(aggregated);
+            }
+        }
+        upserter.upsert(aggregates);
+        return aggregates.size();
+    }
+
+    private static void report(String period, String name, DoubleSupplier query) {
+        long[] nanos = new long[ITERATIONS];
+        double sink = 0;
+        // First half warms up the JIT and H2 caches
+        for (int i = 0; i < ITERATIONS * 2; i++) {
+            long start = System.nanoTime();
+            sink += query.getAsDouble();
+            if (i >= ITERATIONS) {
+                nanos[i - ITERATIONS] = System.nanoTime() - start;
+            }
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-24s %-26s p50 %9.4f ms  p90 %9.4f ms  (%s)%n", period, name,
+                nanos[ITERATIONS / 2] / 1e6, nanos[ITERATIONS * 9 / 10] / 1e6, sink > 0 ? "ok" : "empty");
+    }
+}
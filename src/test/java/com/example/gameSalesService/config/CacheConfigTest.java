@@ -0,0 +1,61 @@
+package com.example.gameSalesService.config;
+
+import com.example.gameSalesService.service.QueryResponseCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringJUnitConfig
+public class CacheConfigTest {
+
+    @Configuration
+    @Import(CacheConfig.class)
+    static class Config {
+
+        // Lets @Value bind "10m" to a Duration as it does in the application
+        @Bean
+        static ConversionService conversionService() {
+            return ApplicationConversionService.getSharedInstance();
+        }
+    }
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    public void shouldEvictOnceMaximumResponseBytesAreCached() {
+        CacheManager bounded = new CacheConfig().cacheManager(10, 250_000, Duration.ofMinutes(10));
+        Cache cache = bounded.getCache(CacheConfig.QUERY_RESPONSE_CACHE);
+        assertNotNull(cache);
+        for (int page = 0; page < 10; page++) {
+            cache.put(page, new QueryResponseCache.CachedResponse("\"tag\"", new byte[80_000], new byte[20_000]));
+        }
+
+        com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache =
+                (com.github.benmanes.caffeine.cache.Cache<?, ?>) cache.getNativeCache();
+        nativeCache.cleanUp();
+        // Each response weighs 100,000 bytes, so at most two fit under 250,000
+        assertTrue(nativeCache.estimatedSize() <= 2);
+        assertTrue(nativeCache.stats().evictionCount() >= 8);
+    }
+
+    @Test
+    public void shouldOnlyProvideConfiguredCaches() {
+        assertNotNull(cacheManager.getCache(CacheConfig.GAME_SALES_COUNT_CACHE));
+        assertNotNull(cacheManager.getCache(CacheConfig.QUERY_RESPONSE_CACHE));
+        assertNull(cacheManager.getCache("gameSalesCache"));
+    }
+}
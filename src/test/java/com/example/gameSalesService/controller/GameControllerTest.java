@@ -1,41 +1,93 @@
 package com.example.gameSalesService.controller;
 
 import com.example.gameSalesService.entity.Game;
-import com.example.gameSalesService.entity.GameSalesAggregated;
+import com.example.gameSalesService.entity.GameSalesRollup;
+import com.example.gameSalesService.entity.ImportJob;
 import com.example.gameSalesService.repository.GameRepository;
+import com.example.gameSalesService.repository.GameRepositoryCustom;
 import com.example.gameSalesService.repository.GameSalesAggregatedRepository;
+import com.example.gameSalesService.repository.GameSalesFilter;
+import com.example.gameSalesService.repository.GameSalesTotal;
 import com.example.gameSalesService.service.CacheWarmupService;
+import com.example.gameSalesService.service.GameSalesCountService;
+import com.example.gameSalesService.service.GameSalesExportService;
+import com.example.gameSalesService.service.HotQueryRecorder;
+import com.example.gameSalesService.service.ImportJobService;
+import com.example.gameSalesService.service.ImportProgress;
 import com.example.gameSalesService.service.ImportService;
+import com.example.gameSalesService.service.QueryMetrics;
+import com.example.gameSalesService.service.QueryResponseCache;
+import com.example.gameSalesService.service.PriceDistributionService;
+import com.example.gameSalesService.service.SalesRollupIndex;
+import com.example.gameSalesService.service.SalesSeriesService;
+import com.example.gameSalesService.service.TopGamesService;
+import com.example.gameSalesService.util.GameSalesCursor;
+import com.example.gameSalesService.util.PriceSketch;
+import com.example.gameSalesService.util.TopGamesSelector;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.hamcrest.Matchers.*;
 
 @WebMvcTest(GameController.class)
+@Import({QueryResponseCache.class, HotQueryRecorder.class, QueryMetrics.class, SimpleMeterRegistry.class})
 public class GameControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @MockBean
     private GameRepository gameRepository;
 
@@ -48,12 +100,188 @@ public class GameControllerTest {
     @MockBean
     private CacheWarmupService cacheWarmupService;
 
+    @MockBean
+    private ImportJobService importJobService;
+
+    @MockBean
+    private GameSalesCountService gameSalesCountService;
+
+    @MockBean
+    private GameSalesExportService gameSalesExportService;
+
+    // Not ready unless stubbed, so totals come from the repository mock
+    @MockBean
+    private SalesRollupIndex salesRollupIndex;
+
+    @MockBean
+    private SalesSeriesService salesSeriesService;
+
+    @MockBean
+    private TopGamesService topGamesService;
+
+    @MockBean
+    private PriceDistributionService priceDistributionService;
+
+    @BeforeEach
+    public void setUp() {
+        given(importJobService.createJob(any())).willReturn(new ImportProgress("job-1", "games.csv", Instant.now()));
+    }
+
     @Test
     public void shouldReturnStatusOkForHealthCheck() throws Exception {
         mockMvc.perform(get("/api/health"))
                 .andExpect(status().isOk());
     }
 
+    @Test
+    public void shouldReturnCacheStats() throws Exception {
+        // The web slice runs with a no-op cache manager, which has no Caffeine caches to report
+        mockMvc.perform(get("/api/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", anEmptyMap()));
+    }
+
+    @Test
+    public void shouldStreamExportAsAttachment() throws Exception {
+        LocalDate fromDate = LocalDate.of(2024, 4, 1);
+        LocalDate toDate = LocalDate.of(2024, 4, 30);
+        given(gameSalesExportService.export(eq(GameSalesExportService.Format.NDJSON),
+                eq(new GameSalesFilter(fromDate, toDate, 50.0, null, null, null)), any())).willAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/exportGameSales")
+                        .param("fromDate", "2024-04-01")
+                        .param("toDate", "2024-04-30")
+                        .param("salePrice", "50")
+                        .param("filter", "greaterThan")
+                        .param("format", "ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // The export timeout, instead of the container default
+        assertEquals(3_600_000L, result.getRequest().getAsyncContext().getTimeout());
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"game_sales.ndjson\""))
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+
+    @Test
+    public void shouldRejectInvalidExportParameters() throws Exception {
+        expectExportError(get("/api/exportGameSales").param("format", "xml"), "Invalid format value");
+        expectExportError(get("/api/exportGameSales").param("fromDate", "2024-04-01"),
+                "fromDate and toDate must be given together");
+        expectExportError(get("/api/exportGameSales").param("salePrice", "50").param("filter", "equal"),
+                "Invalid filter value");
+        verifyNoInteractions(gameSalesExportService);
+    }
+
+    private void expectExportError(MockHttpServletRequestBuilder request, String error) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is(error)));
+    }
+
+    @Test
+    public void shouldReportCacheWarmup() throws Exception {
+        mockMvc.perform(get("/api/cache/warmup"))
+                .andExpect(status().isNotFound());
+
+        given(cacheWarmupService.getLastReport())
+                .willReturn(new CacheWarmupService.WarmupReport(3, 2, 1, 0, 12, Instant.now()));
+
+        mockMvc.perform(get("/api/cache/warmup"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.keys", is(3)))
+                .andExpect(jsonPath("$.warmed", is(2)))
+                .andExpect(jsonPath("$.notCached", is(1)))
+                .andExpect(jsonPath("$.millis", is(12)));
+    }
+
+    @Test
+    public void shouldAnswerMatchingIfNoneMatchWithNotModified() throws Exception {
+        LocalDate fromDate = LocalDate.of(2024, 4, 1);
+        LocalDate toDate = LocalDate.of(2024, 4, 30);
+        given(gameSalesAggregatedRepository.sumTotalSalesByDateOfSaleBetween(fromDate, toDate)).willReturn(10.0);
+
+        String etag = mockMvc.perform(get("/api/getTotalSales")
+                        .param("fromDate", "2024-04-01")
+                        .param("toDate", "2024-04-30"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.totalSales", is("10.00")))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/getTotalSales")
+                        .param("fromDate", "2024-04-01")
+                        .param("toDate", "2024-04-30")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().bytes(new byte[0]));
+
+        // Another query has its own tag
+        mockMvc.perform(get("/api/getTotalSales")
+                        .param("fromDate", "2024-04-01")
+                        .param("toDate", "2024-04-29")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void shouldTimeQueriesByEndpointFilterAndStatus() throws Exception {
+        LocalDate fromDate = LocalDate.of(2024, 5, 1);
+        LocalDate toDate = LocalDate.of(2024, 5, 31);
+        given(gameSalesAggregatedRepository.sumTotalSalesByDateOfSaleBetween(fromDate, toDate)).willReturn(10.0);
+        // The registry is shared by the tests of this class
+        long answered = queryCount("totalSales", "200");
+        long rejected = queryCount("salesCount+gameNo", "400");
+
+        mockMvc.perform(get("/api/getTotalSales")
+                        .param("fromDate", "2024-05-01")
+                        .param("toDate", "2024-05-31"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/getTotalSales")
+                        .param("fromDate", "2024-05-01")
+                        .param("toDate", "2024-05-31")
+                        .param("gameNo", "1")
+                        .param("filter", "salesCount"))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(answered + 1, queryCount("totalSales", "200"));
+        assertEquals(rejected + 1, queryCount("salesCount+gameNo", "400"));
+    }
+
+    private long queryCount(String filter, String status) {
+        Timer timer = meterRegistry.find(QueryMetrics.QUERY_TIMER)
+                .tags("endpoint", "getTotalSales", "filter", filter, "status", status).timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    @Test
+    public void shouldGzipLargeResponsesWhenAccepted() throws Exception {
+        given(gameRepository.findSlice(GameSalesFilter.NONE, GameSalesCursor.Order.ID, PageRequest.of(0, 100)))
+                .willReturn(new PageImpl<>(createGameList(50, "Gzip")));
+
+        byte[] body = mockMvc.perform(get("/api/getGameSales")
+                        .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(header().string("ETag", endsWith("-gzip\"")))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            String json = new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(json.contains("\"gameName\":\"Gzip50\""));
+        }
+    }
+
     @Test
     public void shouldReturnStatusOkForImportCsv() throws Exception {
         MockMultipartFile csvFile = new MockMultipartFile(
@@ -69,6 +297,49 @@ public class GameControllerTest {
 
         mockMvc.perform(multipart("/api/import")
                         .file(csvFile))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/import/job-1"))
+                .andExpect(jsonPath("$.jobId", is("job-1")))
+                .andExpect(jsonPath("$.status", is("QUEUED")));
+    }
+
+    @Test
+    public void shouldReturnImportJobStatus() throws Exception {
+        ImportJob job = new ImportJob();
+        job.setId("job-1");
+        job.setStatus(ImportJob.Status.COMPLETED);
+        job.setRowsParsed(1000);
+        job.setRowsPersisted(1000);
+        job.setParseMillis(12L);
+        given(importJobService.findJob("job-1")).willReturn(Optional.of(job));
+
+        mockMvc.perform(get("/api/import/job-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("COMPLETED")))
+                .andExpect(jsonPath("$.rowsPersisted", is(1000)))
+                .andExpect(jsonPath("$.parseMillis", is(12)))
+                .andExpect(jsonPath("$.failedBatches", is(0)));
+    }
+
+    @Test
+    public void shouldReturnNotFoundForUnknownImportJob() throws Exception {
+        given(importJobService.findJob("missing")).willReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/import/missing"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error", is("Import job not found")));
+    }
+
+    @Test
+    public void shouldReturnStatusAcceptedForStreamedCsvBody() throws Exception {
+        String csv = """
+                id,game_no,game_name,game_code,type,cost_price,tax,sale_price,date_of_sale
+                1,10,GameA,GA,1,50.0,4.5,54.5,2024-11-25
+                """;
+
+        mockMvc.perform(post("/api/import")
+                        .contentType("text/csv")
+                        .content(csv))
                 .andExpect(status().isAccepted());
     }
 
@@ -82,7 +353,7 @@ public class GameControllerTest {
         Page<Game> gamePage = new PageImpl<>(games); // Mocking a Page object
 
         // Mock the Pageable argument
-        given(gameRepository.findAll(PageRequest.of(0, 100))).willReturn(gamePage);
+        given(gameRepository.findSlice(GameSalesFilter.NONE, GameSalesCursor.Order.ID, PageRequest.of(0, 100))).willReturn(gamePage);
 
         mockMvc.perform(get("/api/getGameSales")
                         .param("page", "0")
@@ -99,7 +370,7 @@ public class GameControllerTest {
         Page<Game> gamePage = new PageImpl<>(games); // Mocking an empty Page object
 
         // Mock the Pageable argument
-        given(gameRepository.findAll(PageRequest.of(0, 100))).willReturn(gamePage);
+        given(gameRepository.findSlice(GameSalesFilter.NONE, GameSalesCursor.Order.ID, PageRequest.of(0, 100))).willReturn(gamePage);
 
         mockMvc.perform(get("/api/getGameSales")
                         .param("page", "0")
@@ -128,7 +399,8 @@ public class GameControllerTest {
         LocalDate toDate = LocalDate.of(2024, 11, 27);
 
         // Mocking the repository to return gamePage when using the date range
-        given(gameRepository.findAllByDateOfSaleBetween(fromDate, toDate, pageable)).willReturn(gamePage);
+        given(gameRepository.findSlice(new GameSalesFilter(fromDate, toDate, null, null, null, null),
+                GameSalesCursor.Order.DATE_OF_SALE, pageable)).willReturn(gamePage);
 
         mockMvc.perform(get("/api/getGameSales")
                         .param("fromDate", "2024-11-24")
@@ -163,7 +435,8 @@ public class GameControllerTest {
         Double salePrice = 150.0;
 
         // Mocking the repository to return gamePage when sale price is greater than the given value
-        given(gameRepository.findAllBySalePriceGreaterThan(salePrice, pageable)).willReturn(gamePage);
+        given(gameRepository.findSlice(new GameSalesFilter(null, null, salePrice, null, null, null),
+                GameSalesCursor.Order.SALE_PRICE, pageable)).willReturn(gamePage);
 
         mockMvc.perform(get("/api/getGameSales")
                         .param("salePrice", "150")
@@ -195,7 +468,8 @@ public class GameControllerTest {
         Double salePrice = 100.0;
 
         // Mocking the repository to return gamePage when sale price is less than the given value
-        given(gameRepository.findAllBySalePriceLessThan(salePrice, pageable)).willReturn(gamePage);
+        given(gameRepository.findSlice(new GameSalesFilter(null, null, null, salePrice, null, null),
+                GameSalesCursor.Order.SALE_PRICE, pageable)).willReturn(gamePage);
 
         mockMvc.perform(get("/api/getGameSales")
                         .param("salePrice", "100")
@@ -217,8 +491,8 @@ public class GameControllerTest {
         Page<Game> gamePage1 = new PageImpl<>(gamesPage1);
         Page<Game> gamePage2 = new PageImpl<>(gamesPage2);
 
-        given(gameRepository.findAll(PageRequest.of(0, 100))).willReturn(gamePage1);
-        given(gameRepository.findAll(PageRequest.of(1, 100))).willReturn(gamePage2);
+        given(gameRepository.findSlice(GameSalesFilter.NONE, GameSalesCursor.Order.ID, PageRequest.of(0, 100))).willReturn(gamePage1);
+        given(gameRepository.findSlice(GameSalesFilter.NONE, GameSalesCursor.Order.ID, PageRequest.of(1, 100))).willReturn(gamePage2);
 
         // - First Page
         mockMvc.perform(get("/api/getGameSales")
@@ -237,6 +511,223 @@ public class GameControllerTest {
                 .andExpect(jsonPath("$.games[0].gameName", is("GamePage2_1")));
     }
 
+    @Test
+    public void shouldTakeTotalsFromCountServiceWhenPageIsFull() throws Exception {
+        LocalDate fromDate = LocalDate.of(2024, 4, 1);
+        LocalDate toDate = LocalDate.of(2024, 4, 30);
+        Pageable pageable = PageRequest.of(2, 10);
+        GameSalesFilter april = new GameSalesFilter(fromDate, toDate, null, null, null, null);
+        given(gameRepository.findSlice(april, GameSalesCursor.Order.DATE_OF_SALE, pageable))
+                .willReturn(new SliceImpl<>(createGameList(10, "Full"), pageable, true));
+        given(gameSalesCountService.count(april)).willReturn(95L);
+
+        mockMvc.perform(get("/api/getGameSales")
+                        .param("fromDate", "2024-04-01")
+                        .param("toDate", "2024-04-30")
+                        .param("page", "2")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.games", hasSize(10)))
+                .andExpect(jsonPath("$.currentPage", is(2)))
+                .andExpect(jsonPath("$.totalItems", is(95)))
+                .andExpect(jsonPath("$.totalPages", is(10)));
+    }
+
+    @Test
+    public void shouldOmitTotalsInSliceMode() throws Exception {
+        Pageable pageable = PageRequest.of(3, 10);
+        given(gameRepository.findSlice(new GameSalesFilter(null, null, null, 20.0, null, null),
+                GameSalesCursor.Order.SALE_PRICE, pageable))
+                .willReturn(new SliceImpl<>(createGameList(10, "Cheap"), pageable, true));
+
+        mockMvc.perform(get("/api/getGameSales")
+                        .param("salePrice", "20")
+                        .param("filter", "lessThan")
+                        .param("page", "3")
+                        .param("size", "10")
+                        .param("mode", "slice"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.games", hasSize(10)))
+                .andExpect(jsonPath("$.currentPage", is(3)))
+                .andExpect(jsonPath("$.hasNext", is(true)))
+                .andExpect(jsonPath("$.totalItems").doesNotExist());
+        verifyNoInteractions(gameSalesCountService);
+    }
+
+    @Test
+    public void shouldPageByCursorWithinDateRange() throws Exception {
+        LocalDate fromDate = LocalDate.of(2024, 4, 1);
+        LocalDate toDate = LocalDate.of(2024, 4, 30);
+        List<Game> firstPage = createGameList(3, "Cursor");
+        firstPage.forEach(game -> game.setDateOfSale(fromDate));
+        GameSalesFilter april = new GameSalesFilter(fromDate, toDate, null, null, null, null);
+        given(gameRepository.findAfter(april, GameSalesCursor.Order.DATE_OF_SALE, null, Limit.of(3)))
+                .willReturn(firstPage);
+        GameSalesCursor next = GameSalesCursor.afterDate(fromDate, 2);
+        String nextCursor = next.encode();
+        given(gameRepository.findAfter(april, GameSalesCursor.Order.DATE_OF_SALE, next, Limit.of(3)))
+                .willReturn(firstPage.subList(2, 3));
+
+        // Three rows fetched for a page of two, so a cursor to the next page is returned
+        mockMvc.perform(get("/api/getGameSales")
+                        .param("fromDate", "2024-04-01")
+                        .param("toDate", "2024-04-30")
+                        .param("size", "2")
+                        .param("mode", "cursor"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.games", hasSize(2)))
+                .andExpect(jsonPath("$.nextCursor", is(nextCursor)))
+                .andExpect(jsonPath("$.totalItems").doesNotExist());
+
+        mockMvc.perform(get("/api/getGameSales")
+                        .param("fromDate", "2024-04-01")
+                        .param("toDate", "2024-04-30")
+                        .param("size", "2")
+                        .param("mode", "cursor")
+                        .param("cursor", nextCursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.games", hasSize(1)))
+                .andExpect(jsonPath("$.games[0].gameName", is("Cursor3")))
+                .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+    }
+
+    @Test
+    public void shouldPageByCursorAboveSalePrice() throws Exception {
+        given(gameRepository.findAfter(new GameSalesFilter(null, null, 50.0, null, null, null),
+                GameSalesCursor.Order.SALE_PRICE, null, Limit.of(101)))
+                .willReturn(createGameList(5, "Expensive"));
+
+        mockMvc.perform(get("/api/getGameSales")
+                        .param("salePrice", "50.0")
+                        .param("filter", "greaterThan")
+                        .param("mode", "cursor"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.games", hasSize(5)))
+                .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+    }
+
+    @Test
+    public void shouldRejectCursorFromAnotherFilter() throws Exception {
+        String dateCursor = GameSalesCursor.afterDate(LocalDate.of(2024, 4, 1), 2).encode();
+
+        mockMvc.perform(get("/api/getGameSales")
+                        .param("mode", "cursor")
+                        .param("cursor", dateCursor))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid cursor")));
+    }
+
+    @Test
+    public void shouldRejectPageSizesOutsideTheLimit() throws Exception {
+        // Integer.MAX_VALUE used to overflow the cursor mode's look-ahead row
+        for (String mode : List.of("offset", "slice", "cursor")) {
+            for (String size : List.of("0", "10001", String.valueOf(Integer.MAX_VALUE))) {
+                mockMvc.perform(get("/api/getGameSales")
+                                .param("mode", mode)
+                                .param("size", size))
+                        .andExpect(status().isBadRequest())
+                        .andExpect(jsonPath("$.error", is("size must be between 1 and 10000")));
+            }
+        }
+        verify(gameRepository, never()).findAfter(any(), any(), any(), any());
+    }
+
+    @Test
+    public void shouldReturnOnlyRequestedFields() throws Exception {
+        LocalDate fromDate = LocalDate.of(2024, 4, 1);
+        LocalDate toDate = LocalDate.of(2024, 4, 30);
+        Pageable pageable = PageRequest.of(0, 100);
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 1L);
+        row.put("salePrice", 9.99);
+        row.put("dateOfSale", fromDate);
+        given(gameRepository.findFields(List.of("id", "salePrice", "dateOfSale"),
+                new GameSalesFilter(fromDate, toDate, null, null, null, null), GameSalesCursor.Order.DATE_OF_SALE, pageable))
+                .willReturn(new SliceImpl<>(List.of(row), pageable, false));
+
+        mockMvc.perform(get("/api/getGameSales")
+                        .param("fromDate", "2024-04-01")
+                        .param("toDate", "2024-04-30")
+                        .param("fields", "id, salePrice,dateOfSale,id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.games[0].*", hasSize(3)))
+                .andExpect(jsonPath("$.games[0].salePrice", is(9.99)))
+                .andExpect(jsonPath("$.games[0].dateOfSale", is("2024-04-01")))
+                .andExpect(jsonPath("$.totalItems", is(1)));
+        verify(gameRepository, never()).findSlice(any(), any(), any());
+    }
+
+    @Test
+    public void shouldPageRequestedFieldsByCursor() throws Exception {
+        GameSalesCursor next = GameSalesCursor.afterSalePrice(60.0, 7);
+        given(gameRepository.findFieldsAfter(List.of("id"), new GameSalesFilter(null, null, 50.0, null, null, null),
+                GameSalesCursor.Order.SALE_PRICE, null, 1))
+                .willReturn(new GameRepositoryCustom.GameFieldsWindow(List.of(Map.of("id", 7L)), next));
+
+        mockMvc.perform(get("/api/getGameSales")
+                        .param("salePrice", "50.0")
+                        .param("filter", "greaterThan")
+                        .param("size", "1")
+                        .param("mode", "cursor")
+                        .param("fields", "id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.games[0].id", is(7)))
+                .andExpect(jsonPath("$.nextCursor", is(next.encode())));
+    }
+
+    @Test
+    public void shouldRejectUnknownFields() throws Exception {
+        mockMvc.perform(get("/api/getGameSales")
+                        .param("fields", "id,password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid fields value")));
+    }
+
+    @Test
+    public void shouldCombineEveryGivenFilterInOneQuery() throws Exception {
+        LocalDate fromDate = LocalDate.of(2024, 4, 1);
+        LocalDate toDate = LocalDate.of(2024, 4, 30);
+        Pageable pageable = PageRequest.of(0, 100);
+        GameSalesFilter combined = new GameSalesFilter(fromDate, toDate, 50.0, null, 7, 2);
+        given(gameRepository.findSlice(combined, GameSalesCursor.Order.SALE_PRICE, pageable))
+                .willReturn(new SliceImpl<>(createGameList(2, "Combined"), pageable, false));
+
+        mockMvc.perform(get("/api/getGameSales")
+                        .param("fromDate", "2024-04-01")
+                        .param("toDate", "2024-04-30")
+                        .param("salePrice", "50")
+                        .param("filter", "greaterThan")
+                        .param("gameNo", "7")
+                        .param("type", "2")
+                        .param("sort", "salePrice"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.games", hasSize(2)))
+                .andExpect(jsonPath("$.totalItems", is(2)));
+    }
+
+    @Test
+    public void shouldPageOneGameByCursorInDateOrder() throws Exception {
+        given(gameRepository.findAfter(new GameSalesFilter(null, null, null, null, 7, null),
+                GameSalesCursor.Order.DATE_OF_SALE, null, Limit.of(11)))
+                .willReturn(createGameList(3, "Seven"));
+
+        mockMvc.perform(get("/api/getGameSales")
+                        .param("gameNo", "7")
+                        .param("size", "10")
+                        .param("mode", "cursor"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.games", hasSize(3)))
+                .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+    }
+
+    @Test
+    public void shouldRejectUnknownSort() throws Exception {
+        mockMvc.perform(get("/api/getGameSales")
+                        .param("sort", "gameName"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid sort value")));
+    }
+
     @Test
     public void shouldReturnTotalSalesForGivenPeriod() throws Exception {
         // Arrange: Mock the repository to return a sum for total sales in a specific period
@@ -244,13 +735,9 @@ public class GameControllerTest {
         LocalDate toDate = LocalDate.of(2024, 4, 30);
         double totalSales = 54521283.68;
 
-        // Create an instance of GameSalesAggregated and set the total sales value
-        GameSalesAggregated gameSalesAggregated = new GameSalesAggregated();
-        gameSalesAggregated.setTotalSales(totalSales);
-
-        // Mocking the repository method to return the total sales for the given date range
-        given(gameSalesAggregatedRepository.findTotalSalesByDateOfSaleBetween(fromDate, toDate))
-                .willReturn(Arrays.asList(gameSalesAggregated));
+        // Mocking the repository method to return the summed total sales for the given date range
+        given(gameSalesAggregatedRepository.sumTotalSalesByDateOfSaleBetween(fromDate, toDate))
+                .willReturn(totalSales);
 
         mockMvc.perform(get("/api/getTotalSales")
                         .param("fromDate", "2024-04-01")
@@ -293,13 +780,9 @@ public class GameControllerTest {
         int gameNo = 1;
         double totalSales = 15000.0;
 
-        // Create an instance of GameSalesAggregated and set the value for totalSales
-        GameSalesAggregated gameSalesAggregated = new GameSalesAggregated();
-        gameSalesAggregated.setTotalSales(totalSales);
-
-        // Mocking the repository method to return the total sales for the given date range and game number
-        given(gameSalesAggregatedRepository.findTotalSalesByDateOfSaleBetweenAndGameNo(fromDate, toDate, gameNo))
-                .willReturn(Arrays.asList(gameSalesAggregated));
+        // Mocking the repository method to return the summed total sales for the given date range and game number
+        given(gameSalesAggregatedRepository.sumTotalSalesByDateOfSaleBetweenAndGameNo(fromDate, toDate, gameNo))
+                .willReturn(totalSales);
 
         mockMvc.perform(get("/api/getTotalSales")
                         .param("fromDate", "2024-04-01")
@@ -309,6 +792,289 @@ public class GameControllerTest {
                 .andExpect(jsonPath("$.totalSales", is("15000.00")));
     }
 
+    @Test
+    public void shouldReturnSalesCountForGivenPeriod() throws Exception {
+        LocalDate fromDate = LocalDate.of(2024, 4, 1);
+        LocalDate toDate = LocalDate.of(2024, 4, 30);
+        given(gameSalesAggregatedRepository.sumGamesSoldByDateOfSaleBetween(fromDate, toDate)).willReturn(1234L);
+
+        mockMvc.perform(get("/api/getTotalSales")
+                        .param("fromDate", "2024-04-01")
+                        .param("toDate", "2024-04-30")
+                        .param("filter", "salesCount"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalGamesSold", is(1234)));
+    }
+
+    @Test
+    public void shouldReturnNotFoundWhenNoSalesInPeriod() throws Exception {
+        // SUM over no rows is null
+        mockMvc.perform(get("/api/getTotalSales")
+                        .param("fromDate", "2024-04-01")
+                        .param("toDate", "2024-04-30"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void shouldReturnTotalSalesGroupedByGameNumber() throws Exception {
+        LocalDate fromDate = LocalDate.of(2024, 4, 1);
+        LocalDate toDate = LocalDate.of(2024, 4, 30);
+        given(gameSalesAggregatedRepository.sumByGameNo(fromDate, toDate)).willReturn(List.of(
+                new GameSalesTotal(1, 10L, 100.5),
+                new GameSalesTotal(2, 3L, 29.999)));
+
+        mockMvc.perform(get("/api/getTotalSales")
+                        .param("fromDate", "2024-04-01")
+                        .param("toDate", "2024-04-30")
+                        .param("groupBy", "gameNo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.games", hasSize(2)))
+                .andExpect(jsonPath("$.games[0].gameNo", is(1)))
+                .andExpect(jsonPath("$.games[0].totalGamesSold", is(10)))
+                .andExpect(jsonPath("$.games[0].totalSales", is("100.50")))
+                .andExpect(jsonPath("$.games[1].totalSales", is("30.00")));
+    }
+
+    @Test
+    public void shouldAnswerTotalSalesFromRollupIndexWhenReady() throws Exception {
+        LocalDate fromDate = LocalDate.of(2024, 4, 1);
+        LocalDate toDate = LocalDate.of(2024, 4, 30);
+        given(salesRollupIndex.isReady()).willReturn(true);
+        given(salesRollupIndex.sumTotalSales(fromDate, toDate, 7)).willReturn(1234.5);
+
+        mockMvc.perform(get("/api/getTotalSales")
+                        .param("fromDate", "2024-04-01")
+                        .param("toDate", "2024-04-30")
+                        .param("gameNo", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalSales", is("1234.50")));
+        verifyNoInteractions(gameSalesAggregatedRepository);
+    }
+
+    @Test
+    public void shouldReturnBadRequestWhenGroupByIsUnsupported() throws Exception {
+        mockMvc.perform(get("/api/getTotalSales")
+                        .param("fromDate", "2024-04-01")
+                        .param("toDate", "2024-04-30")
+                        .param("groupBy", "type"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void shouldReturnSalesSeriesGroupedByType() throws Exception {
+        LocalDate fromDate = LocalDate.of(2024, 4, 3);
+        LocalDate toDate = LocalDate.of(2024, 4, 14);
+        given(salesSeriesService.series(fromDate, toDate, GameSalesRollup.Granularity.WEEK,
+                GameSalesRollup.Dimension.TYPE, null)).willReturn(List.of(
+                new SalesSeriesService.Series(1, List.of(
+                        new SalesSeriesService.Point(LocalDate.of(2024, 4, 1), 4, 40.5),
+                        new SalesSeriesService.Point(LocalDate.of(2024, 4, 8), 0, 0.0))),
+                new SalesSeriesService.Series(2, List.of(
+                        new SalesSeriesService.Point(LocalDate.of(2024, 4, 1), 1, 9.999),
+                        new SalesSeriesService.Point(LocalDate.of(2024, 4, 8), 2, 20.0)))));
+
+        mockMvc.perform(get("/api/getSalesSeries")
+                        .param("fromDate", "2024-04-03")
+                        .param("toDate", "2024-04-14")
+                        .param("granularity", "week")
+                        .param("groupBy", "type"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.granularity", is("week")))
+                .andExpect(jsonPath("$.groupBy", is("type")))
+                .andExpect(jsonPath("$.series", hasSize(2)))
+                .andExpect(jsonPath("$.series[0].type", is(1)))
+                .andExpect(jsonPath("$.series[0].points", hasSize(2)))
+                .andExpect(jsonPath("$.series[0].points[0].bucketStart", is("2024-04-01")))
+                .andExpect(jsonPath("$.series[0].points[0].totalGamesSold", is(4)))
+                .andExpect(jsonPath("$.series[0].points[0].totalSales", is("40.50")))
+                .andExpect(jsonPath("$.series[0].points[1].totalSales", is("0.00")))
+                .andExpect(jsonPath("$.series[1].points[0].totalSales", is("10.00")));
+    }
+
+    @Test
+    public void shouldReturnSalesSeriesOfOneGame() throws Exception {
+        LocalDate fromDate = LocalDate.of(2024, 4, 1);
+        LocalDate toDate = LocalDate.of(2024, 4, 2);
+        given(salesSeriesService.series(fromDate, toDate, GameSalesRollup.Granularity.DAY,
+                GameSalesRollup.Dimension.GAME_NO, 7)).willReturn(List.of(
+                new SalesSeriesService.Series(7, List.of(
+                        new SalesSeriesService.Point(fromDate, 1, 5.0),
+                        new SalesSeriesService.Point(toDate, 2, 10.0)))));
+
+        mockMvc.perform(get("/api/getSalesSeries")
+                        .param("fromDate", "2024-04-01")
+                        .param("toDate", "2024-04-02")
+                        .param("gameNo", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.granularity", is("day")))
+                .andExpect(jsonPath("$.groupBy").doesNotExist())
+                .andExpect(jsonPath("$.series[0].gameNo", is(7)))
+                .andExpect(jsonPath("$.series[0].points[1].totalGamesSold", is(2)));
+    }
+
+    @Test
+    public void shouldReturnNotFoundWhenSeriesHasNoSales() throws Exception {
+        mockMvc.perform(get("/api/getSalesSeries")
+                        .param("fromDate", "2024-04-01")
+                        .param("toDate", "2024-04-30")
+                        .param("granularity", "month"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void shouldReturnBadRequestForInvalidSeriesParameters() throws Exception {
+        mockMvc.perform(get("/api/getSalesSeries")
+                        .param("fromDate", "2024-04-01")
+                        .param("toDate", "2024-04-30")
+                        .param("granularity", "year"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid granularity value")));
+        mockMvc.perform(get("/api/getSalesSeries")
+                        .param("fromDate", "2024-04-01")
+                        .param("toDate", "2024-04-30")
+                        .param("groupBy", "gameName"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid groupBy value")));
+        mockMvc.perform(get("/api/getSalesSeries")
+                        .param("fromDate", "2024-04-01")
+                        .param("toDate", "2024-04-30")
+                        .param("groupBy", "type")
+                        .param("gameNo", "7"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Only one of groupBy, gameNo and type can be given")));
+        mockMvc.perform(get("/api/getSalesSeries")
+                        .param("fromDate", "2024-04-30")
+                        .param("toDate", "2024-04-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("fromDate must not be after toDate")));
+        verifyNoInteractions(salesSeriesService);
+    }
+
+    @Test
+    public void shouldReturnBadRequestWhenSeriesHasTooManyPoints() throws Exception {
+        given(salesSeriesService.series(any(), any(), any(), any(), any()))
+                .willThrow(new SalesSeriesService.TooManyPointsException(200000, 100000));
+
+        mockMvc.perform(get("/api/getSalesSeries")
+                        .param("fromDate", "2000-01-01")
+                        .param("toDate", "2024-04-30")
+                        .param("groupBy", "gameNo"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", startsWith("Series would have 200000 points")));
+    }
+
+    @Test
+    public void shouldReturnTopGamesWithSharedRanks() throws Exception {
+        LocalDate fromDate = LocalDate.of(2024, 1, 1);
+        LocalDate toDate = LocalDate.of(2024, 3, 31);
+        given(topGamesService.top(fromDate, toDate, TopGamesSelector.Metric.UNITS, 2, true)).willReturn(List.of(
+                new TopGamesService.RankedGame(1, new GameSalesTotal(4, 30L, 300.0)),
+                new TopGamesService.RankedGame(2, new GameSalesTotal(1, 20L, 150.555)),
+                new TopGamesService.RankedGame(2, new GameSalesTotal(9, 20L, 99.0))));
+
+        mockMvc.perform(get("/api/getTopGames")
+                        .param("fromDate", "2024-01-01")
+                        .param("toDate", "2024-03-31")
+                        .param("by", "units")
+                        .param("k", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.by", is("units")))
+                .andExpect(jsonPath("$.games", hasSize(3)))
+                .andExpect(jsonPath("$.games[0].rank", is(1)))
+                .andExpect(jsonPath("$.games[0].gameNo", is(4)))
+                .andExpect(jsonPath("$.games[1].rank", is(2)))
+                .andExpect(jsonPath("$.games[1].totalSales", is("150.56")))
+                .andExpect(jsonPath("$.games[2].rank", is(2)))
+                .andExpect(jsonPath("$.games[2].totalGamesSold", is(20)));
+    }
+
+    @Test
+    public void shouldReturnNotFoundWhenNoTopGames() throws Exception {
+        mockMvc.perform(get("/api/getTopGames")
+                        .param("fromDate", "2024-01-01")
+                        .param("toDate", "2024-03-31"))
+                .andExpect(status().isNotFound());
+        verify(topGamesService).top(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31),
+                TopGamesSelector.Metric.REVENUE, null, true);
+    }
+
+    @Test
+    public void shouldReturnBadRequestForInvalidTopGamesParameters() throws Exception {
+        given(topGamesService.top(any(), any(), any(), eq(1000), anyBoolean()))
+                .willThrow(new IllegalArgumentException("k must be between 1 and 100"));
+
+        mockMvc.perform(get("/api/getTopGames")
+                        .param("fromDate", "2024-01-01")
+                        .param("toDate", "2024-03-31")
+                        .param("by", "profit"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid by value")));
+        mockMvc.perform(get("/api/getTopGames")
+                        .param("fromDate", "2024-01-01")
+                        .param("toDate", "2024-03-31")
+                        .param("k", "1000"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("k must be between 1 and 100")));
+    }
+
+    @Test
+    public void shouldReturnPriceDistribution() throws Exception {
+        LocalDate fromDate = LocalDate.of(2024, 4, 1);
+        LocalDate toDate = LocalDate.of(2024, 4, 30);
+        PriceSketch sketch = new PriceSketch();
+        for (long price : new long[]{500, 1500, 1500, 2500, 12000}) {
+            sketch.add(price);
+        }
+        given(priceDistributionService.distribution(fromDate, toDate, 7)).willReturn(sketch);
+
+        mockMvc.perform(get("/api/getPriceDistribution")
+                        .param("fromDate", "2024-04-01")
+                        .param("toDate", "2024-04-30")
+                        .param("gameNo", "7")
+                        .param("quantiles", "0,0.5,1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.gameNo", is(7)))
+                .andExpect(jsonPath("$.count", is(5)))
+                .andExpect(jsonPath("$.min", is("5.00")))
+                .andExpect(jsonPath("$.max", is("120.00")))
+                .andExpect(jsonPath("$.mean", is("36.00")))
+                .andExpect(jsonPath("$.relativeError", is(0.01)))
+                .andExpect(jsonPath("$.quantiles", hasSize(3)))
+                .andExpect(jsonPath("$.quantiles[0].salePrice", is("5.00")))
+                .andExpect(jsonPath("$.quantiles[2].salePrice", is("120.00")))
+                .andExpect(jsonPath("$.histogram", hasSize(PriceSketch.HISTOGRAM_EDGES.length)))
+                .andExpect(jsonPath("$.histogram[0].from", is("0.00")))
+                .andExpect(jsonPath("$.histogram[0].to", is("10.00")))
+                .andExpect(jsonPath("$.histogram[1].count", is(2)))
+                .andExpect(jsonPath("$.histogram[10].to").value(nullValue()))
+                .andExpect(jsonPath("$.histogram[10].count", is(1)));
+    }
+
+    @Test
+    public void shouldReturnNotFoundWhenNoPricesInPeriod() throws Exception {
+        given(priceDistributionService.distribution(any(), any(), any())).willReturn(new PriceSketch());
+
+        mockMvc.perform(get("/api/getPriceDistribution")
+                        .param("fromDate", "2024-04-01")
+                        .param("toDate", "2024-04-30"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void shouldReturnBadRequestForInvalidQuantiles() throws Exception {
+        mockMvc.perform(get("/api/getPriceDistribution")
+                        .param("fromDate", "2024-04-01")
+                        .param("toDate", "2024-04-30")
+                        .param("quantiles", "0.5,1.5"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid quantiles value")));
+        mockMvc.perform(get("/api/getPriceDistribution")
+                        .param("fromDate", "2024-04-01")
+                        .param("toDate", "2024-04-30")
+                        .param("quantiles", "p99"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(priceDistributionService);
+    }
 
     private List<Game> createGameList(int count, String gameNamePrefix) {
         List<Game> games = new ArrayList<>();
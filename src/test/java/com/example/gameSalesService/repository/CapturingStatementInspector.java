@@ -0,0 +1,26 @@
+package com.example.gameSalesService.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Records the SQL Hibernate prepares, so tests can look at what the criteria queries turned into
+public class CapturingStatementInspector implements StatementInspector {
+
+    private static final List<String> statements = new ArrayList<>();
+
+    @Override
+    public synchronized String inspect(String sql) {
+        statements.add(sql);
+        return sql;
+    }
+
+    public static synchronized void clear() {
+        statements.clear();
+    }
+
+    public static synchronized String last() {
+        return statements.isEmpty() ? null : statements.get(statements.size() - 1);
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.gameSalesService.repository;
+
+import com.example.gameSalesService.entity.Game;
+import com.example.gameSalesService.service.CacheWarmupService;
+import com.example.gameSalesService.util.GameSalesCursor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class GameRepositoryTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 4, 5);
+    private static final LocalDate TO = LocalDate.of(2024, 4, 20);
+    private static final Limit PAGE = Limit.of(7);
+
+    @MockBean
+    private CacheWarmupService cacheWarmupService;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private List<Game> games;
+
+    @BeforeEach
+    public void setUp() {
+        gameRepository.deleteAllInBatch();
+        // Few distinct dates and prices, so many rows tie on the sort key and the id has to break them
+        SplittableRandom random = new SplittableRandom(3);
+        games = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            Game game = new Game();
+            game.setId(id);
+            game.setGameNo(random.nextInt(1, 4));
+            game.setGameName("Game");
+            game.setGameCode("G");
+            game.setType(random.nextInt(1, 3));
+            game.setCostPrice(1.0);
+            game.setTax(0.09);
+            game.setSalePrice(random.nextInt(1, 20) / 2.0);
+            game.setDateOfSale(LocalDate.of(2024, 4, 1).plusDays(random.nextInt(30)));
+            games.add(game);
+        }
+        gameRepository.saveAll(games);
+    }
+
+    @Test
+    public void shouldWalkDateRangeInDateAndIdOrder() {
+        List<Long> seen = walk(new GameSalesFilter(FROM, TO, null, null, null, null), GameSalesCursor.Order.DATE_OF_SALE);
+
+        assertEquals(games.stream()
+                .filter(game -> !game.getDateOfSale().isBefore(FROM) && !game.getDateOfSale().isAfter(TO))
+                .sorted(Comparator.comparing(Game::getDateOfSale).thenComparing(Game::getId))
+                .map(Game::getId)
+                .toList(), seen);
+    }
+
+    @Test
+    public void shouldWalkPriceFiltersInPriceAndIdOrder() {
+        double bound = 4.0;
+        List<Long> above = walk(GameSalesFilter.of(null, null, bound, "greaterThan", null, null),
+                GameSalesCursor.Order.SALE_PRICE);
+        List<Long> below = walk(GameSalesFilter.of(null, null, bound, "lessThan", null, null),
+                GameSalesCursor.Order.SALE_PRICE);
+
+        Comparator<Game> byPriceAndId = Comparator.comparing(Game::getSalePrice).thenComparing(Game::getId);
+        assertEquals(games.stream().filter(game -> game.getSalePrice() > bound).sorted(byPriceAndId)
+                .map(Game::getId).toList(), above);
+        assertEquals(games.stream().filter(game -> game.getSalePrice() < bound).sorted(byPriceAndId)
+                .map(Game::getId).toList(), below);
+    }
+
+    @Test
+    public void shouldWalkAllRowsInIdOrder() {
+        List<Long> seen = walk(GameSalesFilter.NONE, GameSalesCursor.Order.ID);
+
+        assertEquals(300, seen.size());
+        assertEquals(games.stream().map(Game::getId).sorted().toList(), seen);
+    }
+
+    @Test
+    public void shouldCombineEveryFilterInAnyOrder() {
+        GameSalesFilter filter = new GameSalesFilter(FROM, TO, 2.0, 8.0, 2, 1);
+        Predicate<Game> matches = game -> !game.getDateOfSale().isBefore(FROM) && !game.getDateOfSale().isAfter(TO)
+                && game.getSalePrice() > 2.0 && game.getSalePrice() < 8.0 && game.getGameNo() == 2 && game.getType() == 1;
+        List<Long> expected = games.stream().filter(matches)
+                .sorted(Comparator.comparing(Game::getSalePrice).thenComparing(Game::getId))
+                .map(Game::getId)
+                .toList();
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, walk(filter, GameSalesCursor.Order.SALE_PRICE));
+        assertEquals(expected.size(), gameRepository.countMatching(filter));
+        Slice<Game> slice = gameRepository.findSlice(filter, GameSalesCursor.Order.SALE_PRICE, PageRequest.of(1, 5));
+        assertEquals(expected.subList(5, Math.min(10, expected.size())),
+                slice.getContent().stream().map(Game::getId).toList());
+        assertEquals(expected.size() > 10, slice.hasNext());
+    }
+
+    // Every id the keyset pages of `filter` return, in page order
+    private List<Long> walk(GameSalesFilter filter, GameSalesCursor.Order order) {
+        List<Long> seen = new ArrayList<>();
+        GameSalesCursor after = null;
+        List<Game> page;
+        while (!(page = gameRepository.findAfter(filter, order, after, PAGE)).isEmpty()) {
+            page.forEach(game -> seen.add(game.getId()));
+            Game last = page.get(page.size() - 1);
+            after = switch (order) {
+                case DATE_OF_SALE -> GameSalesCursor.afterDate(last.getDateOfSale(), last.getId());
+                case SALE_PRICE -> GameSalesCursor.afterSalePrice(last.getSalePrice(), last.getId());
+                case ID -> GameSalesCursor.afterId(last.getId());
+            };
+        }
+        return seen;
+    }
+
+    @Test
+    public void shouldSelectOnlyRequestedFieldsWithoutManagingEntities() {
+        entityManager.flush();
+        entityManager.clear();
+        List<String> fields = List.of("salePrice", "id");
+
+        Slice<Map<String, Object>> slice = gameRepository.findFields(fields,
+                new GameSalesFilter(FROM, TO, null, null, null, null), GameSalesCursor.Order.ID, PageRequest.of(0, 500));
+
+        List<Game> expected = games.stream()
+                .filter(game -> !game.getDateOfSale().isBefore(FROM) && !game.getDateOfSale().isAfter(TO))
+                .toList();
+        assertEquals(expected.size(), slice.getNumberOfElements());
+        assertFalse(slice.hasNext());
+        Map<String, Object> first = slice.getContent().get(0);
+        assertEquals(fields, new ArrayList<>(first.keySet()));
+        Game game = games.get(((Long) first.get("id")).intValue() - 1);
+        assertEquals(game.getSalePrice(), first.get("salePrice"));
+        // Tuples are values, not entities
+        assertEquals(0, entityManager.getEntityManager().unwrap(SessionImplementor.class)
+                .getPersistenceContext().getNumberOfManagedEntities());
+    }
+
+    @Test
+    public void shouldWalkProjectedPagesInTheCursorOrder() {
+        List<String> fields = List.of("dateOfSale", "gameNo");
+        List<Map<String, Object>> seen = new ArrayList<>();
+        GameSalesFilter filter = GameSalesFilter.of(null, null, 4.0, "lessThan", null, null);
+        GameSalesCursor after = null;
+        do {
+            GameRepositoryCustom.GameFieldsWindow window = gameRepository.findFieldsAfter(fields, filter,
+                    GameSalesCursor.Order.SALE_PRICE, after, 7);
+            seen.addAll(window.games());
+            after = window.nextCursor();
+        } while (after != null);
+
+        List<Game> expected = games.stream()
+                .filter(game -> game.getSalePrice() < 4.0)
+                .sorted(Comparator.comparing(Game::getSalePrice).thenComparing(Game::getId))
+                .toList();
+        assertEquals(expected.size(), seen.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(Map.of("dateOfSale", expected.get(i).getDateOfSale(), "gameNo", expected.get(i).getGameNo()), seen.get(i));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.gameSalesService.repository;
+
+import com.example.gameSalesService.entity.GameSalesAggregated;
+import com.example.gameSalesService.service.CacheWarmupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class GameSalesAggregatedRepositoryTest {
+
+    private static final LocalDate APRIL_1 = LocalDate.of(2024, 4, 1);
+    private static final LocalDate APRIL_30 = LocalDate.of(2024, 4, 30);
+
+    @MockBean
+    private CacheWarmupService cacheWarmupService;
+
+    @Autowired
+    private GameSalesAggregatedRepository gameSalesAggregatedRepository;
+
+    @BeforeEach
+    public void setUp() {
+        gameSalesAggregatedRepository.deleteAll();
+        gameSalesAggregatedRepository.saveAll(List.of(
+                aggregate(APRIL_1, 1, 2, 20.25),
+                aggregate(APRIL_1, 2, 1, 5.5),
+                aggregate(APRIL_30, 1, 3, 30.0),
+                // Outside the period
+                aggregate(APRIL_30.plusDays(1), 1, 100, 1000.0)));
+    }
+
+    @Test
+    public void shouldSumOverThePeriod() {
+        assertEquals(6L, gameSalesAggregatedRepository.sumGamesSoldByDateOfSaleBetween(APRIL_1, APRIL_30));
+        assertEquals(55.75, gameSalesAggregatedRepository.sumTotalSalesByDateOfSaleBetween(APRIL_1, APRIL_30));
+        assertEquals(50.25, gameSalesAggregatedRepository.sumTotalSalesByDateOfSaleBetweenAndGameNo(APRIL_1, APRIL_30, 1));
+    }
+
+    @Test
+    public void shouldReturnNullWhenNothingMatches() {
+        LocalDate day = LocalDate.of(2023, 1, 1);
+        assertNull(gameSalesAggregatedRepository.sumGamesSoldByDateOfSaleBetween(day, day));
+        assertNull(gameSalesAggregatedRepository.sumTotalSalesByDateOfSaleBetween(day, day));
+    }
+
+    @Test
+    public void shouldSumPerGameNo() {
+        assertEquals(List.of(new GameSalesTotal(1, 5L, 50.25), new GameSalesTotal(2, 1L, 5.5)),
+                gameSalesAggregatedRepository.sumByGameNo(APRIL_1, APRIL_30));
+    }
+
+    @Test
+    public void shouldCountNoDuplicateKeysUnderTheUniqueKey() {
+        assertEquals(0, gameSalesAggregatedRepository.countDuplicateKeys());
+    }
+
+    private static GameSalesAggregated aggregate(LocalDate day, int gameNo, int gamesSold, double sales) {
+        GameSalesAggregated aggregated = new GameSalesAggregated();
+        aggregated.setDateOfSale(day);
+        aggregated.setGameNo(gameNo);
+        aggregated.setTotalGamesSold(gamesSold);
+        aggregated.setTotalSales(sales);
+        return aggregated;
+    }
+}
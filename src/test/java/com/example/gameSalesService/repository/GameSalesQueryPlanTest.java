@@ -0,0 +1,132 @@
+package com.example.gameSalesService.repository;
+
+import com.example.gameSalesService.entity.Game;
+import com.example.gameSalesService.service.CacheWarmupService;
+import com.example.gameSalesService.util.GameSalesCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs the SQL the combined /getGameSales queries turn into through H2's EXPLAIN. Values are inlined so
+// the captured statements can be explained as they are; only offset and limit stay parameters.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.gameSalesService.repository.CapturingStatementInspector",
+        "spring.jpa.properties.hibernate.criteria.value_handling_mode=inline"
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class GameSalesQueryPlanTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 4, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 4, 30);
+    private static final Pattern INDEX_RANGE = Pattern.compile("/\\* public\\.idx_\\w+: ");
+
+    @MockBean
+    private CacheWarmupService cacheWarmupService;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        gameRepository.deleteAllInBatch();
+        // Two years of sales over 100 games, so no single filter matches a large share of the table
+        SplittableRandom random = new SplittableRandom(1);
+        List<Game> games = new ArrayList<>();
+        for (long id = 1; id <= 5000; id++) {
+            Game game = new Game();
+            game.setId(id);
+            game.setGameNo(random.nextInt(1, 101));
+            game.setGameName("Game");
+            game.setGameCode("G");
+            game.setType(random.nextInt(1, 3));
+            game.setCostPrice(1.0);
+            game.setTax(0.09);
+            game.setSalePrice(random.nextInt(100, 10000) / 100.0);
+            game.setDateOfSale(LocalDate.of(2023, 1, 1).plusDays(random.nextInt(730)));
+            games.add(game);
+        }
+        gameRepository.saveAllAndFlush(games);
+        // Selectivity statistics for the optimizer
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    public void shouldReadEveryFilterCombinationThroughAnIndex() {
+        // Filter -> the index its count uses; pages may pick another index that already has their order
+        Map<GameSalesFilter, String> indexes = new LinkedHashMap<>();
+        indexes.put(new GameSalesFilter(FROM, TO, null, null, null, null), "idx_date_of_sale");
+        indexes.put(new GameSalesFilter(null, null, 90.0, null, null, null), "idx_sale_price");
+        indexes.put(new GameSalesFilter(null, null, null, 5.0, null, null), "idx_sale_price");
+        indexes.put(new GameSalesFilter(FROM, TO, 50.0, null, null, null), "idx_date_price");
+        indexes.put(new GameSalesFilter(null, null, null, null, 7, null), "idx_game_no_date");
+        indexes.put(new GameSalesFilter(FROM, TO, null, null, 7, null), "idx_game_no_date");
+        indexes.put(new GameSalesFilter(FROM, TO, null, null, null, 2), "idx_date_of_sale");
+        indexes.put(new GameSalesFilter(null, null, 90.0, null, null, 2), "idx_sale_price");
+        indexes.put(new GameSalesFilter(null, null, 50.0, null, 7, 2), "idx_game_no_date");
+        indexes.put(new GameSalesFilter(FROM, TO, 20.0, 80.0, 7, 1), "idx_game_no_date");
+
+        for (Map.Entry<GameSalesFilter, String> entry : indexes.entrySet()) {
+            GameSalesFilter filter = entry.getKey();
+            gameRepository.countMatching(filter);
+            String countPlan = explainLastStatement();
+            assertTrue(countPlan.contains("/* public." + entry.getValue() + ":"), filter + " count: " + countPlan);
+
+            for (GameSalesCursor.Order order : GameSalesCursor.Order.values()) {
+                gameRepository.findSlice(filter, order, PageRequest.of(2, 10));
+                assertIndexed(filter + " " + order + " slice");
+                gameRepository.findFields(List.of("id", "salePrice"), filter, order, PageRequest.of(2, 10));
+                assertIndexed(filter + " " + order + " fields");
+            }
+            gameRepository.findAfter(filter, GameSalesCursor.Order.DATE_OF_SALE,
+                    GameSalesCursor.afterDate(FROM.plusDays(3), 100), Limit.of(11));
+            assertIndexed(filter + " cursor by date");
+            gameRepository.findAfter(filter, GameSalesCursor.Order.SALE_PRICE,
+                    GameSalesCursor.afterSalePrice(60.0, 100), Limit.of(11));
+            assertIndexed(filter + " cursor by price");
+        }
+    }
+
+    @Test
+    public void shouldTellFullScansApart() {
+        // Guards the check above: without a filter the whole table, or a whole index, has to be read
+        gameRepository.findSlice(GameSalesFilter.NONE, GameSalesCursor.Order.ID, PageRequest.of(0, 10));
+        assertFalse(INDEX_RANGE.matcher(explainLastStatement()).find());
+        gameRepository.findSlice(GameSalesFilter.NONE, GameSalesCursor.Order.SALE_PRICE, PageRequest.of(0, 10));
+        assertFalse(INDEX_RANGE.matcher(explainLastStatement()).find());
+    }
+
+    // H2 names the index after the table and, when it only reads part of it, the bounds it seeks to
+    // (`/* public.idx_sale_price: sale_price > 90 */`); a full scan shows no bounds or `tableScan`
+    private void assertIndexed(String query) {
+        String plan = explainLastStatement();
+        assertFalse(plan.contains("tableScan"), query + ": " + plan);
+        assertTrue(INDEX_RANGE.matcher(plan).find(), query + ": " + plan);
+    }
+
+    private String explainLastStatement() {
+        String sql = CapturingStatementInspector.last().replace("?", "10");
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.gameSalesService.service;
+
+import com.example.gameSalesService.config.CacheConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CacheWarmupServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicInteger queries = new AtomicInteger();
+
+    @Test
+    public void shouldReplayTheHottestRecordedKeysAfterARestart() throws Exception {
+        Path keysFile = tempDir.resolve("warmup-keys.txt");
+
+        // First run: clients request page 0 three times, page 1 twice and page 2 once
+        Node first = new Node(keysFile, 2);
+        for (int page = 0; page < 3; page++) {
+            for (int request = 0; request < 3 - page; request++) {
+                first.responseCache.serve(QueryKey.of("pages", "page", page), null, null);
+            }
+        }
+        first.warmupService.shutdown();
+        assertEquals(List.of("pages?page=0", "pages?page=1"), Files.readAllLines(keysFile));
+
+        // Second run: the two hottest pages are cached before any request arrives
+        queries.set(0);
+        Node second = new Node(keysFile, 2);
+        CacheWarmupService.WarmupReport report = second.warmupService.replay().get();
+        assertEquals(2, report.keys());
+        assertEquals(2, report.warmed());
+        assertEquals(2, queries.get());
+        assertEquals(report, second.warmupService.getLastReport());
+
+        second.responseCache.serve(QueryKey.of("pages", "page", 0), null, null);
+        second.responseCache.serve(QueryKey.of("pages", "page", 1), null, null);
+        assertEquals(2, queries.get());
+        second.warmupService.shutdown();
+    }
+
+    @Test
+    public void shouldCountKeysThatCannotBeWarmed() throws Exception {
+        Path keysFile = tempDir.resolve("warmup-keys.txt");
+        Files.write(keysFile, List.of("pages?page=0", "pages?page=-1", "unknown?page=0", "?broken", "", "pages?page=x"));
+
+        Node node = new Node(keysFile, 10);
+        CacheWarmupService.WarmupReport report = node.warmupService.replay().get();
+
+        // The malformed line is skipped; a 400 is not cached; an unknown endpoint and a bad number fail
+        assertEquals(4, report.keys());
+        assertEquals(1, report.warmed());
+        assertEquals(1, report.notCached());
+        assertEquals(2, report.failed());
+        node.warmupService.shutdown();
+    }
+
+    @Test
+    public void shouldKeepTheSavedKeysWhenNothingWasServed() throws Exception {
+        Path keysFile = tempDir.resolve("warmup-keys.txt");
+        Files.write(keysFile, List.of("pages?page=0"));
+
+        new Node(keysFile, 10).warmupService.shutdown();
+
+        assertEquals(List.of("pages?page=0"), Files.readAllLines(keysFile));
+    }
+
+    // One application instance: its own cache, recorder and warmup service over a shared keys file
+    private class Node {
+
+        final QueryResponseCache responseCache;
+        final CacheWarmupService warmupService;
+
+        Node(Path keysFile, int maxKeys) {
+            HotQueryRecorder hotQueryRecorder = new HotQueryRecorder(100);
+            responseCache = new QueryResponseCache(new ConcurrentMapCacheManager(CacheConfig.QUERY_RESPONSE_CACHE),
+                    new ObjectMapper(), hotQueryRecorder);
+            responseCache.register("pages", key -> {
+                queries.incrementAndGet();
+                int page = key.getInteger("page");
+                return page < 0
+                        ? ResponseEntity.badRequest().body(Map.of("error", "Invalid page"))
+                        : ResponseEntity.ok(Map.of("page", page));
+            });
+            warmupService = new CacheWarmupService(responseCache, hotQueryRecorder, true, keysFile, maxKeys, 2);
+        }
+    }
+}
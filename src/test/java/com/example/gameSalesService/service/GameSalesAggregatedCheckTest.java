@@ -0,0 +1,36 @@
+package com.example.gameSalesService.service;
+
+import com.example.gameSalesService.repository.GameSalesAggregatedRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class GameSalesAggregatedCheckTest {
+
+    private final GameSalesAggregatedCheck check = new GameSalesAggregatedCheck();
+    private final GameSalesAggregatedRepository repository = mock(GameSalesAggregatedRepository.class);
+
+    public GameSalesAggregatedCheckTest() {
+        ReflectionTestUtils.setField(check, "gameSalesAggregatedRepository", repository);
+    }
+
+    @Test
+    public void shouldStartWithoutDuplicates() {
+        when(repository.countDuplicateKeys()).thenReturn(0L);
+
+        assertDoesNotThrow(check::checkNoDuplicates);
+    }
+
+    @Test
+    public void shouldStopStartupOnDuplicates() {
+        when(repository.countDuplicateKeys()).thenReturn(3L);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, check::checkNoDuplicates);
+        assertTrue(e.getMessage().contains("collapse-aggregated-duplicates.sql"), e.getMessage());
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.gameSalesService.service;
+
+import com.example.gameSalesService.repository.GameRepository;
+import com.example.gameSalesService.repository.GameSalesFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringJUnitConfig
+public class GameSalesCountServiceTest {
+
+    @Configuration
+    @EnableCaching
+    @Import(GameSalesCountService.class)
+    static class Config {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager("gameSalesCountCache");
+        }
+    }
+
+    @MockBean
+    private GameRepository gameRepository;
+
+    @Autowired
+    private GameSalesCountService countService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    public void shouldCountEachFilterOnceUntilAnImportCompletes() {
+        LocalDate fromDate = LocalDate.of(2024, 4, 1);
+        LocalDate toDate = LocalDate.of(2024, 4, 30);
+        GameSalesFilter april = new GameSalesFilter(fromDate, toDate, null, null, null, null);
+        GameSalesFilter expensive = GameSalesFilter.of(null, null, 50.0, "greaterThan", null, null);
+        given(gameRepository.countMatching(april)).willReturn(1000L, 1500L);
+        given(gameRepository.countMatching(expensive)).willReturn(400L);
+
+        assertEquals(1000L, countService.count(april));
+        // Equal filters built separately share the cached count
+        assertEquals(1000L, countService.count(GameSalesFilter.of(fromDate, toDate, null, null, null, null)));
+        assertEquals(400L, countService.count(expensive));
+        verify(gameRepository, times(1)).countMatching(april);
+
+        eventPublisher.publishEvent(new ImportCompletedEvent("job-1"));
+
+        assertEquals(1500L, countService.count(april));
+        verify(gameRepository, times(2)).countMatching(april);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.gameSalesService.service;
+
+import com.example.gameSalesService.entity.Game;
+import com.example.gameSalesService.repository.GameRepository;
+import com.example.gameSalesService.repository.GameSalesFilter;
+import com.example.gameSalesService.util.GameCsvParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class GameSalesExportServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 4, 1);
+
+    @TempDir
+    Path tempDir;
+
+    @Autowired
+    private GameSalesExportService exportService;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    public void setUp() {
+        gameRepository.deleteAllInBatch();
+        List<Game> games = new ArrayList<>();
+        for (long id = 1; id <= 30; id++) {
+            Game game = new Game();
+            game.setId(id);
+            game.setGameNo((int) id % 3 + 1);
+            game.setGameName(id == 7 ? "Quote\"d, game" : "Game" + id);
+            game.setGameCode("G" + id);
+            game.setType(1);
+            game.setCostPrice(id * 1.5);
+            // Finer than a cent, which the export must not round away
+            game.setTax(0.0875);
+            game.setSalePrice(id * 2.0);
+            // Ids run backwards against the dates, so the date order differs from the id order
+            game.setDateOfSale(FROM.plusDays(30 - id));
+            games.add(game);
+        }
+        gameRepository.saveAll(games);
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        gameRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void shouldExportCsvInTheImportLayout() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.export(GameSalesExportService.Format.CSV, GameSalesFilter.NONE, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(30, rows);
+        assertEquals(31, lines.size());
+        assertEquals(GameSalesExportService.CSV_HEADER, lines.get(0));
+        assertEquals("1,2,Game1,G1,1,1.5,0.0875,2.0,2024-04-30", lines.get(1));
+        assertEquals("7,2,\"Quote\"\"d, game\",G7,1,10.5,0.0875,14.0,2024-04-24", lines.get(7));
+    }
+
+    @Test
+    public void shouldReimportRowsWithoutQuotedText() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(GameSalesExportService.Format.CSV, GameSalesFilter.NONE, out);
+        Path file = tempDir.resolve("export.csv");
+        Files.write(file, out.toByteArray());
+
+        List<Long> ids = new ArrayList<>();
+        GameCsvParser parser = new GameCsvParser();
+        parser.parse(file, row -> ids.add(row.getId()));
+
+        // The quoted name of id 7 is not import syntax
+        assertEquals(29, ids.size());
+        assertFalse(ids.contains(7L));
+        assertEquals(1, parser.getMalformedRows());
+    }
+
+    @Test
+    public void shouldExportNdjsonForTheDateRangeAndPriceFilter() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.export(GameSalesExportService.Format.NDJSON,
+                GameSalesFilter.of(FROM, FROM.plusDays(9), 45.0, "greaterThan", null, null), out);
+
+        // Days 0-9 hold ids 21-30, of which 23-30 sell for more than 45, in date order
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(8, rows);
+        assertEquals(8, lines.size());
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals(30, first.get("id").asLong());
+        assertEquals("2024-04-01", first.get("dateOfSale").asText());
+        assertEquals(60.0, first.get("salePrice").asDouble());
+        // The same digits as the CSV
+        assertEquals("0.0875", first.get("tax").asText());
+        assertEquals(23, objectMapper.readTree(lines.get(7)).get("id").asLong());
+    }
+
+    @Test
+    public void shouldExportInPriceOrderForAPriceFilterAlone() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.export(GameSalesExportService.Format.CSV,
+                GameSalesFilter.of(null, null, 7.0, "lessThan", null, null), out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(3, rows);
+        assertEquals(List.of("1", "2", "3"), lines.subList(1, 4).stream().map(line -> line.split(",")[0]).toList());
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.gameSalesService.service;
+
+import com.example.gameSalesService.entity.ImportJob;
+import com.example.gameSalesService.repository.ImportJobRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ImportJobService.class)
+public class ImportJobServiceTest {
+
+    @MockBean
+    private CacheWarmupService cacheWarmupService;
+
+    @Autowired
+    private ImportJobService importJobService;
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    @Test
+    public void shouldFailJobsLeftRunningByAPreviousInstance() {
+        ImportProgress queued = new ImportProgress("queued", "a.csv", Instant.now());
+        ImportProgress running = new ImportProgress("running", "b.csv", Instant.now());
+        running.start();
+        ImportProgress completed = new ImportProgress("completed", "c.csv", Instant.now());
+        completed.start();
+        completed.complete();
+        importJobRepository.save(queued.toJob());
+        importJobRepository.save(running.toJob());
+        importJobRepository.save(completed.toJob());
+
+        importJobService.failInterruptedJobs();
+
+        for (String id : new String[]{"queued", "running"}) {
+            ImportJob job = importJobService.findJob(id).orElseThrow();
+            assertEquals(ImportJob.Status.FAILED, job.getStatus());
+            assertEquals(ImportJobService.INTERRUPTED_MESSAGE, job.getErrorMessage());
+            assertNotNull(job.getFinishedAt());
+        }
+        ImportJob job = importJobService.findJob("completed").orElseThrow();
+        assertEquals(ImportJob.Status.COMPLETED, job.getStatus());
+        assertNull(job.getErrorMessage());
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.gameSalesService.service;
+
+import com.example.gameSalesService.entity.ImportJob;
+import com.example.gameSalesService.service.writer.GameSalesWriter;
+import com.example.gameSalesService.util.GameSalesCsvGenerator;
+import com.example.gameSalesService.util.ImportTotals;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ImportPipelineTest {
+
+    private static final int ROWS = 20_000;
+    private static final int BATCH_SIZE = 100;
+    private static final int QUEUE_CAPACITY = 2;
+    private static final int PARSE_PARALLELISM = 2;
+    private static final int WRITER_THREADS = 2;
+
+    @TempDir
+    Path tempDir;
+
+    private final ImportPipeline pipeline = new ImportPipeline(BATCH_SIZE, QUEUE_CAPACITY, PARSE_PARALLELISM, WRITER_THREADS);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(pipeline, "importMetrics", new ImportMetrics(meterRegistry));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    public void shouldKeepBatchesInFlightBoundedWhenWritersAreSlow() throws Exception {
+        ImportProgress job = new ImportProgress("job", "games.csv", Instant.now());
+        AtomicLong maxRowsInFlight = new AtomicLong();
+        ReflectionTestUtils.setField(pipeline, "gameSalesWriter", (GameSalesWriter) games -> {
+            ImportJob snapshot = job.toJob();
+            maxRowsInFlight.accumulateAndGet(snapshot.getRowsParsed() - snapshot.getRowsPersisted(), Math::max);
+            sleep();
+        });
+
+        job.start();
+        pipeline.run(job, generate());
+
+        ImportJob result = job.toJob();
+        assertEquals(ROWS, result.getRowsParsed());
+        assertEquals(ROWS, result.getRowsPersisted());
+        assertTrue(maxRowsInFlight.get() <= (long) (QUEUE_CAPACITY + WRITER_THREADS + PARSE_PARALLELISM) * BATCH_SIZE,
+                "rows in flight: " + maxRowsInFlight.get());
+        assertEquals(ROWS, meterRegistry.get("game.sales.import.rows.parsed").counter().count());
+        assertEquals(ROWS, meterRegistry.get("game.sales.import.rows.persisted").counter().count());
+        assertEquals(ROWS / BATCH_SIZE, meterRegistry.get("game.sales.import.batch.persist").timer().count());
+        assertEquals(1, meterRegistry.get("game.sales.import.stage").tag("stage", "parse").timer().count());
+        assertEquals(1, meterRegistry.get("game.sales.import.stage").tag("stage", "persist").timer().count());
+        // The finished import's queue no longer counts
+        assertEquals(0, meterRegistry.get("game.sales.import.queue.depth").gauge().value());
+    }
+
+    @Test
+    public void shouldCountFailedBatchesAndKeepWriting() throws Exception {
+        ImportProgress job = new ImportProgress("job", "games.csv", Instant.now());
+        AtomicLong calls = new AtomicLong();
+        ReflectionTestUtils.setField(pipeline, "gameSalesWriter", (GameSalesWriter) games -> {
+            if (calls.incrementAndGet() % 50 == 0) {
+                throw new IllegalStateException("duplicate key");
+            }
+        });
+
+        job.start();
+        ImportTotals totals = pipeline.run(job, generate());
+        job.complete();
+
+        ImportJob result = job.toJob();
+        assertEquals(ImportJob.Status.COMPLETED_WITH_ERRORS, result.getStatus());
+        assertEquals(ROWS / BATCH_SIZE / 50, result.getFailedBatches());
+        assertEquals(ROWS, result.getRowsPersisted() + result.getFailedRows());
+        // Only the written batches are totalled
+        assertEquals(result.getRowsPersisted(), totals.getRows());
+        assertEquals(ROWS / BATCH_SIZE / 50, meterRegistry.get("game.sales.import.batches.failed").counter().count());
+        assertEquals(result.getFailedRows(), meterRegistry.get("game.sales.import.rows.failed").counter().count());
+    }
+
+    @Test
+    public void shouldWaitForWritersWhenParsingFails() throws Exception {
+        // Parsing stops once half the file has been queued
+        ImportProgress job = new ImportProgress("job", "games.csv", Instant.now()) {
+            @Override
+            public void rowsParsed(long rows) {
+                if (toJob().getRowsParsed() >= ROWS / 2) {
+                    throw new IllegalStateException("parse failed");
+                }
+                super.rowsParsed(rows);
+            }
+        };
+        AtomicInteger writing = new AtomicInteger();
+        ReflectionTestUtils.setField(pipeline, "gameSalesWriter", (GameSalesWriter) games -> {
+            writing.incrementAndGet();
+            sleep();
+            writing.decrementAndGet();
+        });
+
+        job.start();
+        ImportPipeline.IncompleteImportException e = assertThrows(ImportPipeline.IncompleteImportException.class,
+                () -> pipeline.run(job, generate()));
+
+        // Every queued batch was written before the failure was reported, and all of them are totalled
+        assertEquals(0, writing.get());
+        assertTrue(e.getMessage().contains("parse failed"), e.getMessage());
+        ImportJob result = job.toJob();
+        assertTrue(result.getRowsPersisted() > 0);
+        assertEquals(result.getRowsParsed(), result.getRowsPersisted());
+        assertEquals(result.getRowsPersisted(), e.getStoredTotals().getRows());
+    }
+
+    @Test
+    public void shouldNotLetAnImportWaitOnAnother() throws Exception {
+        // One parse worker, one writer thread and one queued batch. The first import's writer holds on
+        // until the second import has written everything, which it can only do with writers of its own.
+        ImportPipeline smallPipeline = new ImportPipeline(BATCH_SIZE, 1, 1, 1);
+        ReflectionTestUtils.setField(smallPipeline, "importMetrics", new ImportMetrics(meterRegistry));
+        CountDownLatch firstWriting = new CountDownLatch(1);
+        CountDownLatch secondDone = new CountDownLatch(1);
+        ReflectionTestUtils.setField(smallPipeline, "gameSalesWriter", (GameSalesWriter) games -> {
+            if (games.get(0).getDateOfSale().getYear() == 2023) {
+                firstWriting.countDown();
+                await(secondDone);
+            }
+        });
+        ExecutorService imports = Executors.newFixedThreadPool(2);
+        try {
+            ImportProgress first = new ImportProgress("first", "first.csv", Instant.now());
+            ImportProgress second = new ImportProgress("second", "second.csv", Instant.now());
+            Path firstFile = generate("first.csv", LocalDate.of(2023, 1, 1));
+            Path secondFile = generate("second.csv", LocalDate.of(2024, 1, 1));
+            first.start();
+            second.start();
+
+            Future<?> firstRun = imports.submit(() -> smallPipeline.run(first, firstFile));
+            assertTrue(firstWriting.await(30, TimeUnit.SECONDS));
+            imports.submit(() -> smallPipeline.run(second, secondFile)).get(30, TimeUnit.SECONDS);
+            secondDone.countDown();
+            firstRun.get(30, TimeUnit.SECONDS);
+
+            assertEquals(ROWS, first.toJob().getRowsPersisted());
+            assertEquals(ROWS, second.toJob().getRowsPersisted());
+        } finally {
+            imports.shutdownNow();
+            smallPipeline.shutdown();
+        }
+    }
+
+    private Path generate() {
+        Path file = tempDir.resolve("games.csv");
+        GameSalesCsvGenerator.generateCsvFile(file.toString(), ROWS);
+        return file;
+    }
+
+    // A month of sales from firstDay
+    private Path generate(String name, LocalDate firstDay) throws IOException {
+        Path file = tempDir.resolve(name);
+        GameSalesCsvGenerator.generate(file, ROWS, GameSalesCsvGenerator.Options.defaults().withDates(firstDay, 30));
+        return file;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(30, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Timed out");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.gameSalesService.service;
+
+import com.example.gameSalesService.entity.GameSalesAggregated;
+import com.example.gameSalesService.entity.GameSalesRollup;
+import com.example.gameSalesService.entity.ImportJob;
+import com.example.gameSalesService.repository.GameRepository;
+import com.example.gameSalesService.repository.GameSalesAggregatedRepository;
+import com.example.gameSalesService.repository.GameSalesRollupRepository;
+import com.example.gameSalesService.service.writer.GameSalesPriceSketchWriter;
+import com.example.gameSalesService.util.GameSalesCsvGenerator;
+import com.example.gameSalesService.util.PriceSketch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@RecordApplicationEvents
+public class ImportServiceTest {
+
+    private static final int ROWS = 5_000;
+
+    @TempDir
+    Path tempDir;
+
+    @Autowired
+    private ImportService importService;
+
+    @Autowired
+    private ImportJobService importJobService;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private GameSalesAggregatedRepository gameSalesAggregatedRepository;
+
+    @Autowired
+    private GameSalesRollupRepository gameSalesRollupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @SpyBean
+    private GameSalesPriceSketchWriter gameSalesPriceSketchWriter;
+
+    @BeforeEach
+    @AfterEach
+    public void cleanUp() {
+        gameRepository.deleteAllInBatch();
+        gameSalesAggregatedRepository.deleteAll();
+        gameSalesRollupRepository.deleteAll();
+        // Connections do not auto-commit, so the delete needs a transaction of its own
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update("DELETE FROM game_sales_price_sketch"));
+    }
+
+    @Test
+    public void shouldImportFileAndReportCompletedJob() throws Exception {
+        Path file = tempDir.resolve("games.csv");
+        GameSalesCsvGenerator.generateCsvFile(file.toString(), ROWS);
+
+        ImportJob job = runImport(file);
+
+        assertEquals(ImportJob.Status.COMPLETED, job.getStatus());
+        assertEquals(ROWS, job.getRowsParsed());
+        assertEquals(ROWS, job.getRowsPersisted());
+        assertEquals(0, job.getFailedBatches());
+        assertNotNull(job.getParseMillis());
+        assertNotNull(job.getPersistMillis());
+        assertNotNull(job.getAggregateMillis());
+        assertEquals(ROWS, gameRepository.count());
+        assertEquals(ROWS, StreamSupport.stream(gameSalesAggregatedRepository.findAll().spliterator(), false)
+                .mapToInt(GameSalesAggregated::getTotalGamesSold).sum());
+        for (GameSalesRollup.Granularity granularity : GameSalesRollup.Granularity.values()) {
+            for (GameSalesRollup.Dimension dimension : GameSalesRollup.Dimension.values()) {
+                assertEquals(ROWS, rolledUpGamesSold(granularity, dimension), granularity + " " + dimension);
+            }
+        }
+        assertEquals(ROWS, sketchedPrices("MONTH", 0));
+        assertEquals(ROWS, sketchedPrices("DAY", 0));
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    public void shouldNotCountAReimportedFileTwice() throws Exception {
+        Path file = tempDir.resolve("games.csv");
+        GameSalesCsvGenerator.generateCsvFile(file.toString(), ROWS);
+        Path copy = tempDir.resolve("games-again.csv");
+        Files.copy(file, copy);
+
+        runImport(file);
+        long aggregateRows = gameSalesAggregatedRepository.count();
+        ImportJob job = runImport(copy);
+
+        // Every batch of the copy fails on duplicate ids, so nothing is added onto the totals
+        assertEquals(ImportJob.Status.COMPLETED_WITH_ERRORS, job.getStatus());
+        assertEquals(0, job.getRowsPersisted());
+        assertEquals(ROWS, gameRepository.count());
+        assertEquals(aggregateRows, gameSalesAggregatedRepository.count());
+        assertEquals(ROWS, StreamSupport.stream(gameSalesAggregatedRepository.findAll().spliterator(), false)
+                .mapToInt(GameSalesAggregated::getTotalGamesSold).sum());
+        assertEquals(ROWS, rolledUpGamesSold(GameSalesRollup.Granularity.MONTH, GameSalesRollup.Dimension.TYPE));
+        assertEquals(ROWS, sketchedPrices("MONTH", 0));
+    }
+
+    @Test
+    public void shouldAddImportedFileOntoExistingAggregates() throws Exception {
+        Path file = tempDir.resolve("games.csv");
+        GameSalesCsvGenerator.generateCsvFile(file.toString(), ROWS);
+        Path copy = tempDir.resolve("games-again.csv");
+        Files.copy(file, copy);
+
+        runImport(file);
+        long aggregateRows = gameSalesAggregatedRepository.count();
+        // The same sales under ids that are not stored yet
+        gameRepository.deleteAllInBatch();
+        ImportJob job = runImport(copy);
+
+        assertEquals(ImportJob.Status.COMPLETED, job.getStatus());
+        assertEquals(aggregateRows, gameSalesAggregatedRepository.count());
+        assertEquals(2 * ROWS, StreamSupport.stream(gameSalesAggregatedRepository.findAll().spliterator(), false)
+                .mapToInt(GameSalesAggregated::getTotalGamesSold).sum());
+        assertEquals(2 * ROWS, rolledUpGamesSold(GameSalesRollup.Granularity.MONTH, GameSalesRollup.Dimension.TYPE));
+    }
+
+    @Test
+    public void shouldRefreshReadSideWhenAFailedImportStoredRows() throws Exception {
+        Path file = tempDir.resolve("games.csv");
+        GameSalesCsvGenerator.generateCsvFile(file.toString(), ROWS);
+        doThrow(new IllegalStateException("sketch write failed")).when(gameSalesPriceSketchWriter).insert(anyList());
+
+        ImportJob job = runImport(file);
+
+        // game_sales rows are committed batch by batch, before the aggregate step failed
+        assertEquals(ImportJob.Status.FAILED, job.getStatus());
+        assertEquals(ROWS, gameRepository.count());
+        assertEquals(1, applicationEvents.stream(ImportCompletedEvent.class)
+                .filter(event -> event.jobId().equals(job.getId())).count());
+    }
+
+    @Test
+    public void shouldSkipRowsWithANegativeSalePrice() throws Exception {
+        Path file = tempDir.resolve("games.csv");
+        Files.writeString(file, "id,game_no,game_name,game_code,type,cost_price,tax,sale_price,date_of_sale\n"
+                + "1,10,GameA,GA,1,50.00,4.50,54.50,2024-04-01\n"
+                + "2,10,GameA,GA,1,50.00,4.50,-54.50,2024-04-01\n");
+
+        ImportJob job = runImport(file);
+
+        // The negative price is a malformed row, not a failed batch after game_sales was written
+        assertEquals(ImportJob.Status.COMPLETED, job.getStatus());
+        assertEquals(1, job.getMalformedRows());
+        assertEquals(1, job.getRowsPersisted());
+        assertEquals(1, gameRepository.count());
+        assertEquals(1, StreamSupport.stream(gameSalesAggregatedRepository.findAll().spliterator(), false)
+                .mapToInt(GameSalesAggregated::getTotalGamesSold).sum());
+        assertEquals(1, sketchedPrices("MONTH", 0));
+    }
+
+    // Prices counted by the price sketches of one granularity and game_no (0 for all games)
+    private long sketchedPrices(String granularity, int gameNo) {
+        return jdbcTemplate.queryForList("SELECT sketch FROM game_sales_price_sketch WHERE granularity = ? AND game_no = ?",
+                        byte[].class, granularity, gameNo).stream()
+                .mapToLong(sketch -> PriceSketch.fromBytes(sketch).getCount()).sum();
+    }
+
+    private long rolledUpGamesSold(GameSalesRollup.Granularity granularity, GameSalesRollup.Dimension dimension) {
+        return StreamSupport.stream(gameSalesRollupRepository.findAll().spliterator(), false)
+                .filter(rollup -> rollup.getGranularity() == granularity && rollup.getDimension() == dimension)
+                .mapToLong(GameSalesRollup::getTotalGamesSold).sum();
+    }
+
+    private ImportJob runImport(Path file) throws InterruptedException {
+        ImportProgress progress = importJobService.createJob(file.getFileName().toString());
+        importService.processFileAsync(progress, file.toString(), Instant.now());
+
+        long deadline = System.currentTimeMillis() + 60_000;
+        ImportJob job = importJobService.findJob(progress.getId()).orElseThrow();
+        while (job.getFinishedAt() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            job = importJobService.findJob(progress.getId()).orElseThrow();
+        }
+        return job;
+    }
+}
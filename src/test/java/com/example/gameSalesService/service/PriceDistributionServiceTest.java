@@ -0,0 +1,143 @@
+package com.example.gameSalesService.service;
+
+import com.example.gameSalesService.entity.Game;
+import com.example.gameSalesService.repository.BackfillStateRepository;
+import com.example.gameSalesService.repository.GameRepository;
+import com.example.gameSalesService.service.writer.GameSalesPriceSketchWriter;
+import com.example.gameSalesService.util.PriceSketch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PriceDistributionService.class, GameSalesPriceSketchWriter.class})
+public class PriceDistributionServiceTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 15);
+    private static final int DAYS = 150;
+
+    @MockBean
+    private CacheWarmupService cacheWarmupService;
+
+    @Autowired
+    private PriceDistributionService priceDistributionService;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private BackfillStateRepository backfillStateRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Game> games = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        gameRepository.deleteAllInBatch();
+        jdbcTemplate.update("DELETE FROM game_sales_price_sketch");
+        backfillStateRepository.deleteAll();
+        games.clear();
+        SplittableRandom random = new SplittableRandom(13);
+        for (long id = 1; id <= 1500; id++) {
+            Game game = new Game();
+            game.setId(id);
+            game.setGameNo(random.nextInt(1, 4));
+            game.setGameName("Game");
+            game.setGameCode("G");
+            game.setType(1);
+            game.setCostPrice(1.0);
+            game.setTax(0.09);
+            game.setSalePrice(random.nextInt(1, 10900) / 100.0);
+            game.setDateOfSale(FIRST_DAY.plusDays(random.nextInt(DAYS)));
+            games.add(game);
+        }
+        gameRepository.saveAllAndFlush(games);
+        assertTrue(priceDistributionService.backfill() > 0);
+    }
+
+    @Test
+    public void shouldMatchRawPricesForAnyPeriod() {
+        SplittableRandom random = new SplittableRandom(21);
+        for (int i = 0; i < 40; i++) {
+            // Periods within one month, across several, and past the data
+            LocalDate from = FIRST_DAY.plusDays(random.nextInt(-20, DAYS));
+            LocalDate to = from.plusDays(random.nextInt(0, 120));
+            Integer gameNo = random.nextBoolean() ? null : random.nextInt(1, 4);
+            assertDistribution(from, to, gameNo);
+        }
+    }
+
+    @Test
+    public void shouldReturnAnEmptySketchWithoutSales() {
+        assertEquals(0, priceDistributionService.distribution(LocalDate.of(2020, 1, 1), LocalDate.of(2020, 12, 31), null)
+                .getCount());
+    }
+
+    @Test
+    public void shouldBackfillOnlyOnce() {
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM game_sales_price_sketch", Long.class);
+
+        assertEquals(0, priceDistributionService.backfill());
+        assertEquals(rows, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM game_sales_price_sketch", Long.class));
+    }
+
+    @Test
+    public void shouldRebuildUnrecordedBackfillFromScratch() {
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM game_sales_price_sketch", Long.class);
+        // Sketches are present, but the backfill that wrote them was never recorded
+        backfillStateRepository.deleteAll();
+
+        assertEquals(rows.intValue(), priceDistributionService.backfill());
+        assertEquals(rows, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM game_sales_price_sketch", Long.class));
+        assertDistribution(FIRST_DAY, FIRST_DAY.plusDays(DAYS - 1), null);
+    }
+
+    // Compares the merged sketch with the seeded game_sales rows of the period
+    private void assertDistribution(LocalDate from, LocalDate to, Integer gameNo) {
+        PriceSketch expected = new PriceSketch();
+        List<Long> prices = new ArrayList<>();
+        for (Game game : games) {
+            if (!game.getDateOfSale().isBefore(from) && !game.getDateOfSale().isAfter(to)
+                    && (gameNo == null || game.getGameNo().equals(gameNo))) {
+                long cents = Math.round(game.getSalePrice() * 100);
+                expected.add(cents);
+                prices.add(cents);
+            }
+        }
+        PriceSketch actual = priceDistributionService.distribution(from, to, gameNo);
+        String query = from + ".." + to + " game " + gameNo;
+
+        assertEquals(expected.getCount(), actual.getCount(), query);
+        assertArrayEquals(expected.getHistogram(), actual.getHistogram(), query);
+        if (prices.isEmpty()) {
+            return;
+        }
+        assertEquals(expected.getSumCents(), actual.getSumCents(), query);
+        assertEquals(expected.getMinCents(), actual.getMinCents(), query);
+        assertEquals(expected.getMaxCents(), actual.getMaxCents(), query);
+        prices.sort(null);
+        for (double q : new double[]{0.5, 0.9, 0.99}) {
+            long exact = prices.get((int) Math.floor(q * (prices.size() - 1)));
+            assertTrue(Math.abs(actual.quantileCents(q) - exact) <= exact * PriceSketch.RELATIVE_ERROR, query + " q" + q);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.gameSalesService.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class QueryKeyTest {
+
+    @Test
+    public void shouldSortParametersAndLeaveOutNulls() {
+        QueryKey key = QueryKey.of("getTotalSales", "toDate", LocalDate.of(2024, 4, 30), "gameNo", null,
+                "fromDate", LocalDate.of(2024, 4, 1));
+
+        assertEquals("getTotalSales?fromDate=2024-04-01&toDate=2024-04-30", key.toString());
+        assertEquals(key, QueryKey.of("getTotalSales", "fromDate", "2024-04-01", "toDate", "2024-04-30"));
+        assertEquals(LocalDate.of(2024, 4, 1), key.getLocalDate("fromDate"));
+        assertNull(key.getInteger("gameNo"));
+    }
+
+    @Test
+    public void shouldRoundTripThroughItsStringForm() {
+        QueryKey key = QueryKey.of("getGameSales", "cursor", "a=b&c/d+", "page", 0, "salePrice", 9.99);
+
+        QueryKey parsed = QueryKey.parse(key.toString());
+
+        assertEquals(key, parsed);
+        assertEquals("a=b&c/d+", parsed.get("cursor"));
+        assertEquals(0, parsed.getInteger("page"));
+        assertEquals(9.99, parsed.getDouble("salePrice"));
+        assertEquals(QueryKey.of("getGameSales"), QueryKey.parse("getGameSales"));
+    }
+
+    @Test
+    public void shouldRejectMalformedKeys() {
+        assertThrows(IllegalArgumentException.class, () -> QueryKey.parse("?page=0"));
+        assertThrows(IllegalArgumentException.class, () -> QueryKey.parse("getGameSales?page"));
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.gameSalesService.service;
+
+import com.example.gameSalesService.config.CacheConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class QueryResponseCacheTest {
+
+    private ConcurrentMapCacheManager cacheManager;
+    private QueryResponseCache responseCache;
+    private HotQueryRecorder hotQueryRecorder;
+    private AtomicInteger queries;
+
+    @BeforeEach
+    public void setUp() {
+        hotQueryRecorder = new HotQueryRecorder(100);
+        cacheManager = new ConcurrentMapCacheManager(CacheConfig.QUERY_RESPONSE_CACHE);
+        responseCache = new QueryResponseCache(cacheManager, new ObjectMapper(), hotQueryRecorder);
+        queries = new AtomicInteger();
+        // Echoes the "value" parameter; "status" picks a non-200 answer
+        responseCache.register("echo", key -> {
+            queries.incrementAndGet();
+            if (key.get("status") != null) {
+                return ResponseEntity.status(Integer.parseInt(key.get("status"))).body("No data found");
+            }
+            return ResponseEntity.ok(Map.of("value", key.get("value")));
+        });
+    }
+
+    @Test
+    public void shouldServeRepeatedRequestsFromCachedBytes() {
+        ResponseEntity<?> first = responseCache.serve(QueryKey.of("echo", "value", "1"), null, null);
+        ResponseEntity<?> second = responseCache.serve(QueryKey.of("echo", "value", "1"), null, null);
+
+        assertEquals(1, queries.get());
+        assertArrayEquals("{\"value\":\"1\"}".getBytes(), (byte[]) second.getBody());
+        assertEquals(first.getHeaders().getETag(), second.getHeaders().getETag());
+        assertEquals(List.of(QueryKey.of("echo", "value", "1")), hotQueryRecorder.hottest(10));
+    }
+
+    @Test
+    public void shouldAnswerNotModifiedWithoutQueryingWhileCached() {
+        QueryKey key = QueryKey.of("echo", "value", "1");
+        String etag = responseCache.serve(key, null, null).getHeaders().getETag();
+
+        ResponseEntity<?> notModified = responseCache.serve(key, etag, null);
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertNull(notModified.getBody());
+        assertEquals(1, queries.get());
+
+        // Recomputed after an import, the same bytes keep their tag
+        responseCache.onImportCompleted(new ImportCompletedEvent("job-1"));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, responseCache.serve(key, etag, null).getStatusCode());
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    public void shouldTagRecomputedResponsesByTheirBytes() {
+        AtomicInteger version = new AtomicInteger();
+        responseCache.register("counter", key -> ResponseEntity.ok(Map.of("version", version.get())));
+        QueryKey key = QueryKey.of("counter");
+        String etag = responseCache.serve(key, null, null).getHeaders().getETag();
+
+        // The data changes within one data version (batches of a running import commit) and the
+        // entry expires, so the response is recomputed under the same version
+        version.incrementAndGet();
+        cacheManager.getCache(CacheConfig.QUERY_RESPONSE_CACHE).clear();
+        ResponseEntity<?> changed = responseCache.serve(key, etag, null);
+
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertArrayEquals("{\"version\":1}".getBytes(), (byte[]) changed.getBody());
+        assertNotEquals(etag, changed.getHeaders().getETag());
+    }
+
+    @Test
+    public void shouldNotCacheOrRecordErrorResponses() {
+        QueryKey key = QueryKey.of("echo", "status", 404);
+
+        assertEquals(HttpStatus.NOT_FOUND, responseCache.serve(key, null, null).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, responseCache.serve(key, null, null).getStatusCode());
+        assertEquals(2, queries.get());
+        assertTrue(hotQueryRecorder.isEmpty());
+    }
+
+    @Test
+    public void shouldOnlyGzipLargeBodiesForClientsThatAcceptIt() {
+        QueryKey large = QueryKey.of("echo", "value", "x".repeat(QueryResponseCache.GZIP_MIN_BYTES));
+
+        assertEquals("gzip", responseCache.serve(large, null, "br, gzip").getHeaders().getFirst("Content-Encoding"));
+        assertNull(responseCache.serve(large, null, "gzip;q=0").getHeaders().getFirst("Content-Encoding"));
+        assertNull(responseCache.serve(QueryKey.of("echo", "value", "x"), null, "gzip")
+                .getHeaders().getFirst("Content-Encoding"));
+    }
+
+    @Test
+    public void shouldWarmWithoutRecording() {
+        assertTrue(responseCache.warm(QueryKey.of("echo", "value", "1")));
+        assertTrue(responseCache.warm(QueryKey.of("echo", "value", "1")));
+        assertFalse(responseCache.warm(QueryKey.of("echo", "status", 400)));
+        assertTrue(hotQueryRecorder.isEmpty());
+
+        // Served from the warmed entry
+        responseCache.serve(QueryKey.of("echo", "value", "1"), null, null);
+        assertEquals(2, queries.get());
+    }
+}
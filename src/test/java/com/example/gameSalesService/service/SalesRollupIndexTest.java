@@ -0,0 +1,134 @@
+package com.example.gameSalesService.service;
+
+import com.example.gameSalesService.repository.GameSalesAggregatedRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SalesRollupIndex.class)
+public class SalesRollupIndexTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2023, 1, 1);
+    private static final int DAYS = 400;
+
+    @MockBean
+    private CacheWarmupService cacheWarmupService;
+
+    @Autowired
+    private SalesRollupIndex index;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private GameSalesAggregatedRepository gameSalesAggregatedRepository;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate.update("DELETE FROM game_sales_aggregated");
+        SplittableRandom random = new SplittableRandom(7);
+        for (int day = 0; day < DAYS; day++) {
+            for (int gameNo = 1; gameNo <= 5; gameNo++) {
+                // Leave gaps so some days and games have no row
+                if (random.nextInt(4) == 0) {
+                    continue;
+                }
+                jdbcTemplate.update("INSERT INTO game_sales_aggregated (date_of_sale, game_no, total_games_sold, total_sales) "
+                                + "VALUES (?, ?, ?, ?)",
+                        FIRST_DAY.plusDays(day), gameNo * 10, random.nextInt(1, 50), random.nextInt(100, 100000) / 100.0);
+            }
+        }
+        index.rebuild();
+    }
+
+    @Test
+    public void shouldMatchDatabaseTotalsForAnyPeriod() {
+        assertTrue(index.isReady());
+        SplittableRandom random = new SplittableRandom(11);
+        for (int i = 0; i < 200; i++) {
+            // Periods may start before and end after the indexed span
+            LocalDate from = FIRST_DAY.plusDays(random.nextInt(-30, DAYS));
+            LocalDate to = from.plusDays(random.nextInt(0, 120));
+            int gameNo = random.nextInt(1, 6) * 10;
+
+            assertEquals(gameSalesAggregatedRepository.sumGamesSoldByDateOfSaleBetween(from, to),
+                    index.sumGamesSold(from, to));
+            assertCents(gameSalesAggregatedRepository.sumTotalSalesByDateOfSaleBetween(from, to),
+                    index.sumTotalSales(from, to));
+            assertCents(gameSalesAggregatedRepository.sumTotalSalesByDateOfSaleBetweenAndGameNo(from, to, gameNo),
+                    index.sumTotalSales(from, to, gameNo));
+            assertEquals(gameSalesAggregatedRepository.sumByGameNo(from, to).size(), index.sumByGameNo(from, to).size());
+        }
+    }
+
+    @Test
+    public void shouldReturnNullOutsideTheIndexedSpanOrForUnknownGame() {
+        LocalDate before = FIRST_DAY.minusDays(10);
+        assertNull(index.sumGamesSold(before, before.plusDays(5)));
+        assertNull(index.sumTotalSales(before, before.plusDays(5)));
+        assertNull(index.sumTotalSales(FIRST_DAY, FIRST_DAY.plusDays(DAYS), 99));
+    }
+
+    @Test
+    public void shouldPickUpNewRowsAfterRebuild() {
+        LocalDate later = FIRST_DAY.plusDays(DAYS + 100);
+        jdbcTemplate.update("INSERT INTO game_sales_aggregated (date_of_sale, game_no, total_games_sold, total_sales) "
+                + "VALUES (?, 99, 3, 12.34)", later);
+
+        index.onImportCompleted(new ImportCompletedEvent("job-1"));
+
+        assertEquals(3L, index.sumGamesSold(later, later));
+        assertEquals(12.34, index.sumTotalSales(later, later, 99));
+    }
+
+    @Test
+    public void shouldAnswerFromTheDatabaseOnceTheIndexIsDropped() {
+        LocalDate from = FIRST_DAY.plusDays(10);
+        LocalDate to = FIRST_DAY.plusDays(100);
+        assertTrue(index.isReady());
+
+        // A rebuild over max-cells between a caller's isReady() and its sum
+        long maxCells = (long) ReflectionTestUtils.getField(index, "maxCells");
+        ReflectionTestUtils.setField(index, "maxCells", 1L);
+        try {
+            index.rebuild();
+
+            assertFalse(index.isReady());
+            assertEquals(gameSalesAggregatedRepository.sumGamesSoldByDateOfSaleBetween(from, to),
+                    index.sumGamesSold(from, to));
+            assertCents(gameSalesAggregatedRepository.sumTotalSalesByDateOfSaleBetween(from, to),
+                    index.sumTotalSales(from, to));
+            assertCents(gameSalesAggregatedRepository.sumTotalSalesByDateOfSaleBetweenAndGameNo(from, to, 10),
+                    index.sumTotalSales(from, to, 10));
+            assertEquals(gameSalesAggregatedRepository.sumByGameNo(from, to).size(), index.sumByGameNo(from, to).size());
+        } finally {
+            ReflectionTestUtils.setField(index, "maxCells", maxCells);
+        }
+    }
+
+    private static void assertCents(Double expected, Double actual) {
+        if (expected == null) {
+            assertNull(actual);
+        } else {
+            assertEquals(Math.round(expected * 100), Math.round(actual * 100));
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.gameSalesService.service;
+
+import com.example.gameSalesService.entity.Game;
+import com.example.gameSalesService.entity.GameSalesRollup.Dimension;
+import com.example.gameSalesService.entity.GameSalesRollup.Granularity;
+import com.example.gameSalesService.repository.BackfillStateRepository;
+import com.example.gameSalesService.repository.GameRepository;
+import com.example.gameSalesService.repository.GameSalesRollupRepository;
+import com.example.gameSalesService.service.writer.GameSalesRollupUpserter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "game-sales.series.max-points=500")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({SalesSeriesService.class, GameSalesRollupUpserter.class})
+public class SalesSeriesServiceTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+    private static final int DAYS = 180;
+
+    @MockBean
+    private CacheWarmupService cacheWarmupService;
+
+    @Autowired
+    private SalesSeriesService salesSeriesService;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private GameSalesRollupRepository gameSalesRollupRepository;
+
+    @Autowired
+    private BackfillStateRepository backfillStateRepository;
+
+    private final List<Game> games = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        gameRepository.deleteAllInBatch();
+        gameSalesRollupRepository.deleteAll();
+        backfillStateRepository.deleteAll();
+        games.clear();
+        SplittableRandom random = new SplittableRandom(5);
+        long id = 1;
+        for (int day = 0; day < DAYS; day++) {
+            // Every tenth day has no sales, so some buckets are empty
+            if (day % 10 == 9) {
+                continue;
+            }
+            for (int i = random.nextInt(1, 4); i > 0; i--) {
+                Game game = new Game();
+                game.setId(id++);
+                game.setGameNo(random.nextInt(1, 6));
+                game.setGameName("Game");
+                game.setGameCode("G");
+                game.setType(random.nextInt(1, 3));
+                game.setCostPrice(1.0);
+                game.setTax(0.09);
+                game.setSalePrice(random.nextInt(100, 10000) / 100.0);
+                game.setDateOfSale(FIRST_DAY.plusDays(day));
+                games.add(game);
+            }
+        }
+        gameRepository.saveAllAndFlush(games);
+        assertTrue(salesSeriesService.backfill() > 0);
+    }
+
+    @Test
+    public void shouldMatchRawSalesForEveryBucket() {
+        SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < 20; i++) {
+            // Periods cut weeks and months at both ends, and may reach past the data
+            LocalDate from = FIRST_DAY.plusDays(random.nextInt(-10, DAYS));
+            LocalDate to = from.plusDays(random.nextInt(0, 100));
+            for (Granularity granularity : Granularity.values()) {
+                assertSeries(from, to, granularity, Dimension.ALL, null);
+                assertSeries(from, to, granularity, Dimension.TYPE, null);
+                assertSeries(from, to, granularity, Dimension.GAME_NO, 3);
+            }
+        }
+    }
+
+    @Test
+    public void shouldListEmptyBucketsWithZeros() {
+        // 2024-01-10 has no sales
+        LocalDate empty = FIRST_DAY.plusDays(9);
+        List<SalesSeriesService.Series> series =
+                salesSeriesService.series(empty.minusDays(1), empty.plusDays(1), Granularity.DAY, Dimension.ALL, null);
+
+        assertEquals(1, series.size());
+        assertEquals(3, series.get(0).points().size());
+        SalesSeriesService.Point point = series.get(0).points().get(1);
+        assertEquals(empty, point.bucketStart());
+        assertEquals(0, point.totalGamesSold());
+        assertEquals(0.0, point.totalSales());
+    }
+
+    @Test
+    public void shouldReturnNoSeriesWithoutSales() {
+        assertTrue(salesSeriesService.series(LocalDate.of(2020, 1, 1), LocalDate.of(2020, 12, 31),
+                Granularity.MONTH, Dimension.ALL, null).isEmpty());
+    }
+
+    @Test
+    public void shouldRejectTooManyPoints() {
+        // 180 days split over two types is 360 points, under the limit of 500; five games are not
+        salesSeriesService.series(FIRST_DAY, FIRST_DAY.plusDays(DAYS - 1), Granularity.DAY, Dimension.TYPE, null);
+        assertThrows(SalesSeriesService.TooManyPointsException.class, () -> salesSeriesService.series(
+                FIRST_DAY, FIRST_DAY.plusDays(DAYS - 1), Granularity.DAY, Dimension.GAME_NO, null));
+        assertThrows(SalesSeriesService.TooManyPointsException.class, () -> salesSeriesService.series(
+                FIRST_DAY, FIRST_DAY.plusYears(2), Granularity.DAY, Dimension.ALL, null));
+    }
+
+    @Test
+    public void shouldBackfillOnlyOnce() {
+        long rows = gameSalesRollupRepository.count();
+
+        assertEquals(0, salesSeriesService.backfill());
+        assertEquals(rows, gameSalesRollupRepository.count());
+    }
+
+    @Test
+    public void shouldRebuildUnrecordedBackfillFromScratch() {
+        long rows = gameSalesRollupRepository.count();
+        // Rollups are present, but the backfill that wrote them was never recorded
+        backfillStateRepository.deleteAll();
+
+        assertEquals(rows, salesSeriesService.backfill());
+        assertEquals(rows, gameSalesRollupRepository.count());
+        assertSeries(FIRST_DAY, FIRST_DAY.plusDays(DAYS - 1), Granularity.MONTH, Dimension.ALL, null);
+    }
+
+    // Compares a series with totals computed from the seeded game_sales rows
+    private void assertSeries(LocalDate from, LocalDate to, Granularity granularity, Dimension dimension, Integer value) {
+        List<SalesSeriesService.Series> series = salesSeriesService.series(from, to, granularity, dimension, value);
+        long buckets = SalesSeriesService.bucketCount(from, to, granularity);
+        String query = from + ".." + to + " " + granularity + " " + dimension;
+        for (SalesSeriesService.Series line : series) {
+            assertEquals(buckets, line.points().size(), query);
+            for (SalesSeriesService.Point point : line.points()) {
+                LocalDate start = point.bucketStart().isBefore(from) ? from : point.bucketStart();
+                LocalDate end = granularity.nextBucket(point.bucketStart()).minusDays(1);
+                LocalDate last = end.isAfter(to) ? to : end;
+                long gamesSold = 0;
+                long salesCents = 0;
+                for (Game game : games) {
+                    int gameValue = dimension == Dimension.TYPE ? game.getType()
+                            : dimension == Dimension.GAME_NO ? game.getGameNo() : 0;
+                    if (gameValue == line.value() && !game.getDateOfSale().isBefore(start)
+                            && !game.getDateOfSale().isAfter(last)) {
+                        gamesSold++;
+                        salesCents += Math.round(game.getSalePrice() * 100);
+                    }
+                }
+                assertEquals(gamesSold, point.totalGamesSold(), query + " " + point.bucketStart());
+                assertEquals(salesCents / 100.0, point.totalSales(), 0.001, query + " " + point.bucketStart());
+            }
+        }
+        long expectedSeries = games.stream()
+                .filter(game -> !game.getDateOfSale().isBefore(from) && !game.getDateOfSale().isAfter(to))
+                .filter(game -> value == null || game.getGameNo().equals(value))
+                .map(game -> dimension == Dimension.TYPE ? game.getType() : dimension == Dimension.GAME_NO ? game.getGameNo() : 0)
+                .distinct().count();
+        assertEquals(expectedSeries, series.size(), query);
+    }
+}
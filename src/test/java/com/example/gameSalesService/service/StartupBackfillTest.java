@@ -0,0 +1,73 @@
+package com.example.gameSalesService.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StartupBackfillTest {
+
+    private final StartupBackfill startupBackfill = new StartupBackfill();
+    private final SalesSeriesService salesSeriesService = mock(SalesSeriesService.class);
+    private final PriceDistributionService priceDistributionService = mock(PriceDistributionService.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+    public StartupBackfillTest() {
+        ReflectionTestUtils.setField(startupBackfill, "salesSeriesService", salesSeriesService);
+        ReflectionTestUtils.setField(startupBackfill, "priceDistributionService", priceDistributionService);
+        ReflectionTestUtils.setField(startupBackfill, "eventPublisher", eventPublisher);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        startupBackfill.shutdown();
+    }
+
+    @Test
+    public void shouldHoldImportsOffWhileBackfilling() throws Exception {
+        CountDownLatch backfilling = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(salesSeriesService.backfill()).thenAnswer(invocation -> {
+            backfilling.countDown();
+            release.await(30, TimeUnit.SECONDS);
+            return 10;
+        });
+
+        CompletableFuture<Void> backfill = startupBackfill.start();
+        assertTrue(backfilling.await(30, TimeUnit.SECONDS));
+        Lock importLock = startupBackfill.importLock();
+        assertFalse(importLock.tryLock());
+
+        release.countDown();
+        backfill.get(30, TimeUnit.SECONDS);
+        assertTrue(importLock.tryLock());
+        importLock.unlock();
+        verify(eventPublisher).publishEvent(any(BackfillCompletedEvent.class));
+    }
+
+    @Test
+    public void shouldRunTheOtherBackfillWhenOneFails() throws Exception {
+        when(salesSeriesService.backfill()).thenThrow(new IllegalStateException("rollups failed"));
+        when(priceDistributionService.backfill()).thenReturn(0);
+
+        startupBackfill.start().get(30, TimeUnit.SECONDS);
+
+        verify(priceDistributionService).backfill();
+        // Nothing was written, so cached responses stay valid
+        verify(eventPublisher, never()).publishEvent(any(BackfillCompletedEvent.class));
+        assertTrue(startupBackfill.importLock().tryLock());
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.gameSalesService.service;
+
+import com.example.gameSalesService.util.TopGamesSelector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {"game-sales.top-games.default-k=4", "game-sales.top-games.max-k=5"})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({SalesRollupIndex.class, TopGamesService.class})
+public class TopGamesServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 4, 1);
+
+    @MockBean
+    private CacheWarmupService cacheWarmupService;
+
+    @Autowired
+    private TopGamesService topGamesService;
+
+    @Autowired
+    private SalesRollupIndex index;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate.update("DELETE FROM game_sales_aggregated");
+        // Games 2 and 3 tie on revenue over both days; game 4 sells the most units
+        insert(DAY, 1, 1, 10.0);
+        insert(DAY, 2, 2, 30.0);
+        insert(DAY.plusDays(1), 2, 1, 20.0);
+        insert(DAY, 3, 1, 50.0);
+        insert(DAY, 4, 9, 45.0);
+        insert(DAY.plusDays(5), 5, 99, 999.0);
+        index.rebuild();
+    }
+
+    @Test
+    public void shouldRankTiesTogetherFromIndexAndDatabase() {
+        assertTrue(index.isReady());
+        List<TopGamesService.RankedGame> fromIndex =
+                topGamesService.top(DAY, DAY.plusDays(1), TopGamesSelector.Metric.REVENUE, 1, true);
+
+        ReflectionTestUtils.setField(index, "enabled", false);
+        List<TopGamesService.RankedGame> fromDatabase =
+                topGamesService.top(DAY, DAY.plusDays(1), TopGamesSelector.Metric.REVENUE, 1, true);
+
+        assertEquals(List.of(2, 3), fromIndex.stream().map(ranked -> ranked.total().gameNo()).toList());
+        assertEquals(List.of(1, 1), fromIndex.stream().map(TopGamesService.RankedGame::rank).toList());
+        assertEquals(fromIndex, fromDatabase);
+    }
+
+    @Test
+    public void shouldRankByUnits() {
+        List<TopGamesService.RankedGame> top =
+                topGamesService.top(DAY, DAY.plusDays(1), TopGamesSelector.Metric.UNITS, null, false);
+
+        assertEquals(List.of(4, 2, 1, 3), top.stream().map(ranked -> ranked.total().gameNo()).toList());
+        assertEquals(List.of(1, 2, 3, 3), top.stream().map(TopGamesService.RankedGame::rank).toList());
+    }
+
+    @Test
+    public void shouldRejectKAboveMaximum() {
+        assertThrows(IllegalArgumentException.class,
+                () -> topGamesService.top(DAY, DAY, TopGamesSelector.Metric.UNITS, 6, true));
+        assertThrows(IllegalArgumentException.class,
+                () -> topGamesService.top(DAY, DAY, TopGamesSelector.Metric.UNITS, 0, true));
+    }
+
+    private void insert(LocalDate day, int gameNo, int gamesSold, double totalSales) {
+        jdbcTemplate.update("INSERT INTO game_sales_aggregated (date_of_sale, game_no, total_games_sold, total_sales) "
+                + "VALUES (?, ?, ?, ?)", day, gameNo, gamesSold, totalSales);
+    }
+}
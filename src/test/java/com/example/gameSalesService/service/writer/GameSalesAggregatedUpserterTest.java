@@ -0,0 +1,87 @@
+package com.example.gameSalesService.service.writer;
+
+import com.example.gameSalesService.entity.GameSalesAggregated;
+import com.example.gameSalesService.repository.GameSalesAggregatedRepository;
+import com.example.gameSalesService.service.CacheWarmupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(GameSalesAggregatedUpserter.class)
+public class GameSalesAggregatedUpserterTest {
+
+    @MockBean
+    private CacheWarmupService cacheWarmupService;
+
+    @Autowired
+    private GameSalesAggregatedUpserter upserter;
+
+    @Autowired
+    private GameSalesAggregatedRepository gameSalesAggregatedRepository;
+
+    @BeforeEach
+    public void cleanUp() {
+        gameSalesAggregatedRepository.deleteAll();
+    }
+
+    @Test
+    public void shouldAddOntoExistingRowsForTheSameDayAndGame() {
+        LocalDate day = LocalDate.of(2024, 4, 1);
+        upserter.upsert(List.of(aggregate(day, 1, 3, 30.0), aggregate(day, 2, 1, 5.5)));
+        upserter.upsert(List.of(aggregate(day, 1, 2, 20.0), aggregate(day.plusDays(1), 1, 4, 40.0)));
+
+        assertEquals(3, gameSalesAggregatedRepository.count());
+        GameSalesAggregated merged = find(day, 1);
+        assertEquals(5, merged.getTotalGamesSold());
+        assertEquals(50.0, merged.getTotalSales());
+        GameSalesAggregated untouched = find(day, 2);
+        assertEquals(1, untouched.getTotalGamesSold());
+        assertEquals(5.5, untouched.getTotalSales());
+    }
+
+    @Test
+    public void shouldUpsertMoreRowsThanOneBatch() {
+        List<GameSalesAggregated> aggregates = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            aggregates.add(aggregate(LocalDate.of(2024, 1, 1).plusDays(i / 10), i % 10 + 1, 1, 1.0));
+        }
+
+        upserter.upsert(aggregates);
+        upserter.upsert(aggregates);
+
+        assertEquals(2500, gameSalesAggregatedRepository.count());
+        GameSalesAggregated last = find(LocalDate.of(2024, 1, 1).plusDays(249), 10);
+        assertEquals(2, last.getTotalGamesSold());
+    }
+
+    private GameSalesAggregated find(LocalDate day, int gameNo) {
+        return StreamSupport.stream(gameSalesAggregatedRepository.findAll().spliterator(), false)
+                .filter(aggregated -> aggregated.getDateOfSale().equals(day) && aggregated.getGameNo() == gameNo)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static GameSalesAggregated aggregate(LocalDate day, int gameNo, int gamesSold, double sales) {
+        GameSalesAggregated aggregated = new GameSalesAggregated();
+        aggregated.setDateOfSale(day);
+        aggregated.setGameNo(gameNo);
+        aggregated.setTotalGamesSold(gamesSold);
+        aggregated.setTotalSales(sales);
+        return aggregated;
+    }
+}
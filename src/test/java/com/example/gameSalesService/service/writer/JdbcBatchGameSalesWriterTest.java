@@ -0,0 +1,62 @@
+package com.example.gameSalesService.service.writer;
+
+import com.example.gameSalesService.entity.Game;
+import com.example.gameSalesService.repository.GameRepository;
+import com.example.gameSalesService.service.CacheWarmupService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(JdbcBatchGameSalesWriter.class)
+public class JdbcBatchGameSalesWriterTest {
+
+    @MockBean
+    private CacheWarmupService cacheWarmupService;
+
+    @Autowired
+    private JdbcBatchGameSalesWriter writer;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Test
+    public void shouldInsertFullStatementsAndTail() {
+        gameRepository.deleteAllInBatch();
+        List<Game> games = new ArrayList<>();
+        for (int i = 1; i <= 1234; i++) {
+            Game game = new Game();
+            game.setId((long) i);
+            game.setGameNo(i % 100 + 1);
+            game.setGameName("Game" + i % 10);
+            game.setGameCode("G" + i % 10);
+            game.setType(i % 2 + 1);
+            game.setCostPrice(10.0);
+            game.setTax(0.9);
+            game.setSalePrice(10.9);
+            game.setDateOfSale(LocalDate.of(2024, 4, 1).plusDays(i % 30));
+            games.add(game);
+        }
+
+        writer.write(games);
+
+        assertEquals(1234, gameRepository.count());
+        Game stored = gameRepository.findById(1234L).orElseThrow();
+        assertEquals(35, stored.getGameNo());
+        assertEquals("Game4", stored.getGameName());
+        assertEquals(10.9, stored.getSalePrice());
+        assertEquals(LocalDate.of(2024, 4, 5), stored.getDateOfSale());
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.gameSalesService.service.writer;
+
+import com.example.gameSalesService.entity.Game;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LoadDataGameSalesWriterTest {
+
+    @Test
+    public void shouldEscapeTextForLoadData() {
+        Game game = new Game();
+        game.setId(1L);
+        game.setGameNo(2);
+        game.setGameName("C:\\games, vol\n2");
+        game.setGameCode("G\t1");
+        game.setType(1);
+        game.setCostPrice(10.5);
+        game.setTax(0.95);
+        game.setSalePrice(11.45);
+        game.setDateOfSale(LocalDate.of(2024, 4, 1));
+
+        String csv = new String(LoadDataGameSalesWriter.encode(List.of(game)), StandardCharsets.UTF_8);
+
+        assertEquals("1,2,C:\\\\games\\, vol\\n2,G\\t1,1,10.5,0.95,11.45,2024-04-01\n", csv);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.gameSalesService.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class GameCsvParserTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void shouldParseRowsAndSkipHeader() throws Exception {
+        Path file = write("""
+                id,game_no,game_name,game_code,type,cost_price,tax,sale_price,date_of_sale
+                1,10,GameA,GA,1,50.00,4.50,54.50,2024-04-01
+                2,15,GameB,GB,2,30.1,2.71,32.81,2024-04-02T11:00:00
+                """);
+
+        List<String> rows = new ArrayList<>();
+        long parsed = new GameCsvParser().parse(file, row -> rows.add(row.toString()));
+
+        assertEquals(2, parsed);
+        assertEquals("Row[1, 10, GameA, GA, 1, 50.0, 4.5, 54.5, 2024-04-01]", rows.get(0));
+        assertEquals("Row[2, 15, GameB, GB, 2, 30.1, 2.71, 32.81, 2024-04-02]", rows.get(1));
+    }
+
+    @Test
+    public void shouldMatchJdkDecimalParsing() throws Exception {
+        String[] prices = {"0.01", "0.1", "99.99", "108.99", "54.5", "7", "12.345", "1.0E2", "0.30000000000000004"};
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < prices.length; i++) {
+            csv.append(i + 1).append(",1,GameA,GA,1,").append(prices[i]).append(",0,").append(prices[i]).append(",2024-04-01\n");
+        }
+
+        List<Double> parsed = new ArrayList<>();
+        new GameCsvParser().parse(write(csv.toString()), row -> parsed.add(row.getSalePrice()));
+
+        assertEquals(prices.length, parsed.size());
+        for (int i = 0; i < prices.length; i++) {
+            assertEquals(Double.parseDouble(prices[i]), parsed.get(i), 0.0, prices[i]);
+        }
+    }
+
+    @Test
+    public void shouldSkipMalformedRowsAndHandleCrlf() throws Exception {
+        Path file = write("id,game_no,game_name,game_code,type,cost_price,tax,sale_price,date_of_sale\r\n"
+                + "1,10,GameA,GA,1,50.00,4.50,54.50,2024-04-01\r\n"
+                + "2,10,GameA,GA,1,50.00,4.50,54.50\r\n"
+                + "3,x,GameA,GA,1,50.00,4.50,54.50,2024-04-01\r\n"
+                + "4,10,GameA,GA,1,50.00,4.50,54.50,2024-02-30\r\n"
+                + "5,10,GameA,GA,1,50.00,4.50,54.50,2024-04-01,extra\r\n"
+                + "\r\n"
+                + "6,10,GameA,GA,1,50.00,4.50,54.50,2024-04-03\r\n"
+                + "7,10,GameA,GA,1,50.00,4.50,-54.50,2024-04-01");
+
+        GameCsvParser parser = new GameCsvParser();
+        List<Long> ids = new ArrayList<>();
+        parser.parse(file, row -> ids.add(row.getId()));
+
+        assertEquals(List.of(1L, 6L), ids);
+        assertEquals(5, parser.getMalformedRows());
+    }
+
+    @Test
+    public void shouldReuseCachedNamesAndDates() throws Exception {
+        Path file = write("""
+                1,10,GameA,GA,1,50.00,4.50,54.50,2024-04-01
+                2,11,GameA,GA,1,50.00,4.50,54.50,2024-04-01
+                """);
+
+        List<Object[]> values = new ArrayList<>();
+        new GameCsvParser().parse(file, row -> values.add(new Object[]{row.getGameName(), row.getDateOfSale()}));
+
+        assertSame(values.get(0)[0], values.get(1)[0]);
+        assertSame(values.get(0)[1], values.get(1)[1]);
+        assertEquals(LocalDate.of(2024, 4, 1), values.get(0)[1]);
+    }
+
+    private Path write(String content) throws Exception {
+        Path file = tempDir.resolve("games.csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+}
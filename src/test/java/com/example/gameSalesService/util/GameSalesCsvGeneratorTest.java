@@ -0,0 +1,100 @@
+package com.example.gameSalesService.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GameSalesCsvGeneratorTest {
+
+    // Several blocks and a partial last one
+    private static final int ROWS = 2 * GameSalesCsvGenerator.BLOCK_ROWS + 123;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void shouldWriteTheSameFileForASeedWhateverTheThreadCount() throws Exception {
+        GameSalesCsvGenerator.Options options = GameSalesCsvGenerator.Options.defaults().withSeed(7);
+        Path single = tempDir.resolve("single.csv");
+        Path parallel = tempDir.resolve("parallel.csv");
+        Path otherSeed = tempDir.resolve("other.csv");
+
+        GameSalesCsvGenerator.generate(single, ROWS, options.withThreads(1));
+        GameSalesCsvGenerator.generate(parallel, ROWS, options.withThreads(4));
+        GameSalesCsvGenerator.generate(otherSeed, ROWS, options.withSeed(8).withThreads(4));
+
+        assertArrayEquals(Files.readAllBytes(single), Files.readAllBytes(parallel));
+        assertFalse(Files.mismatch(single, otherSeed) == -1);
+    }
+
+    @Test
+    public void shouldWriteRowsTheImportParses() throws Exception {
+        LocalDate firstDay = LocalDate.of(2023, 1, 1);
+        Path file = tempDir.resolve("games.csv");
+        GameSalesCsvGenerator.generate(file, ROWS, GameSalesCsvGenerator.Options.defaults()
+                .withDates(firstDay, 365).withGames(1000, 0));
+
+        long[] ids = new long[1];
+        GameCsvParser parser = new GameCsvParser();
+        long parsed = parser.parse(file, row -> {
+            assertEquals(++ids[0], row.getId());
+            assertTrue(row.getGameNo() >= 1 && row.getGameNo() <= 1000);
+            assertTrue(row.getType() == 1 || row.getType() == 2);
+            assertTrue(!row.getDateOfSale().isBefore(firstDay) && row.getDateOfSale().isBefore(firstDay.plusDays(365)));
+            assertTrue(row.getCostPrice() >= 0 && row.getCostPrice() <= 100);
+            // 9% tax rounded half up to the cent
+            assertEquals((Math.round(row.getCostPrice() * 100) * 9 + 50) / 100, Math.round(row.getTax() * 100));
+            assertEquals(Math.round((row.getCostPrice() + row.getTax()) * 100), Math.round(row.getSalePrice() * 100));
+        });
+
+        assertEquals(ROWS, parsed);
+        assertEquals(0, parser.getMalformedRows());
+    }
+
+    @Test
+    public void shouldWriteConcatenatedGzipMembersOfTheSameRows() throws Exception {
+        GameSalesCsvGenerator.Options options = GameSalesCsvGenerator.Options.defaults();
+        Path plain = tempDir.resolve("games.csv");
+        Path gzip = tempDir.resolve("games.csv.gz");
+
+        GameSalesCsvGenerator.generate(plain, ROWS, options);
+        GameSalesCsvGenerator.generate(gzip, ROWS, options.withGzip(true));
+
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(gzip))) {
+            assertArrayEquals(Files.readAllBytes(plain), in.readAllBytes());
+        }
+        assertTrue(Files.size(gzip) < Files.size(plain) / 2);
+    }
+
+    @Test
+    public void shouldSkewSalesTowardsTheFirstGames() throws Exception {
+        Path file = tempDir.resolve("games.csv");
+        GameSalesCsvGenerator.generate(file, ROWS, GameSalesCsvGenerator.Options.defaults().withGames(100, 1.0));
+
+        long[] sold = new long[101];
+        new GameCsvParser().parse(file, row -> sold[row.getGameNo()]++);
+
+        // Zipf with exponent 1 over 100 games: game 1 sells 1 / H(100), about 19%, game 2 half of that
+        assertEquals(0.193, sold[1] / (double) ROWS, 0.01);
+        assertEquals(2.0, sold[1] / (double) sold[2], 0.15);
+        assertTrue(sold[1] > 50 * sold[100]);
+    }
+
+    @Test
+    public void shouldWriteOnlyTheHeaderForNoRows() throws Exception {
+        Path file = tempDir.resolve("empty.csv");
+        GameSalesCsvGenerator.generate(file, 0, GameSalesCsvGenerator.Options.defaults());
+
+        assertEquals("id,game_no,game_name,game_code,type,cost_price,tax,sale_price,date_of_sale\n", Files.readString(file));
+    }
+}
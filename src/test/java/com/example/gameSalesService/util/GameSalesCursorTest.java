@@ -0,0 +1,37 @@
+package com.example.gameSalesService.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class GameSalesCursorTest {
+
+    @Test
+    public void shouldRoundTripEveryOrder() {
+        GameSalesCursor date = GameSalesCursor.afterDate(LocalDate.of(2024, 4, 30), 42);
+        GameSalesCursor price = GameSalesCursor.afterSalePrice(10.9, 7);
+        GameSalesCursor id = GameSalesCursor.afterId(123456789L);
+
+        assertEquals(date, GameSalesCursor.decode(date.encode(), GameSalesCursor.Order.DATE_OF_SALE));
+        assertEquals(10.9, GameSalesCursor.decode(price.encode(), GameSalesCursor.Order.SALE_PRICE).salePrice());
+        assertEquals(123456789L, GameSalesCursor.decode(id.encode(), GameSalesCursor.Order.ID).id());
+    }
+
+    @Test
+    public void shouldRejectTokenForAnotherOrder() {
+        String token = GameSalesCursor.afterDate(LocalDate.of(2024, 4, 30), 42).encode();
+
+        assertThrows(IllegalArgumentException.class, () -> GameSalesCursor.decode(token, GameSalesCursor.Order.SALE_PRICE));
+    }
+
+    @Test
+    public void shouldRejectMalformedTokens() {
+        assertThrows(IllegalArgumentException.class, () -> GameSalesCursor.decode("not base64!", GameSalesCursor.Order.ID));
+        assertThrows(IllegalArgumentException.class, () -> GameSalesCursor.decode(
+                new GameSalesCursor(GameSalesCursor.Order.DATE_OF_SALE, "yesterday", 1).encode(),
+                GameSalesCursor.Order.DATE_OF_SALE));
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.gameSalesService.util;
+
+import com.example.gameSalesService.entity.Game;
+import com.example.gameSalesService.entity.GameSalesAggregated;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParallelCsvParserTest {
+
+    private static final int ROWS = 20_000;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void shouldSplitOnLineBoundaries() throws Exception {
+        Path file = generate();
+
+        try (FileChannel channel = FileChannel.open(file)) {
+            long[] boundaries = ParallelCsvParser.split(channel, 16, 1024);
+
+            assertEquals(0, boundaries[0]);
+            assertEquals(channel.size(), boundaries[boundaries.length - 1]);
+            assertEquals(17, boundaries.length);
+            byte[] content = Files.readAllBytes(file);
+            for (int i = 1; i < boundaries.length - 1; i++) {
+                assertEquals('\n', content[(int) boundaries[i] - 1]);
+            }
+        }
+    }
+
+    @Test
+    public void shouldMatchSerialParseExactly() throws Exception {
+        Path file = generate();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Set<Long> serialIds = ConcurrentHashMap.newKeySet();
+            Set<Long> parallelIds = ConcurrentHashMap.newKeySet();
+            ImportTotals serialTotals = new ImportTotals();
+            ImportTotals parallelTotals = new ImportTotals();
+
+            ParallelCsvParser.Result serial = ParallelCsvParser.parse(file, pool, 1, 1024, 500,
+                    batch -> collect(batch, serialIds, serialTotals));
+            ParallelCsvParser.Result parallel = ParallelCsvParser.parse(file, pool, 13, 1024, 500,
+                    batch -> collect(batch, parallelIds, parallelTotals));
+
+            assertEquals(ROWS, serial.getRowsParsed());
+            assertEquals(ROWS, parallel.getRowsParsed());
+            assertEquals(ROWS, parallelIds.size());
+            assertEquals(serialIds, parallelIds);
+            assertEquals(ROWS, parallelTotals.getRows());
+            assertEquals(byKey(serialTotals.toAggregates()), byKey(parallelTotals.toAggregates()));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldHandBatchesOfRequestedSize() throws Exception {
+        Path file = generate();
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            List<Integer> sizes = new CopyOnWriteArrayList<>();
+            ParallelCsvParser.parse(file, pool, 4, 1024, 3000, batch -> sizes.add(batch.size()));
+
+            assertEquals(ROWS, sizes.stream().mapToInt(Integer::intValue).sum());
+            assertTrue(sizes.stream().allMatch(size -> size <= 3000));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void collect(List<Game> batch, Set<Long> ids, ImportTotals totals) {
+        batch.forEach(game -> ids.add(game.getId()));
+        synchronized (totals) {
+            totals.add(batch);
+        }
+    }
+
+    private Map<String, String> byKey(List<GameSalesAggregated> aggregates) {
+        return aggregates.stream().collect(Collectors.toMap(
+                aggregated -> aggregated.getDateOfSale() + "-" + aggregated.getGameNo(),
+                aggregated -> aggregated.getTotalGamesSold() + "/" + aggregated.getTotalSales()));
+    }
+
+    private Path generate() {
+        Path file = tempDir.resolve("games.csv");
+        GameSalesCsvGenerator.generateCsvFile(file.toString(), ROWS);
+        return file;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.gameSalesService.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PriceSketchTest {
+
+    private static final double[] QUANTILES = {0, 0.01, 0.25, 0.5, 0.9, 0.99, 0.999, 1};
+
+    @Test
+    public void shouldKeepQuantilesWithinRelativeErrorAcrossMerges() {
+        SplittableRandom random = new SplittableRandom(17);
+        for (int round = 0; round < 20; round++) {
+            int parts = random.nextInt(1, 30);
+            long[] prices = new long[random.nextInt(1, 20_000)];
+            PriceSketch merged = new PriceSketch();
+            PriceSketch[] partials = new PriceSketch[parts];
+            Arrays.setAll(partials, i -> new PriceSketch());
+            for (int i = 0; i < prices.length; i++) {
+                // Skewed towards cheap games, with the odd free one
+                prices[i] = random.nextInt(50) == 0 ? 0 : (long) (Math.pow(random.nextDouble(), 3) * 10_900) + 1;
+                partials[random.nextInt(parts)].add(prices[i]);
+            }
+            for (PriceSketch partial : partials) {
+                merged.merge(PriceSketch.fromBytes(partial.toBytes()));
+            }
+            Arrays.sort(prices);
+
+            assertEquals(prices.length, merged.getCount());
+            assertEquals(prices[0], merged.getMinCents());
+            assertEquals(prices[prices.length - 1], merged.getMaxCents());
+            for (double q : QUANTILES) {
+                long exact = prices[(int) Math.floor(q * (prices.length - 1))];
+                double estimate = merged.quantileCents(q);
+                assertTrue(Math.abs(estimate - exact) <= exact * PriceSketch.RELATIVE_ERROR,
+                        "q" + q + ": " + estimate + " vs " + exact);
+            }
+        }
+    }
+
+    @Test
+    public void shouldCountHistogramBucketsExactly() {
+        PriceSketch sketch = new PriceSketch();
+        for (long price : new long[]{0, 999, 1000, 5050, 9999, 10000, 10900}) {
+            sketch.add(price);
+        }
+
+        assertArrayEquals(new long[]{2, 1, 0, 0, 0, 1, 0, 0, 0, 1, 2}, sketch.getHistogram());
+        assertEquals(37948, sketch.getSumCents());
+    }
+
+    @Test
+    public void shouldRoundTripThroughBytes() {
+        PriceSketch sketch = new PriceSketch();
+        sketch.add(1);
+        sketch.add(4299);
+        sketch.add(4299);
+        PriceSketch copy = PriceSketch.fromBytes(sketch.toBytes());
+
+        assertArrayEquals(sketch.toBytes(), copy.toBytes());
+        assertEquals(0, PriceSketch.fromBytes(new PriceSketch().toBytes()).getCount());
+        assertThrows(IllegalArgumentException.class, () -> PriceSketch.fromBytes(new byte[]{1, (byte) 0x85}));
+    }
+
+    @Test
+    public void shouldRejectQueriesOnAnEmptySketch() {
+        assertThrows(IllegalStateException.class, () -> new PriceSketch().quantileCents(0.5));
+        PriceSketch sketch = new PriceSketch();
+        sketch.add(100);
+        assertThrows(IllegalArgumentException.class, () -> sketch.quantileCents(1.5));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.gameSalesService.util;
+
+import com.example.gameSalesService.entity.GameSalesAggregated;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SalesAggregatorTest {
+
+    @Test
+    public void shouldAggregatePerDateAndGameAndMergePartials() {
+        int day = (int) LocalDate.of(2024, 4, 1).toEpochDay();
+        SalesAggregator first = new SalesAggregator();
+        SalesAggregator second = new SalesAggregator();
+        // Enough keys to force several resizes
+        for (int gameNo = 1; gameNo <= 100; gameNo++) {
+            for (int offset = 0; offset < 30; offset++) {
+                first.add(day + offset, gameNo, 1099);
+                second.add(day + offset, gameNo, 1);
+            }
+        }
+        second.add(day, 1, 5000);
+
+        List<GameSalesAggregated> aggregates = first.merge(second).toAggregates();
+        aggregates.sort(Comparator.comparing(GameSalesAggregated::getDateOfSale).thenComparing(GameSalesAggregated::getGameNo));
+
+        assertEquals(3000, aggregates.size());
+        assertEquals(6001, first.totalGamesSold());
+        GameSalesAggregated firstKey = aggregates.get(0);
+        assertEquals(LocalDate.of(2024, 4, 1), firstKey.getDateOfSale());
+        assertEquals(1, firstKey.getGameNo());
+        assertEquals(3, firstKey.getTotalGamesSold());
+        assertEquals(61.0, firstKey.getTotalSales());
+        GameSalesAggregated lastKey = aggregates.get(2999);
+        assertEquals(LocalDate.of(2024, 4, 30), lastKey.getDateOfSale());
+        assertEquals(100, lastKey.getGameNo());
+        assertEquals(11.0, lastKey.getTotalSales());
+    }
+
+    @Test
+    public void shouldHandleDatesBeforeEpoch() {
+        SalesAggregator aggregator = new SalesAggregator();
+        aggregator.add((int) LocalDate.of(1969, 12, 31).toEpochDay(), 7, 250);
+
+        GameSalesAggregated aggregated = aggregator.toAggregates().get(0);
+        assertEquals(LocalDate.of(1969, 12, 31), aggregated.getDateOfSale());
+        assertEquals(7, aggregated.getGameNo());
+        assertEquals(2.5, aggregated.getTotalSales());
+    }
+}
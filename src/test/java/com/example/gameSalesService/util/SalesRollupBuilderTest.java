@@ -0,0 +1,68 @@
+package com.example.gameSalesService.util;
+
+import com.example.gameSalesService.entity.GameSalesRollup;
+import com.example.gameSalesService.entity.GameSalesRollup.Dimension;
+import com.example.gameSalesService.entity.GameSalesRollup.Granularity;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class SalesRollupBuilderTest {
+
+    @Test
+    public void shouldRollDaysUpIntoWeeksAndMonths() {
+        // Sunday 2024-03-31 and Monday 2024-04-01 fall in different weeks and months
+        int sunday = (int) LocalDate.of(2024, 3, 31).toEpochDay();
+        SalesAggregator byGame = new SalesAggregator();
+        byGame.add(sunday, 1, 1000);
+        byGame.add(sunday + 1, 1, 250);
+        byGame.add(sunday + 2, 2, 2, 999);
+        SalesAggregator byType = new SalesAggregator();
+        byType.add(sunday, 1, 1000);
+        byType.add(sunday + 1, 2, 250);
+        byType.add(sunday + 2, 2, 2, 999);
+
+        List<GameSalesRollup> rollups = SalesRollupBuilder.of(byGame, byType).toRollups();
+
+        GameSalesRollup march = find(rollups, Granularity.MONTH, Dimension.ALL, 0, LocalDate.of(2024, 3, 1));
+        assertEquals(1, march.getTotalGamesSold());
+        assertEquals(10.0, march.getTotalSales());
+        GameSalesRollup april = find(rollups, Granularity.MONTH, Dimension.ALL, 0, LocalDate.of(2024, 4, 1));
+        assertEquals(3, april.getTotalGamesSold());
+        assertEquals(12.49, april.getTotalSales());
+        GameSalesRollup week = find(rollups, Granularity.WEEK, Dimension.GAME_NO, 1, LocalDate.of(2024, 3, 25));
+        assertEquals(1, week.getTotalGamesSold());
+        GameSalesRollup nextWeek = find(rollups, Granularity.WEEK, Dimension.TYPE, 2, LocalDate.of(2024, 4, 1));
+        assertEquals(3, nextWeek.getTotalGamesSold());
+        assertEquals(12.49, nextWeek.getTotalSales());
+        assertEquals(2, find(rollups, Granularity.DAY, Dimension.GAME_NO, 2, LocalDate.of(2024, 4, 2)).getTotalGamesSold());
+        assertNull(find(rollups, Granularity.WEEK, Dimension.ALL, 0, LocalDate.of(2024, 3, 31)));
+    }
+
+    @Test
+    public void shouldCountOnlyGamesTowardsAllSales() {
+        int day = (int) LocalDate.of(2024, 4, 10).toEpochDay();
+        SalesRollupBuilder builder = new SalesRollupBuilder();
+        builder.addGame(day, 7, 4, 400);
+        builder.addType(day, 1, 4, 400);
+
+        // Day, week and month rows for ALL, game 7 and type 1
+        assertEquals(9, builder.size());
+        GameSalesRollup all = find(builder.toRollups(), Granularity.DAY, Dimension.ALL, 0, LocalDate.of(2024, 4, 10));
+        assertNotNull(all);
+        assertEquals(4, all.getTotalGamesSold());
+    }
+
+    private static GameSalesRollup find(List<GameSalesRollup> rollups, Granularity granularity, Dimension dimension,
+                                        int value, LocalDate bucketStart) {
+        return rollups.stream()
+                .filter(rollup -> rollup.getGranularity() == granularity && rollup.getDimension() == dimension
+                        && rollup.getDimensionValue() == value && rollup.getBucketStart().equals(bucketStart))
+                .findFirst().orElse(null);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.gameSalesService.util;
+
+import com.example.gameSalesService.repository.GameSalesTotal;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TopGamesSelectorTest {
+
+    @Test
+    public void shouldKeepEveryGameTiedWithTheKthPlace() {
+        TopGamesSelector selector = new TopGamesSelector(TopGamesSelector.Metric.UNITS, 2, true);
+        selector.offer(new GameSalesTotal(1, 5L, 50.0));
+        selector.offer(new GameSalesTotal(2, 9L, 90.0));
+        selector.offer(new GameSalesTotal(3, 5L, 10.0));
+        selector.offer(new GameSalesTotal(4, 1L, 100.0));
+        selector.offer(new GameSalesTotal(5, 5L, 5.0));
+
+        assertEquals(List.of(2, 1, 3, 5), gameNos(selector.result()));
+    }
+
+    @Test
+    public void shouldDropTiesOnceABetterGameArrives() {
+        TopGamesSelector selector = new TopGamesSelector(TopGamesSelector.Metric.REVENUE, 2, true);
+        selector.offer(new GameSalesTotal(1, 1L, 10.0));
+        selector.offer(new GameSalesTotal(2, 1L, 10.0));
+        selector.offer(new GameSalesTotal(3, 1L, 10.0));
+        selector.offer(new GameSalesTotal(4, 1L, 20.0));
+        selector.offer(new GameSalesTotal(5, 1L, 30.0));
+
+        assertEquals(List.of(5, 4), gameNos(selector.result()));
+    }
+
+    @Test
+    public void shouldBreakTiesByGameNoWithoutTies() {
+        TopGamesSelector selector = new TopGamesSelector(TopGamesSelector.Metric.REVENUE, 2, false);
+        selector.offer(new GameSalesTotal(9, 1L, 10.0));
+        selector.offer(new GameSalesTotal(3, 1L, 10.0));
+        selector.offer(new GameSalesTotal(7, 1L, 10.0));
+        selector.offer(new GameSalesTotal(8, 0L, 0.0));
+
+        assertEquals(List.of(3, 7), gameNos(selector.result()));
+    }
+
+    @Test
+    public void shouldMatchAFullSort() {
+        SplittableRandom random = new SplittableRandom(9);
+        for (int round = 0; round < 200; round++) {
+            int k = random.nextInt(1, 15);
+            List<GameSalesTotal> totals = new ArrayList<>();
+            for (int gameNo = 1; gameNo <= random.nextInt(1, 60); gameNo++) {
+                // Few distinct values, so ties are common
+                totals.add(new GameSalesTotal(gameNo, (long) random.nextInt(1, 8), random.nextInt(1, 6) * 2.5));
+            }
+            for (TopGamesSelector.Metric metric : TopGamesSelector.Metric.values()) {
+                Comparator<GameSalesTotal> ranking = Comparator.comparingLong(metric::value).reversed()
+                        .thenComparing(GameSalesTotal::gameNo);
+                List<GameSalesTotal> sorted = new ArrayList<>(totals);
+                sorted.sort(ranking);
+
+                TopGamesSelector exact = new TopGamesSelector(metric, k, false);
+                TopGamesSelector withTies = new TopGamesSelector(metric, k, true);
+                totals.forEach(exact::offer);
+                totals.forEach(withTies::offer);
+
+                List<GameSalesTotal> expected = sorted.subList(0, Math.min(k, sorted.size()));
+                assertEquals(expected, exact.result());
+                List<GameSalesTotal> expectedWithTies = new ArrayList<>(expected);
+                for (int i = expected.size(); i < sorted.size()
+                        && metric.value(sorted.get(i)) == metric.value(expected.get(expected.size() - 1)); i++) {
+                    expectedWithTies.add(sorted.get(i));
+                }
+                assertEquals(expectedWithTies, withTies.result());
+            }
+        }
+    }
+
+    @Test
+    public void shouldRejectNonPositiveK() {
+        assertThrows(IllegalArgumentException.class, () -> new TopGamesSelector(TopGamesSelector.Metric.UNITS, 0, true));
+    }
+
+    private static List<Integer> gameNos(List<GameSalesTotal> totals) {
+        return totals.stream().map(GameSalesTotal::gameNo).toList();
+    }
+}